@@ -0,0 +1,161 @@
+package com.edwinbaquiax.courseadministratorservice.cache;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache en memoria de las relaciones docente → curso → modulo → estudiante.
+ *
+ * <p>Responde lo mismo que {@code IEnrollmentRepository.isAsignableToTaskStudent} sin la
+ * consulta de tres tablas: por modulo se guarda su curso y por curso su docente y los ids
+ * de estudiantes inscritos. Calificar una clase completa cuesta una carga por curso.</p>
+ *
+ * <p>Los servicios que cambian el grafo invalidan la entrada de inmediato y otra vez al
+ * confirmar la transaccion. Una carga que empezo antes de una invalidacion no se guarda
+ * (contador de generacion), asi no queda en cache un estado anterior al cambio; el contador
+ * se revisa dentro del {@code compute} que guarda la entrada y la invalidacion elimina con
+ * otro {@code compute} de la misma llave, sin hueco entre la revision y la escritura. Asignar o
+ * retirar modulos de un curso invalida cada modulo. Los dos mapas tienen tamaño maximo.</p>
+ */
+@Component
+public class AssignabilityCache {
+
+    //modulo existente pero sin curso, o inexistente
+    private static final Long NO_COURSE = -1L;
+
+    private final Map<Long, Long> courseByModule = new ConcurrentHashMap<>();
+    private final Map<Long, CourseMembers> membersByCourse = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxCourses;
+    private final int maxModules;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    private IModuleRepository moduleRepository;
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+
+    public AssignabilityCache(@Value("${cache.assignability.max-courses:5000}") int maxCourses,
+                              @Value("${cache.assignability.max-modules:50000}") int maxModules) {
+        this.maxCourses = maxCourses;
+        this.maxModules = maxModules;
+    }
+
+    /**
+     * Mismo resultado que {@code isAsignableToTaskStudent(userId, moduleId, teacherId)}.
+     */
+    public boolean isAssignable(Long userId, Long moduleId, Long teacherId) {
+        if (userId == null || moduleId == null || teacherId == null) {
+            return false;
+        }
+        Long courseId = courseOf(moduleId);
+        if (NO_COURSE.equals(courseId)) {
+            return false;
+        }
+        CourseMembers members = membersOf(courseId);
+        return Objects.equals(members.teacherId(), teacherId) && members.studentIds().contains(userId);
+    }
+
+    public void invalidateModule(Long moduleId) {
+        evictModule(moduleId);
+        AfterCommit.run(() -> evictModule(moduleId));
+    }
+
+    public void invalidateCourse(Long courseId) {
+        evictCourse(courseId);
+        AfterCommit.run(() -> evictCourse(courseId));
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return CacheStatsDTO.builder()
+                .name("assignability")
+                .size(membersByCourse.size())
+                .maxSize(maxCourses)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    private Long courseOf(Long moduleId) {
+        Long cached = courseByModule.get(moduleId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        Long courseId = moduleRepository.findCourseIdById(moduleId).orElse(NO_COURSE);
+        if (generation.get() == loadedAt) {
+            if (courseByModule.size() >= maxModules) {
+                makeRoom(courseByModule, maxModules);
+            }
+            courseByModule.compute(moduleId, (k, old) -> old != null || generation.get() != loadedAt ? old : courseId);
+        }
+        return courseId;
+    }
+
+    private CourseMembers membersOf(Long courseId) {
+        CourseMembers cached = membersByCourse.get(courseId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        CourseMembers members = new CourseMembers(
+                courseRepository.findTeacherIdById(courseId).orElse(null),
+                Set.copyOf(enrollmentRepository.findStudentIdsByCourseId(courseId)));
+        if (generation.get() == loadedAt) {
+            if (membersByCourse.size() >= maxCourses) {
+                makeRoom(membersByCourse, maxCourses);
+            }
+            membersByCourse.compute(courseId, (k, old) -> old != null || generation.get() != loadedAt ? old : members);
+        }
+        return members;
+    }
+
+    private void evictModule(Long moduleId) {
+        generation.incrementAndGet();
+        courseByModule.compute(moduleId, (k, old) -> null);
+    }
+
+    private void evictCourse(Long courseId) {
+        generation.incrementAndGet();
+        membersByCourse.compute(courseId, (k, old) -> null);
+    }
+
+    private void makeRoom(Map<Long, ?> entries, int maxSize) {
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private record CourseMembers(Long teacherId, Set<Long> studentIds) {
+    }
+}
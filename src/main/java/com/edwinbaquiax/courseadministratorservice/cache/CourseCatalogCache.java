@@ -0,0 +1,70 @@
+package com.edwinbaquiax.courseadministratorservice.cache;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache de las lecturas mas frecuentes del catalogo: curso por id, modulo por id y
+ * modulos activos de un curso por pagina.
+ *
+ * <p>Las escrituras de cursos y modulos invalidan las entradas afectadas de inmediato y al
+ * confirmar la transaccion, por lo que despues de editar un curso no se sirven datos viejos.</p>
+ */
+@Component
+public class CourseCatalogCache {
+
+    private final ReadThroughCache<Long, CourseResponseDTO> courses;
+    private final ReadThroughCache<Long, ModuleResponseDTO> modules;
+    private final ReadThroughCache<ModulePageKey, Page<ModuleResponseDTO>> modulesByCourse;
+
+    public CourseCatalogCache(@Value("${cache.catalog.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${cache.catalog.max-size:10000}") int maxSize) {
+        long ttlMillis = ttlSeconds * 1000;
+        this.courses = new ReadThroughCache<>("catalog-courses", ttlMillis, maxSize);
+        this.modules = new ReadThroughCache<>("catalog-modules", ttlMillis, maxSize);
+        this.modulesByCourse = new ReadThroughCache<>("catalog-modules-by-course", ttlMillis, maxSize);
+    }
+
+    public CourseResponseDTO course(Long courseId, Function<Long, CourseResponseDTO> loader) {
+        return courses.get(courseId, loader);
+    }
+
+    public ModuleResponseDTO module(Long moduleId, Function<Long, ModuleResponseDTO> loader) {
+        return modules.get(moduleId, loader);
+    }
+
+    public Page<ModuleResponseDTO> modulesByCourse(Long courseId, int page, int size,
+                                                   Function<ModulePageKey, Page<ModuleResponseDTO>> loader) {
+        return modulesByCourse.get(new ModulePageKey(courseId, page, size), loader);
+    }
+
+    public void invalidateCourse(Long courseId) {
+        courses.invalidateOnCommit(courseId);
+        invalidateModulesOfCourse(courseId);
+    }
+
+    public void invalidateModule(Long moduleId) {
+        modules.invalidateOnCommit(moduleId);
+    }
+
+    //todas las paginas de modulos de ese curso
+    public void invalidateModulesOfCourse(Long courseId) {
+        if (courseId == null) return;
+        modulesByCourse.invalidateIfOnCommit(key -> Objects.equals(key.courseId(), courseId));
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(courses.stats(), modules.stats(), modulesByCourse.stats());
+    }
+
+    public record ModulePageKey(Long courseId, int page, int size) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.edwinbaquiax.courseadministratorservice.cache;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache en memoria de lectura directa con TTL y tamaño maximo.
+ *
+ * <p>En un fallo se llama al loader y se guarda el resultado, salvo que haya ocurrido una
+ * invalidacion durante la carga (contador de generacion): asi una lectura concurrente con
+ * una escritura no deja en cache el valor anterior. La revision del contador y la escritura
+ * de la entrada ocurren dentro del mismo {@code compute} de la llave, y la invalidacion
+ * elimina la llave con otro {@code compute}: no queda un hueco entre ambas donde una
+ * invalidacion se pierda. Los errores del loader no se guardan.</p>
+ */
+public class ReadThroughCache<K, V> {
+
+    private final String name;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(String name, long ttlMillis, int maxSize) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+
+        long loadedAt = generation.get();
+        V value = loader.apply(key);
+        if (value != null && maxSize > 0 && generation.get() == loadedAt) {
+            if (entries.size() >= maxSize) {
+                makeRoom(now);
+            }
+            //una invalidacion despues de la revision de arriba ya incremento el contador
+            entries.compute(key, (k, old) -> generation.get() == loadedAt ? new Entry<>(value, now + ttlMillis) : old);
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.compute(key, (k, old) -> null);
+    }
+
+    public void invalidateIf(Predicate<K> matches) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(matches);
+    }
+
+    /**
+     * Invalida ahora y de nuevo al confirmar la transaccion, para descartar lo que otra
+     * peticion haya cargado mientras la escritura seguia sin confirmar.
+     */
+    public void invalidateOnCommit(K key) {
+        invalidate(key);
+        AfterCommit.run(() -> invalidate(key));
+    }
+
+    public void invalidateIfOnCommit(Predicate<K> matches) {
+        invalidateIf(matches);
+        AfterCommit.run(() -> invalidateIf(matches));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(entries.size())
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    //primero se descartan los expirados, si sigue lleno se descarta cualquier entrada
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.edwinbaquiax.courseadministratorservice.cleanup;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupPhase;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICleanupJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ejecuta en segundo plano las limpiezas registradas por {@link CleanupQueue}.
+ *
+ * <p>Cada trabajo avanza por lotes acotados y guarda su etapa y avance despues de cada uno.
+ * Mientras trabaja renueva un bloqueo con vencimiento ({@code locked_until}); si la
+ * aplicacion se detiene, otra instancia (o la misma al reiniciar) retoma el trabajo cuando
+ * el bloqueo vence; el trabajo tiene version, asi que la instancia que lo perdio no puede
+ * guardar encima del avance de la nueva. Los errores se reintentan con espera creciente hasta
+ * {@code cleanup.max-attempts}.</p>
+ */
+@Slf4j
+@Component
+public class CleanupEngine {
+
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    @Autowired
+    private ICleanupJobRepository jobRepository;
+    @Autowired
+    private CleanupSteps steps;
+
+    @Value("${cleanup.batch-size:500}")
+    private int batchSize;
+    @Value("${cleanup.jobs-per-poll:10}")
+    private int jobsPerPoll;
+    @Value("${cleanup.lease-seconds:60}")
+    private long leaseSeconds;
+    @Value("${cleanup.max-attempts:5}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${cleanup.poll-interval-ms:1000}")
+    public void poll() {
+        List<Long> ids = jobRepository.findClaimableIds(CleanupQueue.UNFINISHED, LocalDateTime.now(), Limit.of(jobsPerPoll));
+        for (Long id : ids) {
+            //los trabajos anteriores pudieron tardar: el bloqueo se calcula al tomar cada uno
+            LocalDateTime now = LocalDateTime.now();
+            //otra instancia pudo tomarlo entre la consulta y el bloqueo
+            if (jobRepository.claim(id, CleanupStatus.RUNNING, now, now.plusSeconds(leaseSeconds)) == 1) {
+                jobRepository.findById(id).ifPresent(this::process);
+            }
+        }
+    }
+
+    void process(CleanupJob job) {
+        while (job != null) {
+            CleanupSteps.Result result;
+            try {
+                result = steps.run(job, batchSize);
+            } catch (RuntimeException e) {
+                failed(job, e);
+                return;
+            }
+
+            if (result.waiting()) {
+                //se suelta el trabajo y se vuelve a intentar cuando venza el bloqueo
+                save(job, LocalDateTime.now().plusSeconds(leaseSeconds));
+                return;
+            }
+
+            job.setProcessed(job.getProcessed() + result.deleted());
+            if (result.reopen()) {
+                log.info("Limpieza {} de {} {}: aparecieron dependientes, vuelve a la primera etapa",
+                        job.getId(), job.getTargetType(), job.getTargetId());
+                job.setPhase(job.getTargetType().firstPhase());
+            } else if (result.phaseDone()) {
+                CleanupPhase next = job.getTargetType().nextPhase(job.getPhase());
+                if (next == null) {
+                    job.setStatus(CleanupStatus.DONE);
+                    save(job, null);
+                    log.info("Limpieza {} de {} {} terminada: {} eliminados",
+                            job.getId(), job.getTargetType(), job.getTargetId(), job.getProcessed());
+                    return;
+                }
+                job.setPhase(next);
+            }
+            job = save(job, LocalDateTime.now().plusSeconds(leaseSeconds));
+        }
+    }
+
+    private void failed(CleanupJob job, RuntimeException e) {
+        job.setAttempts(job.getAttempts() + 1);
+        String message = String.valueOf(e.getMessage());
+        job.setLastError(message.length() > ERROR_MAX_LENGTH ? message.substring(0, ERROR_MAX_LENGTH) : message);
+        if (job.getAttempts() >= maxAttempts) {
+            job.setStatus(CleanupStatus.FAILED);
+            save(job, null);
+            log.error("Limpieza {} de {} {} fallida en la etapa {}",
+                    job.getId(), job.getTargetType(), job.getTargetId(), job.getPhase(), e);
+            return;
+        }
+        log.warn("Limpieza {} fallo en la etapa {} (intento {}): {}",
+                job.getId(), job.getPhase(), job.getAttempts(), e.getMessage());
+        save(job, LocalDateTime.now().plusSeconds(leaseSeconds * job.getAttempts()));
+    }
+
+    /**
+     * Guarda el avance y renueva el bloqueo.
+     *
+     * @return el trabajo guardado (con su version nueva), o {@code null} si otra instancia lo
+     * tomo porque el bloqueo vencio; en ese caso esta instancia deja de procesarlo
+     */
+    private CleanupJob save(CleanupJob job, LocalDateTime lockedUntil) {
+        job.setLockedUntil(lockedUntil);
+        job.setUpdatedAt(LocalDateTime.now());
+        try {
+            return jobRepository.save(job);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Limpieza {} tomada por otra instancia, se deja de procesar aqui", job.getId());
+            return null;
+        }
+    }
+}
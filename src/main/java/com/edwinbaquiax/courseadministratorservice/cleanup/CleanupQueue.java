@@ -0,0 +1,32 @@
+package com.edwinbaquiax.courseadministratorservice.cleanup;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICleanupJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Registra limpiezas pendientes. Se llama dentro de la transaccion del borrado, asi el
+ * trabajo queda guardado junto con la marca de inactivo o no queda ninguno de los dos.
+ */
+@Component
+public class CleanupQueue {
+
+    static final List<CleanupStatus> UNFINISHED = List.of(CleanupStatus.PENDING, CleanupStatus.RUNNING);
+
+    @Autowired
+    private ICleanupJobRepository jobRepository;
+
+    //si ya hay una limpieza sin terminar para el mismo objetivo se reutiliza
+    public CleanupJob enqueue(CleanupTarget target, Long targetId) {
+        return jobRepository.findFirstByTargetTypeAndTargetIdAndStatusIn(target, targetId, UNFINISHED)
+                .orElseGet(() -> jobRepository.save(CleanupJob.builder()
+                        .targetType(target)
+                        .targetId(targetId)
+                        .build()));
+    }
+}
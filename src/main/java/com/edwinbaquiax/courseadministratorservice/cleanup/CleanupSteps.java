@@ -0,0 +1,224 @@
+package com.edwinbaquiax.courseadministratorservice.cleanup;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AfterCommit;
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.GroupCount;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import com.edwinbaquiax.courseadministratorservice.search.CourseSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Un lote de la limpieza en cascada.
+ *
+ * <p>Cada lote vuelve a consultar lo que falta por eliminar en lugar de guardar un cursor,
+ * por eso repetir un lote despues de un reinicio no hace daño: lo ya eliminado no aparece.
+ * Los lotes de SQL son un SELECT de ids con limite y un DELETE por esos ids; en Mongo es
+ * lo mismo con un {@code deleteMany} por {@code _id}.</p>
+ *
+ * <p>Las etapas no bloquean al objetivo: si mientras tanto se le agrega un modulo, una
+ * inscripcion, una tarea o una asignacion, la etapa que los eliminaba ya paso. Antes de
+ * eliminar la raiz se revisa que no quede nada y, si queda, la limpieza vuelve a su primera
+ * etapa. Las tareas de los modulos de un curso se revisan antes de cada lote de modulos,
+ * porque despues de borrar el modulo ya no se sabe a que curso pertenecian.</p>
+ */
+@Component
+public class CleanupSteps {
+
+    //tareas por lote; sus asignaciones se eliminan antes que ellas, hasta batchSize por lote
+    private static final int TASKS_PER_BATCH = 50;
+
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+    @Autowired
+    private IModuleRepository moduleRepository;
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private IWaitlistRepository waitlistRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private CleanupQueue cleanupQueue;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private CourseCatalogCache catalogCache;
+    @Autowired
+    private CourseSearchIndex searchIndex;
+    @Autowired
+    private PlatformCounters counters;
+
+    /**
+     * Resultado de un lote.
+     *
+     * @param deleted   filas o documentos eliminados
+     * @param phaseDone la etapa no tiene mas trabajo
+     * @param waiting   la etapa depende de otra limpieza que aun no termina
+     * @param reopen    aparecieron dependientes despues de su etapa, hay que empezar de nuevo
+     */
+    public record Result(int deleted, boolean phaseDone, boolean waiting, boolean reopen) {
+        static final Result WAIT = new Result(0, false, true);
+        static final Result REOPEN = new Result(0, false, false, true);
+
+        public Result(int deleted, boolean phaseDone, boolean waiting) {
+            this(deleted, phaseDone, waiting, false);
+        }
+
+        static Result batch(int deleted, int fetched, int batchSize) {
+            return new Result(deleted, fetched < batchSize, false);
+        }
+    }
+
+    @Transactional
+    public Result run(CleanupJob job, int batchSize) {
+        Long id = job.getTargetId();
+        return switch (job.getPhase()) {
+            case ASSIGNMENTS -> assignmentsOfUser(id, batchSize);
+            case TASKS -> tasksOf(job.getTargetType() == CleanupTarget.COURSE
+                    ? moduleRepository.findIdsByCourseId(id, Limit.unlimited())
+                    : List.of(id), batchSize);
+            case ENROLLMENTS -> enrollments(job.getTargetType() == CleanupTarget.COURSE
+                    ? enrollmentRepository.findIdsByCourseId(id, Limit.of(batchSize))
+                    : enrollmentRepository.findIdsByUserId(id, Limit.of(batchSize)), batchSize);
+            case COURSES -> coursesOfTeacher(id, batchSize);
+            case MODULES -> modulesOfCourse(id, batchSize);
+            case ROOT -> root(job.getTargetType(), id);
+        };
+    }
+
+    private Result assignmentsOfUser(Long userId, int batchSize) {
+        List<String> ids = assignmentIds(Criteria.where("userId").is(userId), batchSize);
+        return Result.batch(deleteAssignments(ids), ids.size(), batchSize);
+    }
+
+    //primero las asignaciones de un grupo de tareas y, cuando ya no quedan, las tareas
+    private Result tasksOf(Collection<Long> moduleIds, int batchSize) {
+        if (moduleIds.isEmpty()) return new Result(0, true, false);
+
+        Query tasks = Query.query(Criteria.where("moduleId").in(moduleIds)).limit(TASKS_PER_BATCH);
+        tasks.fields().include("id");
+        List<String> taskIds = mongoTemplate.find(tasks, Task.class).stream().map(Task::getId).toList();
+        if (taskIds.isEmpty()) return new Result(0, true, false);
+
+        List<String> assignmentIds = assignmentIds(Criteria.where("taskId").in(taskIds), batchSize);
+        if (!assignmentIds.isEmpty()) {
+            return new Result(deleteAssignments(assignmentIds), false, false);
+        }
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("id").in(taskIds)), Task.class).getDeletedCount();
+        return Result.batch((int) deleted, taskIds.size(), TASKS_PER_BATCH);
+    }
+
+    private Result enrollments(List<Long> ids, int batchSize) {
+        if (ids.isEmpty()) return new Result(0, true, false);
+
+        //las de un curso eliminado ya se descontaron; las de un usuario se descuentan aqui
+        for (GroupCount row : enrollmentRepository.countActiveByCourseIn(ids)) {
+            counters.enrollmentsRemoved(row.getId(), row.getTotal());
+        }
+        int deleted = enrollmentRepository.deleteByIds(ids);
+        return Result.batch(deleted, ids.size(), batchSize);
+    }
+
+    private Result modulesOfCourse(Long courseId, int batchSize) {
+        List<Long> ids = moduleRepository.findIdsByCourseId(courseId, Limit.of(batchSize));
+        if (ids.isEmpty()) return new Result(0, true, false);
+        //una tarea creada despues de la etapa TASKS quedaria con un moduleId que ya no existe
+        if (tasksExist(ids)) return Result.REOPEN;
+
+        int deleted = moduleRepository.deleteByIds(ids);
+        ids.forEach(id -> {
+            assignabilityCache.invalidateModule(id);
+            catalogCache.invalidateModule(id);
+        });
+        return Result.batch(deleted, ids.size(), batchSize);
+    }
+
+    //cada curso del docente se desactiva y recibe su propia limpieza
+    private Result coursesOfTeacher(Long teacherId, int batchSize) {
+        List<Long> ids = courseRepository.findIdsByTeacherWithoutCleanup(teacherId, CleanupTarget.COURSE, Limit.of(batchSize));
+        if (ids.isEmpty()) return new Result(0, true, false);
+
+        for (Long id : courseRepository.findActiveIds(ids)) {
+            counters.courseRemoved(id, moduleRepository.findIdsByCourseId(id, Limit.unlimited()));
+        }
+        courseRepository.deactivate(ids);
+        ids.forEach(id -> {
+            cleanupQueue.enqueue(CleanupTarget.COURSE, id);
+            catalogCache.invalidateCourse(id);
+            AfterCommit.run(() -> searchIndex.remove(id));
+        });
+        return Result.batch(0, ids.size(), batchSize);
+    }
+
+    private Result root(CleanupTarget target, Long id) {
+        if (hasDependents(target, id)) return Result.REOPEN;
+        switch (target) {
+            case COURSE -> {
+                waitlistRepository.deleteByCourseId(id);
+                courseRepository.deleteById(id);
+                catalogCache.invalidateCourse(id);
+                assignabilityCache.invalidateCourse(id);
+            }
+            case MODULE -> {
+                moduleRepository.deleteById(id);
+                catalogCache.invalidateModule(id);
+                assignabilityCache.invalidateModule(id);
+            }
+            case USER -> {
+                //los cursos del docente se eliminan en sus propias limpiezas
+                if (courseRepository.existsByTeacher_Id(id)) return Result.WAIT;
+                waitlistRepository.deleteByUserId(id);
+                userRepository.deleteById(id);
+            }
+        }
+        return new Result(1, true, false);
+    }
+
+    //lo que una etapa anterior debia eliminar y se agrego despues de que termino
+    private boolean hasDependents(CleanupTarget target, Long id) {
+        return switch (target) {
+            case COURSE -> !moduleRepository.findIdsByCourseId(id, Limit.of(1)).isEmpty()
+                    || !enrollmentRepository.findIdsByCourseId(id, Limit.of(1)).isEmpty();
+            case MODULE -> tasksExist(List.of(id));
+            //mientras sus inscripciones seguian activas un docente pudo asignarle tareas
+            case USER -> !enrollmentRepository.findIdsByUserId(id, Limit.of(1)).isEmpty()
+                    || mongoTemplate.exists(Query.query(Criteria.where("userId").is(id)), Assignment.class);
+        };
+    }
+
+    private boolean tasksExist(Collection<Long> moduleIds) {
+        return mongoTemplate.exists(Query.query(Criteria.where("moduleId").in(moduleIds)), Task.class);
+    }
+
+    private List<String> assignmentIds(Criteria criteria, int batchSize) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("id");
+        return mongoTemplate.find(query, Assignment.class).stream().map(Assignment::getId).toList();
+    }
+
+    private int deleteAssignments(List<String> ids) {
+        if (ids.isEmpty()) return 0;
+        return (int) mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Assignment.class).getDeletedCount();
+    }
+}
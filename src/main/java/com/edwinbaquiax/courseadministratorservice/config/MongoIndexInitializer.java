@@ -0,0 +1,90 @@
+package com.edwinbaquiax.courseadministratorservice.config;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.mongodb.MongoException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Crea y verifica los indices declarados en los documentos de Mongo.
+ *
+ * <p>Spring Boot no crea los indices de {@code @CompoundIndex} por defecto
+ * ({@code spring.data.mongodb.auto-index-creation=false}), asi que al iniciar se resuelven
+ * las anotaciones de cada documento y se crean los que falten. Crear un indice que ya existe
+ * no hace nada. Si alguno no se puede crear (por ejemplo el unico de asignaciones cuando hay
+ * duplicados) se reporta; con {@code mongo.indexes.fail-on-missing=true} la aplicacion no
+ * arranca.</p>
+ */
+@Slf4j
+@Component
+public class MongoIndexInitializer {
+
+    static final List<Class<?>> INDEXED_DOCUMENTS = List.of(Task.class, Assignment.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        List<String> missing = ensureIndexes();
+        if (missing.isEmpty()) {
+            log.info("Indices de Mongo verificados");
+            return;
+        }
+        if (failOnMissing) {
+            throw new IllegalStateException(String.format("Faltan indices de Mongo: %s", missing));
+        }
+        log.error("Faltan indices de Mongo, las consultas que los usan recorreran la coleccion: {}", missing);
+    }
+
+    /**
+     * Crea los indices declarados que no existan.
+     *
+     * @return los indices que siguen sin existir, como {@code coleccion.nombre}
+     */
+    public List<String> ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        List<String> missing = new ArrayList<>();
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            String collection = mongoTemplate.getCollectionName(type);
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            List<String> declared = new ArrayList<>();
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+                String name = index.getIndexOptions().getString("name");
+                declared.add(name);
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessException | MongoException e) {
+                    log.error("No se pudo crear el indice {} en {}: {}", name, collection, e.getMessage());
+                }
+            }
+
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            for (String name : declared) {
+                if (!existing.contains(name)) missing.add(collection + "." + name);
+            }
+        }
+        return missing;
+    }
+}
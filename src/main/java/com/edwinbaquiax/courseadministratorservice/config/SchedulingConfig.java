@@ -0,0 +1,12 @@
+package com.edwinbaquiax.courseadministratorservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (vaciado de buffers en segundo plano).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
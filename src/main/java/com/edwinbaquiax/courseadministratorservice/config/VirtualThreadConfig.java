@@ -0,0 +1,20 @@
+package com.edwinbaquiax.courseadministratorservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecutor de hilos virtuales para consultas que se lanzan en paralelo dentro de una
+ * misma peticion (cada consulta bloquea su hilo virtual, no un hilo del servidor).
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService queryExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,141 @@
+package com.edwinbaquiax.courseadministratorservice.controllers;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.counters.CounterReconciler;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CleanupJobDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.PlatformStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.mappers.CleanupJobProfile;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICleanupJobRepository;
+import com.edwinbaquiax.courseadministratorservice.security.JwtTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para la observacion interna de la plataforma.
+ *
+ * <p>Expone endpoints bajo la ruta <b>/api/v1/admin</b> para:</p>
+ * <ul>
+ *     <li>Consultar las metricas de las caches en memoria</li>
+ *     <li>Consultar el avance de las limpiezas en segundo plano</li>
+ *     <li>Consultar y recalcular los totales de la plataforma</li>
+ * </ul>
+ *
+ * <p>Requiere rol <b>ADMIN</b>.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    @Autowired
+    private JwtTokenCache tokenCache;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private CourseCatalogCache catalogCache;
+    @Autowired
+    private ICleanupJobRepository cleanupJobRepository;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    /**
+     * Obtiene las metricas de la cache de tokens JWT verificados.
+     *
+     * @return aciertos, fallos, desalojos y tamaño actual de la cache
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/tokens")
+    public ResponseEntity<CacheStatsDTO> tokenCacheStats() {
+        return ResponseEntity.ok(tokenCache.stats());
+    }
+
+    /**
+     * Obtiene las metricas de la cache de relaciones docente-curso-modulo-estudiante.
+     *
+     * @return aciertos, fallos, desalojos y cursos en cache
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/assignability")
+    public ResponseEntity<CacheStatsDTO> assignabilityCacheStats() {
+        return ResponseEntity.ok(assignabilityCache.stats());
+    }
+
+    /**
+     * Obtiene las metricas de la cache del catalogo (cursos, modulos y modulos por curso).
+     *
+     * @return aciertos, fallos, desalojos y tamaño de cada cache del catalogo
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/catalog")
+    public ResponseEntity<List<CacheStatsDTO>> catalogCacheStats() {
+        return ResponseEntity.ok(catalogCache.stats());
+    }
+
+    /**
+     * Obtiene las limpiezas pendientes o en curso, las mas antiguas primero.
+     *
+     * @return hasta 100 limpiezas sin terminar con su etapa y avance
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cleanup/jobs")
+    public ResponseEntity<List<CleanupJobDTO>> pendingCleanupJobs() {
+        List<CleanupJobDTO> body = cleanupJobRepository
+                .findByStatusInOrderByIdAsc(List.of(CleanupStatus.PENDING, CleanupStatus.RUNNING), Limit.of(100))
+                .stream()
+                .map(CleanupJobProfile::cleanupJobEntityToDTO)
+                .toList();
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Obtiene el estado de una limpieza.
+     *
+     * @param jobId identificador de la limpieza
+     * @return etapa, avance y ultimo error, o 404 si no existe
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cleanup/jobs/{jobId}")
+    public ResponseEntity<CleanupJobDTO> cleanupJob(@PathVariable Long jobId) {
+        return cleanupJobRepository.findById(jobId)
+                .map(CleanupJobProfile::cleanupJobEntityToDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Obtiene los totales de la plataforma desde los contadores en memoria.
+     *
+     * @return usuarios, cursos, módulos, tareas e inscripciones activas
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<PlatformStatsDTO> platformStats() {
+        return ResponseEntity.ok(counters.platform());
+    }
+
+    /**
+     * Recalcula todos los contadores desde la base de datos.
+     *
+     * @return los totales recalculados
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<PlatformStatsDTO> reconcileStats() {
+        counterReconciler.reconcile();
+        return ResponseEntity.ok(counters.platform());
+    }
+}
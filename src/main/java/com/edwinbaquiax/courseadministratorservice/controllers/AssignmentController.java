@@ -1,10 +1,16 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkAssignmentResultDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.assignment.IAssignmentService;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -50,6 +56,23 @@ public class AssignmentController {
     }
 
 
+    /**
+     * Asigna una tarea a todos los estudiantes inscritos en el curso de su módulo.
+     * Los estudiantes que ya tienen la tarea se omiten.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>.</p>
+     *
+     * @param taskId identificador de la tarea
+     * @return inscritos, asignaciones creadas y ya existentes, con código HTTP 200 (OK)
+     */
+    @PostMapping("/task/{taskId}/enrolled")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<BulkAssignmentResultDTO> assignToEnrolledStudents(@PathVariable String taskId) {
+        BulkAssignmentResultDTO body = assignmentService.assignToEnrolledStudents(taskId);
+        return ResponseEntity.ok(body);
+    }
+
+
     /**
      * Actualiza una asignación existente.
      *
@@ -112,6 +135,22 @@ public class AssignmentController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Igual que {@link #findAssignmentsByStudent} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/student", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<AssignmentResponseDTO>> findAssignmentsByStudentSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<AssignmentResponseDTO> body = assignmentService.findAssignmentsByStudentSlice(currentUser.getUserId(), page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
 
     /**
      * Obtiene las asignaciones relacionadas con una tarea específica.
@@ -133,6 +172,44 @@ public class AssignmentController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Igual que {@link #findAssignmentsByTask} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/task/{taskId}", params = {"count", "count!=exact"})
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<SlicePageDTO<AssignmentResponseDTO>> findAssignmentsByTaskSlice(
+            @PathVariable String taskId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<AssignmentResponseDTO> body = assignmentService.findAssignmentsByTaskSlice(taskId, page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Obtiene las asignaciones de una tarea paginadas por cursor, en orden de creación.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>.</p>
+     *
+     * @param taskId identificador de la tarea
+     * @param cursor token devuelto en {@code nextCursor} de la pagina anterior (vacio para la primera)
+     * @param size tamaño de página (por defecto 20, maximo 100)
+     * @return asignaciones de la tarea y el cursor de la siguiente pagina
+     */
+    @GetMapping("/task/{taskId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<CursorPageDTO<AssignmentResponseDTO>> findAssignmentsByTaskCursor(
+            @PathVariable String taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDTO<AssignmentResponseDTO> body = assignmentService.findAssignmentsByTaskCursor(taskId, cursor, size);
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Envía (submit) una asignación con su calificación.
      *
@@ -148,4 +225,22 @@ public class AssignmentController {
         AssignmentResponseDTO body = assignmentService.submitAssignment(assignmentId, score);
         return ResponseEntity.ok(body);
     }
-}
\ No newline at end of file
+
+    /**
+     * Califica varias asignaciones en una sola petición.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>. Cada asignación se valida por separado:
+     * las que no existen, se repiten o superan el valor de su tarea se reportan sin
+     * impedir que se califiquen las demás.</p>
+     *
+     * @param request pares (asignación, calificación), máximo 1000
+     * @return resultado de cada asignación con código HTTP 200 (OK)
+     */
+    @PostMapping("/grades")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<BulkGradeReportDTO> gradeAssignments(
+            @Valid @RequestBody BulkGradeRequestDTO request) {
+        BulkGradeReportDTO body = assignmentService.gradeAssignments(request.getGrades());
+        return ResponseEntity.ok(body);
+    }
+}
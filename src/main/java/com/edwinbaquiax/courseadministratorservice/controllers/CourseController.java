@@ -1,17 +1,26 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseTreeDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleBulkRequestDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleBulkResultDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.course.ICourseService;
+import com.edwinbaquiax.courseadministratorservice.services.coursetree.ICourseTreeService;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,8 +32,11 @@ import static com.edwinbaquiax.courseadministratorservice.interceptors.Validatio
  * <p>Expone endpoints bajo la ruta <b>/api/v1/courses</b> para:</p>
  * <ul>
  *     <li>Listar cursos (paginados o completos)</li>
+ *     <li>Exportar el catalogo completo en flujo (NDJSON)</li>
+ *     <li>Buscar cursos por texto</li>
  *     <li>Consultar cursos por ID</li>
- *     <li>Asignar módulos a cursos</li>
+ *     <li>Consultar un curso con sus módulos y tareas en una sola petición</li>
+ *     <li>Asignar módulos a cursos, uno a uno o en bloque</li>
  *     <li>Obtener cursos en los que un estudiante está inscrito</li>
  *     <li>Obtener cursos creados por un docente</li>
  *     <li>Crear y actualizar cursos</li>
@@ -39,8 +51,12 @@ public class CourseController {
     @Autowired
     private ICourseService courseService;
     @Autowired
+    private ICourseTreeService courseTreeService;
+    @Autowired
     private CurrentUser currentUser;
 
+    private static final String NDJSON = "application/x-ndjson";
+
 
     /**
      * Obtiene la lista completa de cursos sin paginación.
@@ -53,6 +69,22 @@ public class CourseController {
 
         return ResponseEntity.status(HttpStatus.OK).body(body);
     }
+    /**
+     * Exporta el catalogo completo de cursos en formato NDJSON (un curso JSON por linea).
+     *
+     * <p>Los cursos se escriben a medida que se leen de la base de datos, por lo que el
+     * consumo de memoria no crece con el tamaño del catalogo.</p>
+     *
+     * @return flujo NDJSON con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportCatalog(){
+        StreamingResponseBody body = courseService::exportCatalog;
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
     /**
      * Obtiene la lista paginada de cursos.
      *
@@ -71,6 +103,59 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.OK).body(body);
     }
 
+    /**
+     * Igual que {@link #findAllCourses} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "list", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<CourseResponseDTO>> findAllCoursesSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<CourseResponseDTO> body = courseService.findAllCourseSlice(page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Obtiene los cursos paginados por cursor, ordenados por titulo.
+     *
+     * @param cursor token devuelto en {@code nextCursor} de la pagina anterior (vacio para la primera)
+     * @param size tamaño de página (por defecto 20, maximo 100)
+     * @return cursos y el cursor de la siguiente pagina con código HTTP 200 (OK)
+     */
+    @GetMapping("list/cursor")
+    public ResponseEntity<CursorPageDTO<CourseResponseDTO>> findAllCoursesCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size){
+
+        CursorPageDTO<CourseResponseDTO> body=courseService.findAllCourseByCursor(cursor,size);
+
+        return ResponseEntity.status(HttpStatus.OK).body(body);
+    }
+
+    /**
+     * Busca cursos activos por palabras del titulo o la descripcion.
+     *
+     * <p>No distingue mayusculas ni acentos y acepta prefijos ("progra" encuentra
+     * "Programación"). Los resultados se ordenan por relevancia.</p>
+     *
+     * @param q texto a buscar
+     * @param limit maximo de resultados (por defecto 20, maximo 100)
+     * @return cursos encontrados con código HTTP 200 (OK)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CourseResponseDTO>> searchCourses(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit){
+
+        List<CourseResponseDTO> body=courseService.searchCourses(q,limit);
+
+        return ResponseEntity.status(HttpStatus.OK).body(body);
+    }
+
     /**
      * Asigna un módulo a un curso existente.
      *
@@ -90,6 +175,56 @@ public class CourseController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Asigna varios módulos sin curso a un curso existente en una sola operación.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>. Los módulos que no existen o que
+     * pertenecen a otro curso se reportan en {@code conflicts}.</p>
+     *
+     * @param courseId identificador del curso
+     * @param request identificadores de los módulos (máximo 500)
+     * @param bindingResult validaciones de los campos
+     * @return módulos asignados y conflictos con código HTTP 200 (OK)
+     */
+    @PostMapping("/{courseId}/modules/attach")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<?> attachModules(
+            @PathVariable Long courseId,
+            @Valid @RequestBody ModuleBulkRequestDTO request,
+            BindingResult bindingResult) {
+        if(bindingResult.hasFieldErrors()){
+            return validation(bindingResult);
+        }
+
+        ModuleBulkResultDTO body = courseService.attachModules(courseId, currentUser.getUserId(), request.getModuleIds());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Retira varios módulos de un curso en una sola operación.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>. Los módulos que no existen o que no
+     * pertenecen al curso se reportan en {@code conflicts}.</p>
+     *
+     * @param courseId identificador del curso
+     * @param request identificadores de los módulos (máximo 500)
+     * @param bindingResult validaciones de los campos
+     * @return módulos retirados y conflictos con código HTTP 200 (OK)
+     */
+    @PostMapping("/{courseId}/modules/detach")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<?> detachModules(
+            @PathVariable Long courseId,
+            @Valid @RequestBody ModuleBulkRequestDTO request,
+            BindingResult bindingResult) {
+        if(bindingResult.hasFieldErrors()){
+            return validation(bindingResult);
+        }
+
+        ModuleBulkResultDTO body = courseService.detachModules(courseId, currentUser.getUserId(), request.getModuleIds());
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Busca un curso por su identificador.
      *
@@ -103,6 +238,22 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.OK).body(body);
     }
 
+    /**
+     * Obtiene un curso con sus módulos activos y las tareas activas de cada módulo.
+     *
+     * <p>Reemplaza la secuencia curso, módulos y tareas por módulo: el curso y los módulos
+     * se consultan en paralelo y las tareas de todos los módulos en una sola consulta.</p>
+     *
+     * @param courseId identificador del curso
+     * @return árbol del curso con código HTTP 200 (OK)
+     */
+    @GetMapping("/{courseId}/tree")
+    public ResponseEntity<CourseTreeDTO> getCourseTree(@PathVariable Long courseId){
+        CourseTreeDTO body=courseTreeService.getCourseTree(courseId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(body);
+    }
+
     /**
      * Obtiene los cursos en los que el estudiante autenticado está inscrito.
      *
@@ -120,6 +271,22 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.OK).body(body);
     }
 
+    /**
+     * Igual que {@link #findMyLearning} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/my_learn", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<CourseResponseDTO>> findMyLearningSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<CourseResponseDTO> body = courseService.findCoursesByStudentSlice(currentUser.getUserId(), page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
 
     /**
      * Obtiene los cursos creados por el docente autenticado.
@@ -141,6 +308,23 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.OK).body(body);
     }
 
+    /**
+     * Igual que {@link #findMyCourses} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/my_courses", params = {"count", "count!=exact"})
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<SlicePageDTO<CourseResponseDTO>> findMyCoursesSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<CourseResponseDTO> body = courseService.findCoursesByTeacherSlice(currentUser.getUserId(), page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Crea un nuevo curso asociado al docente autenticado.
      *
@@ -1,16 +1,24 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportReportDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.enrollment.IEnrollmentService;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+
 
 /**
  * Controlador REST para la gestión de inscripciones (enrollments).
@@ -18,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
  * <p>Expone endpoints bajo la ruta <b>/api/v1/enrollments</b> para:</p>
  * <ul>
  *     <li>Inscribir a un estudiante en un curso</li>
+ *     <li>Importar inscripciones de forma masiva desde CSV o NDJSON</li>
  *     <li>Cancelar una inscripción</li>
  *     <li>Obtener inscripciones de un estudiante autenticado</li>
  *     <li>Obtener inscripciones de un curso específico (solo docentes o administradores)</li>
@@ -35,26 +44,47 @@ public class EnrollmentController {
      * Inscribe a un estudiante en un curso.
      *
      * @param request datos de la inscripción (contiene IDs de curso y estudiante)
-     * @return inscripción creada con código HTTP 201 (CREATED)
+     * @return inscripción creada con código HTTP 201 (CREATED), o 202 (ACCEPTED) si el curso
+     * esta lleno y el estudiante quedo en la lista de espera
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
     public ResponseEntity<EnrollmentResponseDTO> enrollStudent(@RequestBody EnrollmentRequestDTO request) {
         EnrollmentResponseDTO body = enrollmentService.enrollStudent(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+        return ResponseEntity.status(body.isWaitlisted() ? HttpStatus.ACCEPTED : HttpStatus.CREATED).body(body);
     }
     /**
      * Inscribe a un estudiante en un curso.
      *
      * @param courseId  ID de curso
-     * @return inscripción creada con código HTTP 201 (CREATED)
+     * @return inscripción creada con código HTTP 201 (CREATED), o 202 (ACCEPTED) si el curso
+     * esta lleno y el estudiante quedo en la lista de espera
      */
     @PostMapping("/{courseId}")
     public ResponseEntity<EnrollmentResponseDTO> enrollment(@PathVariable Long courseId) {
 
         EnrollmentRequestDTO request= new EnrollmentRequestDTO(currentUser.getUserId(),courseId);
         EnrollmentResponseDTO body = enrollmentService.enrollStudent(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+        return ResponseEntity.status(body.isWaitlisted() ? HttpStatus.ACCEPTED : HttpStatus.CREATED).body(body);
+    }
+
+    /**
+     * Importa inscripciones de forma masiva.
+     *
+     * <p>Acepta {@code text/csv} con filas {@code userId,courseId} (el encabezado es opcional)
+     * o {@code application/x-ndjson} con un objeto {@code {"userId":..,"courseId":..}} por linea.
+     * El cuerpo se procesa en streaming y por lotes.</p>
+     *
+     * @param input       cuerpo de la peticion
+     * @param contentType formato del cuerpo
+     * @return reporte con el resultado de cada fila
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<EnrollmentImportReportDTO> importEnrollments(
+            InputStream input,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        return ResponseEntity.ok(enrollmentService.importEnrollments(input, contentType));
     }
 
     /**
@@ -88,6 +118,22 @@ public class EnrollmentController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Igual que {@link #getEnrollmentsByStudent} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/students", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<EnrollmentResponseDTO>> getEnrollmentsByStudentSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<EnrollmentResponseDTO> body = enrollmentService.getEnrollmentsByStudentSlice(currentUser.getUserId(), page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
 
     /**
      * Obtiene las inscripciones de un curso específico.
@@ -110,6 +156,45 @@ public class EnrollmentController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Igual que {@link #getEnrollmentsByCourse} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/courses/{courseId}", params = {"count", "count!=exact"})
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<SlicePageDTO<EnrollmentResponseDTO>> getEnrollmentsByCourseSlice(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<EnrollmentResponseDTO> body = enrollmentService.getEnrollmentsByCourseSlice(courseId, page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Obtiene las inscripciones de un curso paginadas por cursor, ordenadas por fecha de inscripcion.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>.</p>
+     *
+     * @param courseId identificador del curso
+     * @param cursor token devuelto en {@code nextCursor} de la pagina anterior (vacio para la primera)
+     * @param size tamaño de página (por defecto 20, maximo 100)
+     * @return inscripciones del curso y el cursor de la siguiente pagina
+     */
+    @GetMapping("/courses/{courseId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<CursorPageDTO<EnrollmentResponseDTO>> getEnrollmentsByCourseCursor(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageDTO<EnrollmentResponseDTO> body = enrollmentService.getEnrollmentsByCourseCursor(courseId, cursor, size);
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/{enrollmentId}")
     public ResponseEntity<EnrollmentResponseDTO> getEnrollmentById(@PathVariable Long enrollmentId) {
         EnrollmentResponseDTO body = enrollmentService.getEnrollmentById(enrollmentId);
@@ -133,4 +218,39 @@ public class EnrollmentController {
         Page<EnrollmentResponseDTO> body = enrollmentService.getAllEnrollments(page, size);
         return ResponseEntity.ok(body);
     }
+
+    /**
+     * Igual que {@link #getAllEnrollments} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/all", params = {"count", "count!=exact"})
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<SlicePageDTO<EnrollmentResponseDTO>> getAllEnrollmentsSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<EnrollmentResponseDTO> body = enrollmentService.getAllEnrollmentsSlice(page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Obtiene todas las inscripciones paginadas por cursor, ordenadas por fecha de inscripcion.
+     *
+     * <p>Requiere rol <b>TEACHER</b> o <b>ADMIN</b>.</p>
+     *
+     * @param cursor token devuelto en {@code nextCursor} de la pagina anterior (vacio para la primera)
+     * @param size tamaño de página (por defecto 20, maximo 100)
+     * @return inscripciones y el cursor de la siguiente pagina
+     */
+    @GetMapping("/all/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    public ResponseEntity<CursorPageDTO<EnrollmentResponseDTO>> getAllEnrollmentsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDTO<EnrollmentResponseDTO> body = enrollmentService.getAllEnrollmentsCursor(cursor, size);
+        return ResponseEntity.ok(body);
+    }
 }
@@ -1,8 +1,10 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.services.module.IModuleService;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -115,6 +117,23 @@ public class ModuleController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Igual que {@link #findByCourseId} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/course/{courseId}", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<ModuleResponseDTO>> findByCourseIdSlice(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<ModuleResponseDTO> body = moduleService.findAllModulesByCourseIdSlice(courseId, page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Lista todos los módulos registrados en el sistema.
      *
@@ -132,4 +151,21 @@ public class ModuleController {
         Page<ModuleResponseDTO> body = moduleService.findAllModules(page, size);
         return ResponseEntity.ok(body);
     }
+
+    /**
+     * Igual que {@link #findAllModules} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(params = {"count", "count!=exact"})
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<SlicePageDTO<ModuleResponseDTO>> findAllModulesSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<ModuleResponseDTO> body = moduleService.findAllModulesSlice(page, size, SlicePages.wantsApproxTotal(count));
+        return ResponseEntity.ok(body);
+    }
 }
\ No newline at end of file
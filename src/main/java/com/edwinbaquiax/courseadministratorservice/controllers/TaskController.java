@@ -1,8 +1,12 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.StudentTaskDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import com.edwinbaquiax.courseadministratorservice.services.task.ITaskService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -97,33 +101,54 @@ public class TaskController {
     /**
      * Lista todas las tareas de un módulo específico.
      *
+     * <p>Devuelve solo el resumen de cada tarea; la descripción y las instrucciones
+     * se obtienen con {@link #findById}.</p>
+     *
      * @param moduleId identificador del módulo
      * @param page número de página (por defecto 0)
      * @param size tamaño de página (por defecto 20)
      * @return lista paginada de tareas del módulo
      */
     @GetMapping("/module/{moduleId}")
-    public ResponseEntity<Page<TaskResponseDTO>> findTasksByModule(
+    public ResponseEntity<Page<TaskSummaryDTO>> findTasksByModule(
             @PathVariable Long moduleId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        Page<TaskResponseDTO> body = taskService.findTasksByModule(moduleId, page, size);
+        Page<TaskSummaryDTO> body = taskService.findTasksByModule(moduleId, page, size);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Igual que {@link #findTasksByModule} pero sin consulta de conteo: solo indica si hay pagina siguiente.
+     * Pensado para scroll infinito.
+     *
+     * @param count {@code none} para omitir el total o {@code approx} para incluir un total aproximado
+     * @return pagina sin total exacto con código HTTP 200 (OK)
+     */
+    @GetMapping(value = "/module/{moduleId}", params = {"count", "count!=exact"})
+    public ResponseEntity<SlicePageDTO<TaskSummaryDTO>> findTasksByModuleSlice(
+            @PathVariable Long moduleId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String count) {
+        SlicePageDTO<TaskSummaryDTO> body = taskService.findTasksByModuleSlice(moduleId, page, size, SlicePages.wantsApproxTotal(count));
         return ResponseEntity.ok(body);
     }
 
     /**
-     * Lista todas las tareas asignadas al estudiante autenticado.
+     * Lista todas las tareas asignadas al estudiante autenticado, con el estado y la
+     * calificación de su entrega, de la más reciente a la más antigua.
      *
      * @param page número de página (por defecto 0)
      * @param size tamaño de página (por defecto 20)
      * @return lista paginada de tareas del estudiante
      */
     @GetMapping("/student")
-    public ResponseEntity<Page<TaskResponseDTO>> findTasksByStudent(
+    public ResponseEntity<Page<StudentTaskDTO>> findTasksByStudent(
 
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        Page<TaskResponseDTO> body = taskService.findTasksByStudent(currentUser.getUserId(), page, size);
+        Page<StudentTaskDTO> body = taskService.findTasksByStudent(currentUser.getUserId(), page, size);
         return ResponseEntity.ok(body);
     }
 }
\ No newline at end of file
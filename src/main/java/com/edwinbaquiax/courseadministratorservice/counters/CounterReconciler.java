@@ -0,0 +1,94 @@
+package com.edwinbaquiax.courseadministratorservice.counters;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.GroupCount;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters.*;
+
+/**
+ * Recalcula los contadores desde Postgres y Mongo y reemplaza los valores incrementales.
+ *
+ * <p>Corrige lo que los incrementos no cubren (cambios hechos fuera de la API, limpiezas en
+ * segundo plano, otra instancia). Se ejecuta de madrugada y bajo demanda desde el endpoint
+ * de administracion.</p>
+ *
+ * <p>Cuenta lo mismo que los incrementos: una inscripcion, modulo o tarea cuenta si esta
+ * activa y su curso (y su modulo) tambien. Al eliminar un curso o modulo sus dependientes
+ * se descuentan de inmediato aunque la limpieza los borre despues.</p>
+ */
+@Slf4j
+@Component
+public class CounterReconciler {
+
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+    @Autowired
+    private IModuleRepository moduleRepository;
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Scheduled(cron = "${counters.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        //lo pendiente se escribe antes para no contarlo dos veces
+        counters.flush();
+
+        Map<String, Long> values = new HashMap<>();
+        long enrollments = 0;
+        for (GroupCount row : enrollmentRepository.countActiveByCourse()) {
+            values.put(courseEnrollments(row.getId()), row.getTotal());
+            enrollments += row.getTotal();
+        }
+        for (GroupCount row : moduleRepository.countActiveByCourse()) {
+            values.put(courseModules(row.getId()), row.getTotal());
+        }
+
+        List<Long> moduleIds = moduleRepository.findCountedIds();
+        Set<Long> countedModules = new HashSet<>(moduleIds);
+        long tasks = 0;
+        Aggregation tasksByModule = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("active").is(true)),
+                Aggregation.group("moduleId").count().as("total"));
+        for (Document row : mongoTemplate.aggregate(tasksByModule, Task.class, Document.class)) {
+            if (!(row.get("_id") instanceof Number moduleId)
+                    || !countedModules.contains(moduleId.longValue())) continue;
+            long total = ((Number) row.get("total")).longValue();
+            values.put(moduleTasks(moduleId.longValue()), total);
+            tasks += total;
+        }
+
+        values.put(ENROLLMENTS, enrollments);
+        values.put(TASKS, tasks);
+        values.put(MODULES, (long) moduleIds.size());
+        values.put(COURSES, courseRepository.countByActiveTrue());
+        values.put(USERS, userRepository.countByEnabledTrue());
+
+        counters.reset(values);
+        log.info("Contadores recalculados: {}", values.size());
+    }
+}
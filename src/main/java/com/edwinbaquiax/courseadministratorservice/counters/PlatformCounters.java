@@ -0,0 +1,323 @@
+package com.edwinbaquiax.courseadministratorservice.counters;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AfterCommit;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.PlatformStatsDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de la plataforma mantenidos de forma incremental.
+ *
+ * <p>Cada escritura (inscripcion, modulo, tarea, curso, usuario) suma o resta en un
+ * {@link LongAdder} en memoria cuando su transaccion confirma, asi leer "inscritos por
+ * curso" no necesita un {@code count(*)}. Los cambios se escriben en lote en la tabla
+ * {@code counters} cada pocos segundos como incrementos, y {@link CounterReconciler}
+ * recalcula todo desde el origen para corregir cualquier desvio.</p>
+ */
+@Slf4j
+@Component
+public class PlatformCounters {
+
+    static final String USERS = "platform.users";
+    static final String COURSES = "platform.courses";
+    static final String MODULES = "platform.modules";
+    static final String TASKS = "platform.tasks";
+    static final String ENROLLMENTS = "platform.enrollments";
+
+    static final String SELECT_SQL = "SELECT counter_key, count_value FROM counters";
+    static final String INCREMENT_SQL = "UPDATE counters SET count_value = count_value + ?, updated_at = ? WHERE counter_key = ?";
+    static final String INSERT_SQL = "INSERT INTO counters (counter_key, count_value, updated_at) VALUES (?, ?, ?)";
+    static final String DELETE_ALL_SQL = "DELETE FROM counters";
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    static String courseEnrollments(Long courseId) {
+        return "course.enrollments:" + courseId;
+    }
+
+    static String courseModules(Long courseId) {
+        return "course.modules:" + courseId;
+    }
+
+    static String moduleTasks(Long moduleId) {
+        return "module.tasks:" + moduleId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            counter(rs.getString(1)).persisted.set(rs.getLong(2));
+        });
+        log.info("Contadores cargados: {}", counters.size());
+    }
+
+    // ---- escrituras: se aplican solo si la transaccion confirma ----
+
+    public void enrollmentAdded(Long courseId) {
+        AfterCommit.run(() -> {
+            add(courseEnrollments(courseId), 1);
+            add(ENROLLMENTS, 1);
+        });
+    }
+
+    public void enrollmentsAdded(Long courseId, int count) {
+        AfterCommit.run(() -> {
+            add(courseEnrollments(courseId), count);
+            add(ENROLLMENTS, count);
+        });
+    }
+
+    public void enrollmentRemoved(Long courseId) {
+        AfterCommit.run(() -> {
+            add(courseEnrollments(courseId), -1);
+            add(ENROLLMENTS, -1);
+        });
+    }
+
+    //inscripciones eliminadas en lote por una limpieza
+    public void enrollmentsRemoved(Long courseId, long count) {
+        AfterCommit.run(() -> {
+            add(courseEnrollments(courseId), -count);
+            add(ENROLLMENTS, -count);
+        });
+    }
+
+    public void enrollmentMoved(Long fromCourseId, Long toCourseId) {
+        AfterCommit.run(() -> {
+            add(courseEnrollments(fromCourseId), -1);
+            add(courseEnrollments(toCourseId), 1);
+        });
+    }
+
+    public void moduleAdded(Long courseId) {
+        AfterCommit.run(() -> {
+            if (courseId != null) add(courseModules(courseId), 1);
+            add(MODULES, 1);
+        });
+    }
+
+    //las tareas del modulo dejan de contar en el total de la plataforma
+    public void moduleRemoved(Long courseId, Long moduleId) {
+        AfterCommit.run(() -> {
+            if (courseId != null) add(courseModules(courseId), -1);
+            add(MODULES, -1);
+            long tasks = value(moduleTasks(moduleId));
+            add(moduleTasks(moduleId), -tasks);
+            add(TASKS, -tasks);
+        });
+    }
+
+    //asignar o retirar modulos existentes de un curso (delta negativo al retirar)
+    public void modulesMoved(Long fromCourseId, Long toCourseId, int count) {
+        if (count == 0) return;
+        AfterCommit.run(() -> {
+            if (fromCourseId != null) add(courseModules(fromCourseId), -count);
+            if (toCourseId != null) add(courseModules(toCourseId), count);
+        });
+    }
+
+    public void taskAdded(Long moduleId) {
+        AfterCommit.run(() -> {
+            add(moduleTasks(moduleId), 1);
+            add(TASKS, 1);
+        });
+    }
+
+    public void taskRemoved(Long moduleId) {
+        AfterCommit.run(() -> {
+            add(moduleTasks(moduleId), -1);
+            add(TASKS, -1);
+        });
+    }
+
+    public void taskMoved(Long fromModuleId, Long toModuleId) {
+        AfterCommit.run(() -> {
+            add(moduleTasks(fromModuleId), -1);
+            add(moduleTasks(toModuleId), 1);
+        });
+    }
+
+    public void courseAdded() {
+        AfterCommit.run(() -> add(COURSES, 1));
+    }
+
+    //sus inscripciones, modulos y las tareas de esos modulos dejan de contar en los totales
+    public void courseRemoved(Long courseId, Collection<Long> moduleIds) {
+        AfterCommit.run(() -> {
+            add(COURSES, -1);
+            long enrollments = value(courseEnrollments(courseId));
+            long modules = value(courseModules(courseId));
+            add(courseEnrollments(courseId), -enrollments);
+            add(courseModules(courseId), -modules);
+            add(ENROLLMENTS, -enrollments);
+            add(MODULES, -modules);
+            for (Long moduleId : moduleIds) {
+                long tasks = value(moduleTasks(moduleId));
+                add(moduleTasks(moduleId), -tasks);
+                add(TASKS, -tasks);
+            }
+        });
+    }
+
+    public void userAdded() {
+        AfterCommit.run(() -> add(USERS, 1));
+    }
+
+    public void userRemoved() {
+        AfterCommit.run(() -> add(USERS, -1));
+    }
+
+    // ---- lecturas ----
+
+    public long enrolledStudents(Long courseId) {
+        return value(courseEnrollments(courseId));
+    }
+
+    public long moduleCount(Long courseId) {
+        return value(courseModules(courseId));
+    }
+
+    public long taskCount(Long moduleId) {
+        return value(moduleTasks(moduleId));
+    }
+
+    public PlatformStatsDTO platform() {
+        return PlatformStatsDTO.builder()
+                .users(value(USERS))
+                .courses(value(COURSES))
+                .modules(value(MODULES))
+                .tasks(value(TASKS))
+                .enrollments(value(ENROLLMENTS))
+                .build();
+    }
+
+    // ---- persistencia ----
+
+    /**
+     * Escribe como incrementos los cambios acumulados desde la ultima escritura. Los
+     * contadores que aun no tienen fila se insertan. Incrementos e inserciones van en la misma
+     * transaccion: si algo falla no queda escrito nada y los cambios se reintentan completos.
+     */
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<String> keys = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            long delta = counter.pending.sum();
+            if (delta != 0) {
+                keys.add(key);
+                deltas.add(delta);
+            }
+        });
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                List<Object[]> updates = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    updates.add(new Object[]{deltas.get(i), now, keys.get(i)});
+                }
+                int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, updates);
+
+                List<Object[]> inserts = new ArrayList<>();
+                for (int i = 0; i < keys.size(); i++) {
+                    if (updated[i] == 0) inserts.add(new Object[]{keys.get(i), deltas.get(i), now});
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            //los cambios siguen pendientes para el siguiente intento
+            log.warn("No se pudieron guardar {} contadores", keys.size(), e);
+            return;
+        }
+
+        //se descuenta exactamente lo escrito: lo que llego mientras tanto sigue pendiente
+        for (int i = 0; i < keys.size(); i++) {
+            Counter counter = counters.get(keys.get(i));
+            long delta = deltas.get(i);
+            counter.persisted.addAndGet(delta);
+            counter.pending.add(-delta);
+        }
+    }
+
+    /**
+     * Reemplaza todos los contadores por valores recalculados desde el origen.
+     *
+     * <p>Los cambios pendientes se descartan: confirmaron antes del recalculo y ya estan en
+     * {@code values}. Los que confirmen entre el recalculo y este metodo se pierden hasta el
+     * siguiente recalculo.</p>
+     */
+    public synchronized void reset(Map<String, Long> values) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(values.size());
+        values.forEach((key, value) -> rows.add(new Object[]{key, value, now}));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_ALL_SQL);
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        });
+
+        counters.forEach((key, counter) -> {
+            if (!values.containsKey(key)) counter.persisted.set(0);
+            //se resta lo leido en lugar de reset() para no perder un incremento concurrente
+            counter.pending.add(-counter.pending.sum());
+        });
+        values.forEach((key, value) -> counter(key).persisted.set(value));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(String key, long delta) {
+        if (delta != 0) counter(key).pending.add(delta);
+    }
+
+    private long value(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.value();
+    }
+
+    private Counter counter(String key) {
+        return counters.computeIfAbsent(key, k -> new Counter());
+    }
+
+    //valor ya guardado en la tabla mas los cambios aun no escritos
+    private static final class Counter {
+        private final AtomicLong persisted = new AtomicLong();
+        private final LongAdder pending = new LongAdder();
+
+        long value() {
+            return persisted.get() + pending.sum();
+        }
+    }
+}
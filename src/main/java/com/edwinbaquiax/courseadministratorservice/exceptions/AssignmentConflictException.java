@@ -0,0 +1,11 @@
+package com.edwinbaquiax.courseadministratorservice.exceptions;
+
+public class AssignmentConflictException extends RuntimeException{
+    public AssignmentConflictException() {
+        super("La asignacion fue modificada por otra peticion");
+    }
+
+    public AssignmentConflictException(String message) {
+        super(message);
+    }
+}
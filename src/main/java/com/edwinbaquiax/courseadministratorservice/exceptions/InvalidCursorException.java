@@ -0,0 +1,11 @@
+package com.edwinbaquiax.courseadministratorservice.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("El cursor de paginacion no es valido");
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.edwinbaquiax.courseadministratorservice.exceptions;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * El executor de hashing de contraseñas esta saturado. Se responde 503 en vez de
+ * encolar mas trabajo en los hilos de peticiones.
+ *
+ * <p>Extiende {@link InternalAuthenticationServiceException} para que el login la
+ * propague tal cual hasta el filtro en lugar de tratarla como credenciales invalidas.</p>
+ */
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingBusyException() {
+        super("Servicio ocupado, intente de nuevo en unos segundos");
+    }
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,15 @@
 package com.edwinbaquiax.courseadministratorservice.interceptors;
 
 
+import com.edwinbaquiax.courseadministratorservice.exceptions.AssignmentConflictException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.exceptions.InvalidCursorException;
+import com.edwinbaquiax.courseadministratorservice.exceptions.PasswordHashingBusyException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.RoleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UsernameIsExistsException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -59,6 +63,26 @@ public class HandleExceptionController {
         return ResponseEntity.badRequest().body(err);
     }
 
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<Error> invalidCursor(Exception e) {
+        Error err = new Error();
+        err.setDate(new Date());
+        err.setError("Cursor de paginacion invalido, solicite la primera pagina de nuevo");
+        err.setMessage(e.getMessage());
+        err.setStatus(HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.badRequest().body(err);
+    }
+
+    @ExceptionHandler({AssignmentConflictException.class})
+    public ResponseEntity<Error> assignmentConflict(Exception e) {
+        Error err = new Error();
+        err.setDate(new Date());
+        err.setError("La asignacion cambio, vuelva a consultarla e intente de nuevo");
+        err.setMessage(e.getMessage());
+        err.setStatus(HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
     @ExceptionHandler(AuthorizationDeniedException.class)
     public ResponseEntity<Error> authDenied(Exception e) {
         Error err = new Error();
@@ -77,6 +101,17 @@ public class HandleExceptionController {
         err.setStatus(HttpStatus.FORBIDDEN.value());
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(err);
     }
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Error> hashingBusy(Exception e) {
+        Error err = new Error();
+        err.setDate(new Date());
+        err.setError("Servicio saturado, intente de nuevo mas tarde");
+        err.setMessage(e.getMessage());
+        err.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(err);
+    }
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Error> genericError(Exception e) {
         Error err = new Error();
@@ -0,0 +1,24 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Pagina obtenida por cursor: en lugar de numero de pagina y total se devuelve un token
+ * opaco para pedir la siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    //null cuando no hay mas elementos
+    private String nextCursor;
+}
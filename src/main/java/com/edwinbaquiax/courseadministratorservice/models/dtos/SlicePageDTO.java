@@ -0,0 +1,25 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Pagina sin total exacto: solo indica si hay una pagina siguiente, asi no se ejecuta la
+ * consulta de conteo. Opcionalmente trae un total aproximado que se sirve de cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlicePageDTO<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    //null si no se pidio (count=none)
+    private Long approxTotal;
+}
@@ -0,0 +1,25 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanupJobDTO {
+    private Long id;
+    private String targetType;
+    private Long targetId;
+    private String status;
+    private String phase;
+    private long processed;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformStatsDTO {
+    private long users;
+    private long courses;
+    private long modules;
+    private long tasks;
+    private long enrollments;
+}
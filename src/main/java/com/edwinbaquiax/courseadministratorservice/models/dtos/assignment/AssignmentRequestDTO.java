@@ -17,4 +17,6 @@ public class AssignmentRequestDTO {
     private String status;
     private Double score;
     private LocalDateTime submittedAt;
+    //version leida; si se envia la actualizacion falla cuando otro la cambio antes
+    private Long version;
 }
\ No newline at end of file
@@ -18,4 +18,5 @@ public class AssignmentResponseDTO {
     private String status;
     private Double score;
     private LocalDateTime submittedAt;
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.assignment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de asignar una tarea a todos los inscritos del curso.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignmentResultDTO {
+    private String taskId;
+    private int enrolled;
+    private int created;
+    private int alreadyAssigned;
+}
@@ -0,0 +1,23 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.assignment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una calificacion masiva: totales y el resultado de cada asignacion, en el
+ * orden de la peticion.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeReportDTO {
+    private int total;
+    private int graded;
+    private int rejected;
+    private List<GradeResultDTO> results;
+}
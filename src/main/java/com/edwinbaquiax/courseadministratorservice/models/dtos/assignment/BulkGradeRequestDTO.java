@@ -0,0 +1,22 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.assignment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkGradeRequestDTO {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull @Valid GradeItemDTO> grades;
+}
@@ -0,0 +1,19 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.assignment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeItemDTO {
+    @NotBlank
+    private String assignmentId;
+    @NotNull
+    private Double score;
+}
@@ -0,0 +1,18 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.assignment;
+
+import com.edwinbaquiax.courseadministratorservice.models.enums.GradeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeResultDTO {
+    private String assignmentId;
+    private Double score;
+    private GradeStatus status;
+    private String message;
+}
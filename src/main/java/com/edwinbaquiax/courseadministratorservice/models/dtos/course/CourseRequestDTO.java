@@ -2,6 +2,7 @@ package com.edwinbaquiax.courseadministratorservice.models.dtos.course;
 
 import jakarta.persistence.Column;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,5 +21,8 @@ public class CourseRequestDTO {
     private String title;
     @NotBlank
     private String description;
+    //sin cupo el curso no tiene limite de inscripciones
+    @Positive
+    private Integer capacity;
 
 }
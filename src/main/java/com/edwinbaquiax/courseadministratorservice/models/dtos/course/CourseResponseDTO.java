@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CourseResponseDTO {
@@ -19,4 +19,17 @@ public class CourseResponseDTO {
     private String description;
     private boolean active;
     private String nameTeacher;
+    private Integer capacity;
+    //contadores incrementales, no se consultan con count(*)
+    private long enrolledStudents;
+    private long moduleCount;
+
+    //usado por las proyecciones JPQL (select new ...)
+    public CourseResponseDTO(Long id, String title, String description, boolean active, String nameTeacher) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.active = active;
+        this.nameTeacher = nameTeacher;
+    }
 }
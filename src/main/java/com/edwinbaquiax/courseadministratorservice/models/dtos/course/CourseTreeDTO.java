@@ -0,0 +1,21 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.course;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleTreeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Curso con sus modulos activos y las tareas activas de cada modulo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseTreeDTO {
+    private CourseResponseDTO course;
+    private List<ModuleTreeDTO> modules;
+}
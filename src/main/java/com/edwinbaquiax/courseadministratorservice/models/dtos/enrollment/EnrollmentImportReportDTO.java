@@ -0,0 +1,27 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una importacion masiva: totales por estado y, en orden de linea, las primeras
+ * filas que no se inscribieron ni pasaron a la lista de espera.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentImportReportDTO {
+    private int total;
+    private int created;
+    private int duplicates;
+    private int waitlisted;
+    private int rejected;
+    private List<EnrollmentImportRowDTO> errors;
+    //hubo mas errores de los que se reportan
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,20 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.models.enums.EnrollmentImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentImportRowDTO {
+    //numero de linea en el archivo, empezando en 1
+    private int line;
+    private Long userId;
+    private Long courseId;
+    private EnrollmentImportStatus status;
+    private String message;
+}
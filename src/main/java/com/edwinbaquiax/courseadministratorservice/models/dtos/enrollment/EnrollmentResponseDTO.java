@@ -19,5 +19,8 @@ public class EnrollmentResponseDTO {
     private Long courseId;
     private boolean active;
     private LocalDateTime enrolledAt;
+    //el curso estaba lleno y el usuario quedo en la lista de espera
+    private boolean waitlisted;
+    private Long waitlistPosition;
 
 }
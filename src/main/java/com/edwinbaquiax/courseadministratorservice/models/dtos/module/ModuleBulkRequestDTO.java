@@ -0,0 +1,21 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.module;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModuleBulkRequestDTO {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull Long> moduleIds;
+}
@@ -0,0 +1,30 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.module;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de asignar o retirar modulos de un curso en bloque.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModuleBulkResultDTO {
+    private Long courseId;
+    //modulos que quedaron en el estado pedido
+    private List<Long> applied;
+    private List<Conflict> conflicts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Conflict {
+        private Long moduleId;
+        private String reason;
+    }
+}
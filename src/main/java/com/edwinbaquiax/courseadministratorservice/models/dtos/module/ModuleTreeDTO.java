@@ -0,0 +1,18 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.module;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModuleTreeDTO {
+    private ModuleResponseDTO module;
+    private List<TaskResponseDTO> tasks;
+}
@@ -0,0 +1,24 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tarea asignada a un estudiante junto con el estado de su entrega.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentTaskDTO {
+    private String assignmentId;
+    private String status;
+    private Double score;
+    private LocalDateTime submittedAt;
+    //null si la tarea ya fue eliminada
+    private TaskResponseDTO task;
+}
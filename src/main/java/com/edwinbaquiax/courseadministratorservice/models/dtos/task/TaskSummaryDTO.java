@@ -0,0 +1,24 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una tarea para los listados, sin descripcion ni instrucciones.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryDTO {
+    private String id;
+    private String title;
+    private Double value;
+    private String typeTask;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.edwinbaquiax.courseadministratorservice.models.dtos.user;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * {@link User} de Spring Security que ademas lleva el id del usuario,
+ * para que la generacion del token no tenga que volver a consultarlo.
+ */
+@Getter
+public class LoginUserDetails extends User {
+
+    private final Long id;
+
+    public LoginUserDetails(Long id, String username, String password, boolean enabled,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+}
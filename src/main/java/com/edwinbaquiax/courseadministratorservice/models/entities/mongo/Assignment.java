@@ -7,12 +7,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "assignments")
+@CompoundIndex(name = "task_id_1__id_1", def = "{'task_id': 1, '_id': 1}")
+//tareas del estudiante ordenadas por entrega
+@CompoundIndex(name = "user_id_1_submitted_at_-1", def = "{'user_id': 1, 'submitted_at': -1, '_id': -1}")
+@CompoundIndex(name = "task_id_1_submitted_at_-1", def = "{'task_id': 1, 'submitted_at': -1}")
+//un estudiante solo puede tener una asignacion por tarea
+@CompoundIndex(name = "user_id_1_task_id_1", def = "{'user_id': 1, 'task_id': 1}", unique = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,5 +36,10 @@ public class Assignment {
     private Double score;
     @Field("submitted_at")
     private LocalDateTime submittedAt;
+    //valor de la tarea copiado al crear, para validar la nota en el mismo findAndModify
+    @Field("max_score")
+    private Double maxScore;
+    //se incrementa en cada calificacion; no es @Version para no cambiar save() en documentos sin el campo
+    private Long version;
 
 }
\ No newline at end of file
@@ -10,12 +10,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "tasks")
+//tareas activas de un modulo ordenadas por creacion
+@CompoundIndex(name = "module_id_1_active_1_created_at_-1", def = "{'module_id': 1, 'active': 1, 'created_at': -1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,67 @@
+package com.edwinbaquiax.courseadministratorservice.models.entities.sql;
+
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupPhase;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Limpieza pendiente de un curso, modulo o usuario eliminado. Guarda la etapa en curso y el
+ * avance para poder retomarla si la aplicacion se reinicia a mitad del trabajo.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "cleanup_jobs", indexes = {
+        @Index(name = "idx_cleanup_jobs_status_id", columnList = "status, id"),
+        @Index(name = "idx_cleanup_jobs_target", columnList = "target_type, target_id")
+})
+public class CleanupJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false)
+    private CleanupTarget targetType;
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CleanupStatus status;
+    @Enumerated(EnumType.STRING)
+    private CleanupPhase phase;
+    //filas y documentos eliminados hasta ahora
+    private long processed;
+    private int attempts;
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    //mientras no venza, ninguna otra instancia toma el trabajo
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    //cambia en cada toma y en cada guardado: si otra instancia retomo el trabajo, el guardado falla
+    @Version
+    private long version;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (status == null) status = CleanupStatus.PENDING;
+        if (phase == null) phase = targetType.firstPhase();
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.edwinbaquiax.courseadministratorservice.models.entities.sql;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Valor persistido de un contador de la plataforma (inscritos por curso, modulos por
+ * curso, tareas por modulo y totales). Lo escribe {@code PlatformCounters} por JDBC.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "counters")
+public class Counter {
+    @Id
+    @Column(name = "counter_key", length = 100)
+    private String key;
+    @Column(name = "count_value", nullable = false)
+    private long value;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
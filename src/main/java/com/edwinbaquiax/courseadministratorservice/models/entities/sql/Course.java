@@ -32,6 +32,8 @@ public class Course {
     @NotBlank
     private String description;
     private boolean active;
+    //cupo maximo de inscripciones activas, null es sin limite
+    private Integer capacity;
     @Column(name="created_at")
     private LocalDateTime createdAt;
 
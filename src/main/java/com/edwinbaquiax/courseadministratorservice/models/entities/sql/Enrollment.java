@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = {
+        @Index(name = "idx_enrollments_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_enrollments_course_created_id", columnList = "course_id, created_at, id")
+})
 public class Enrollment {
 
     @Id
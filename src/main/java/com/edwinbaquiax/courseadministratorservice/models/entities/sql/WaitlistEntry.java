@@ -0,0 +1,43 @@
+package com.edwinbaquiax.courseadministratorservice.models.entities.sql;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lugar de un usuario en la lista de espera de un curso lleno. El orden de la lista es el
+ * orden de los ids.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "waitlist_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uq_waitlist_user_course", columnNames = {"user_id", "course_id"}),
+        indexes = @Index(name = "idx_waitlist_course_id", columnList = "course_id, id"))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(nullable = false)
+    private User user;
+    @ManyToOne
+    @JoinColumn(nullable = false)
+    private Course course;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,14 @@
+package com.edwinbaquiax.courseadministratorservice.models.enums;
+
+/**
+ * Etapas de la limpieza en cascada. Cada tipo de objetivo recorre solo las suyas,
+ * siempre de los dependientes hacia la raiz.
+ */
+public enum CleanupPhase {
+    ASSIGNMENTS, //asignaciones del usuario
+    TASKS,       //tareas de los modulos y sus asignaciones
+    ENROLLMENTS,
+    COURSES,     //cursos que imparte el usuario, cada uno con su propia limpieza
+    MODULES,
+    ROOT
+}
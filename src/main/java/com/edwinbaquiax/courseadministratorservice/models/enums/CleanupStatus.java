@@ -0,0 +1,8 @@
+package com.edwinbaquiax.courseadministratorservice.models.enums;
+
+public enum CleanupStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
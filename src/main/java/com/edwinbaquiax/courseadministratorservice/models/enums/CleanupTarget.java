@@ -0,0 +1,29 @@
+package com.edwinbaquiax.courseadministratorservice.models.enums;
+
+import java.util.List;
+
+import static com.edwinbaquiax.courseadministratorservice.models.enums.CleanupPhase.*;
+
+public enum CleanupTarget {
+    COURSE(List.of(TASKS, ENROLLMENTS, MODULES, ROOT)),
+    MODULE(List.of(TASKS, ROOT)),
+    USER(List.of(ASSIGNMENTS, ENROLLMENTS, COURSES, ROOT));
+
+    private final List<CleanupPhase> phases;
+
+    CleanupTarget(List<CleanupPhase> phases) {
+        this.phases = phases;
+    }
+
+    public CleanupPhase firstPhase() {
+        return phases.get(0);
+    }
+
+    /**
+     * @return la etapa siguiente o {@code null} si {@code phase} era la ultima
+     */
+    public CleanupPhase nextPhase(CleanupPhase phase) {
+        int index = phases.indexOf(phase);
+        return index + 1 < phases.size() ? phases.get(index + 1) : null;
+    }
+}
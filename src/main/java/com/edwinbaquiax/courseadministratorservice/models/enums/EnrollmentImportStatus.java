@@ -0,0 +1,10 @@
+package com.edwinbaquiax.courseadministratorservice.models.enums;
+
+public enum EnrollmentImportStatus {
+    CREATED,
+    DUPLICATE,
+    WAITLISTED,
+    USER_NOT_FOUND,
+    COURSE_NOT_FOUND,
+    INVALID
+}
@@ -0,0 +1,10 @@
+package com.edwinbaquiax.courseadministratorservice.models.enums;
+
+public enum GradeStatus {
+    GRADED,
+    NOT_FOUND,
+    INVALID_SCORE,
+    DUPLICATE,
+    CONFLICT,
+    FAILED
+}
@@ -6,6 +6,7 @@ import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.Assign
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import com.edwinbaquiax.courseadministratorservice.models.enums.TaskStatus;
+import org.springframework.data.mongodb.core.query.Update;
 
 public class AssignmentProfile {
     public static Assignment assignmentRequestDtoToEntity(AssignmentRequestDTO dto) {
@@ -16,6 +17,7 @@ public class AssignmentProfile {
                     .status(dto.getStatus() != null ? TaskStatus.valueOf(dto.getStatus()).toString() : TaskStatus.PENDING.name())
                     .score(dto.getScore())
                     .submittedAt(null)
+                    .version(0L)
                     .build();
         }catch (IllegalArgumentException exception){
             throw new TaskStatusNotFoundException(String.format("El estado %s no es soportado",dto.getStatus()));
@@ -32,15 +34,19 @@ public class AssignmentProfile {
                 .status(assignment.getStatus())
                 .score(assignment.getScore())
                 .submittedAt(assignment.getSubmittedAt())
+                .version(assignment.getVersion() == null ? 0 : assignment.getVersion())
                 .build();
     }
 
 
-    public static void updateEntityFromDto(Assignment assignment, AssignmentRequestDTO dto) {
+    //mismos campos que antes se copiaban a la entidad, como $set para un findAndModify
+    public static Update updateFromDto(AssignmentRequestDTO dto) {
       try {
-          if (dto.getStatus() != null) assignment.setStatus(TaskStatus.valueOf(dto.getStatus()).toString());
-          if (dto.getScore() != null) assignment.setScore(dto.getScore());
-          if (dto.getSubmittedAt() != null) assignment.setSubmittedAt(dto.getSubmittedAt());
+          Update update = new Update();
+          if (dto.getStatus() != null) update.set("status", TaskStatus.valueOf(dto.getStatus()).toString());
+          if (dto.getScore() != null) update.set("score", dto.getScore());
+          if (dto.getSubmittedAt() != null) update.set("submittedAt", dto.getSubmittedAt());
+          return update.inc("version", 1);
       }catch (IllegalArgumentException exception){
           throw new TaskStatusNotFoundException(String.format("El estado %s no es soportado",dto.getStatus()));
       }
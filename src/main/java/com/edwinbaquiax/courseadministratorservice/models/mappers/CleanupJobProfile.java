@@ -0,0 +1,22 @@
+package com.edwinbaquiax.courseadministratorservice.models.mappers;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CleanupJobDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+
+public class CleanupJobProfile {
+
+    public static CleanupJobDTO cleanupJobEntityToDTO(CleanupJob job) {
+        return CleanupJobDTO.builder()
+                .id(job.getId())
+                .targetType(job.getTargetType().name())
+                .targetId(job.getTargetId())
+                .status(job.getStatus().name())
+                .phase(job.getPhase() != null ? job.getPhase().name() : null)
+                .processed(job.getProcessed())
+                .attempts(job.getAttempts())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
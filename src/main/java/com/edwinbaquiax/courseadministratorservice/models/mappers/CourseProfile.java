@@ -3,6 +3,7 @@ package com.edwinbaquiax.courseadministratorservice.models.mappers;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
 
 public class CourseProfile {
     public static CourseResponseDTO courseEntityToCourseResponseDTO(Course entity){
@@ -11,14 +12,30 @@ public class CourseProfile {
                 .title(entity.getTitle())
                 .description(entity.getDescription())
                 .active(entity.isActive())
+                .capacity(entity.getCapacity())
                 .nameTeacher(entity.getTeacher().getName()+" "+entity.getTeacher().getLastname())
                 .build();
     }
 
+    //exportacion: el curso puede no tener docente; el nombre se arma igual que en las proyecciones
+    public static CourseResponseDTO courseEntityToCatalogRowDTO(Course entity){
+        User teacher = entity.getTeacher();
+        return CourseResponseDTO.builder()
+                .id(entity.getId())
+                .title(entity.getTitle())
+                .description(entity.getDescription())
+                .active(entity.isActive())
+                .capacity(entity.getCapacity())
+                .nameTeacher(teacher == null || teacher.getName() == null ? null
+                        : teacher.getName() + " " + (teacher.getLastname() == null ? "" : teacher.getLastname()))
+                .build();
+    }
+
     public static Course courseRequestDtoToCourseEntity(CourseRequestDTO dto){
         return Course.builder()
                 .title(dto.getTitle())
                 .description(dto.getDescription())
+                .capacity(dto.getCapacity())
                 .build();
     }
 }
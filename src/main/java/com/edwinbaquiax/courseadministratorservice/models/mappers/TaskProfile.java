@@ -3,8 +3,10 @@ package com.edwinbaquiax.courseadministratorservice.models.mappers;
 import com.edwinbaquiax.courseadministratorservice.exceptions.TypeTaskNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import com.edwinbaquiax.courseadministratorservice.models.enums.TypeTask;
+import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
 
 import java.time.LocalDateTime;
 
@@ -39,6 +41,17 @@ public class TaskProfile {
                 .build();
     }
 
+    public static TaskSummaryDTO taskSummaryToDTO(ITaskRepository.TaskSummary summary) {
+        return TaskSummaryDTO.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .value(summary.getValue())
+                .typeTask(summary.getTypeTask())
+                .active(summary.isActive())
+                .createdAt(summary.getCreatedAt())
+                .build();
+    }
+
     public static void updateTaskFromDto(Task task, TaskRequestDTO dto) {
         try{
             task.setTitle(dto.getTitle());
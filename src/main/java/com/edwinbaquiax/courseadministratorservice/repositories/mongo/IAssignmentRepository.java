@@ -1,18 +1,53 @@
 package com.edwinbaquiax.courseadministratorservice.repositories.mongo;
 
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IAssignmentRepository extends MongoRepository<Assignment,String> {
     Page<Assignment> findAllByUserId(Long userId, Pageable pageable);
 
     Page<Assignment> findAllByTaskId(String taskId, Pageable pageable);
 
+    //sin countDocuments: trae una fila de mas para saber si hay pagina siguiente
+    Slice<Assignment> findSliceByUserId(Long userId, Pageable pageable);
+
+    Slice<Assignment> findSliceByTaskId(String taskId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    long countByTaskId(String taskId);
+
+    //Paginacion por cursor sobre _id (ObjectId crece con la fecha de creacion)
+    List<Assignment> findByTaskIdOrderByIdAsc(String taskId, Limit limit);
+
+    List<Assignment> findByTaskIdAndIdGreaterThanOrderByIdAsc(String taskId, ObjectId id, Limit limit);
+
     boolean existsAssignmentByUserIdAndTaskId(Long userId, String taskId);
 
+    //un solo $in sobre el indice (user_id, task_id), devuelve solo user_id
+    List<AssignedStudent> findByTaskIdAndUserIdIn(String taskId, Collection<Long> userIds);
+
+    interface AssignedStudent {
+        Long getUserId();
+    }
+
+    //para calificar en lote solo hace falta la tarea de cada asignacion
+    List<AssignmentTask> findTaskIdsByIdIn(Collection<String> ids);
+
+    interface AssignmentTask {
+        String getId();
+        String getTaskId();
+    }
+
 
 }
@@ -3,11 +3,42 @@ package com.edwinbaquiax.courseadministratorservice.repositories.mongo;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ITaskRepository extends MongoRepository<Task,String > {
-    Page<Task> findAllByModuleIdAndActiveTrue(Long moduleId, Pageable pageable);
+    //los listados solo leen el resumen, description e instructions no salen de la base
+    Page<TaskSummary> findAllByModuleIdAndActiveTrue(Long moduleId, Pageable pageable);
+
+    //sin countDocuments: trae una fila de mas para saber si hay pagina siguiente
+    Slice<TaskSummary> findSliceByModuleIdAndActiveTrue(Long moduleId, Pageable pageable);
+
+    //una sola consulta con $in para las tareas de varios modulos
+    List<Task> findAllByModuleIdInAndActiveTrue(Collection<Long> moduleIds, Sort sort);
+
+    //puntuacion maxima de cada tarea, para validar calificaciones en lote
+    List<TaskValue> findValuesByIdIn(Collection<String> ids);
+
+    interface TaskValue {
+        String getId();
+        Double getValue();
+    }
+
+    //proyeccion cerrada: Spring Data la traduce a una proyeccion de campos de Mongo
+    interface TaskSummary {
+        String getId();
+        String getTitle();
+        Double getValue();
+        String getTypeTask();
+        boolean isActive();
+        LocalDateTime getCreatedAt();
+    }
 
 }
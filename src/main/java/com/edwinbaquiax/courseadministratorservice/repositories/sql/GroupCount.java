@@ -0,0 +1,9 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.sql;
+
+/**
+ * Proyeccion de un {@code group by}: identificador del grupo y cantidad de filas.
+ */
+public interface GroupCount {
+    Long getId();
+    long getTotal();
+}
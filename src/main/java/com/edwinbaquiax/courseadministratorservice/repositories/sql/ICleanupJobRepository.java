@@ -0,0 +1,50 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.sql;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ICleanupJobRepository extends JpaRepository<CleanupJob, Long> {
+
+    //trabajos sin terminar cuyo bloqueo ya vencio (o nunca se tomaron)
+    @Query("""
+            select J.id from CleanupJob J
+            where J.status in :statuses
+              and (J.lockedUntil is null or J.lockedUntil < :now)
+            order by J.id
+            """)
+    List<Long> findClaimableIds(@Param("statuses") Collection<CleanupStatus> statuses,
+                                @Param("now") LocalDateTime now,
+                                Limit limit);
+
+    //solo una instancia gana la actualizacion; subir la version invalida los guardados del duenio anterior
+    @Transactional
+    @Modifying
+    @Query("""
+            update CleanupJob J set J.lockedUntil = :until, J.status = :running, J.version = J.version + 1
+            where J.id = :id
+              and (J.lockedUntil is null or J.lockedUntil < :now)
+            """)
+    int claim(@Param("id") Long id,
+              @Param("running") CleanupStatus running,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    Optional<CleanupJob> findFirstByTargetTypeAndTargetIdAndStatusIn(CleanupTarget targetType, Long targetId,
+                                                                     Collection<CleanupStatus> statuses);
+
+    List<CleanupJob> findByStatusInOrderByIdAsc(Collection<CleanupStatus> statuses, Limit limit);
+}
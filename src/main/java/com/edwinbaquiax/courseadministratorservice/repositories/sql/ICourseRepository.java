@@ -1,34 +1,185 @@
 package com.edwinbaquiax.courseadministratorservice.repositories.sql;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ICourseRepository extends JpaRepository<Course, Long> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
+    //Listados: solo las columnas del DTO, el nombre del docente en la misma consulta;
+    //left join para no perder los cursos sin docente ni cambiar los totales
+    @Query(value = """
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            """,
+            countQuery = "select count(C) from Course C")
+    Page<CourseResponseDTO> findAllCourseDTOs(Pageable pageable);
+
+    @Query(value = """
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            inner join Enrollment E on E.course = C
+            where E.user.id = :userId
+              and E.active = true
+              and C.active = true
+            """,
+            countQuery = """
+            select count(C) from Course C
+            inner join Enrollment E on E.course = C
+            where E.user.id = :userId
+              and E.active = true
+              and C.active = true
+            """)
+    Page<CourseResponseDTO> findCourseDTOsByStudent(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = """
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            where T.id = :teacherId
+            """,
+            countQuery = "select count(C) from Course C where C.teacher.id = :teacherId")
+    Page<CourseResponseDTO> findCourseDTOsByTeacher(@Param("teacherId") Long teacherId, Pageable pageable);
+
+    //variantes Slice de los listados: sin consulta de conteo
+    @Query("""
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            """)
+    Slice<CourseResponseDTO> sliceCourseDTOs(Pageable pageable);
+
     @Query("""
-            select C from Course C
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
             inner join Enrollment E on E.course = C
             where E.user.id = :userId
               and E.active = true
               and C.active = true
             """)
-    Page<Course> findCoursesByStudent(@Param("userId") Long userId, Pageable pageable);
+    Slice<CourseResponseDTO> sliceCourseDTOsByStudent(@Param("userId") Long userId, Pageable pageable);
 
+    @Query("""
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            where T.id = :teacherId
+            """)
+    Slice<CourseResponseDTO> sliceCourseDTOsByTeacher(@Param("teacherId") Long teacherId, Pageable pageable);
 
-    Page<Course> findCoursesByTeacher_Id(Long teacherId, Pageable pageable);
+    @Query("""
+            select count(C) from Course C
+            inner join Enrollment E on E.course = C
+            where E.user.id = :userId
+              and E.active = true
+              and C.active = true
+            """)
+    long countCoursesByStudent(@Param("userId") Long userId);
+
+    long countByTeacher_Id(Long teacherId);
     
     Optional<Course> findByModulesContaining(Set<Module> modules);
     Optional<Course> findByIdAndTeacher_Id(Long id, Long teacherId);
+
+    //Exportacion: filas en flujo con fetch size, el docente en la misma consulta (left join: hay cursos sin docente)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select C from Course C left join fetch C.teacher order by C.id")
+    Stream<Course> streamAllWithTeacher();
+
+    //Paginacion por cursor (title, id), title ya tiene indice unico; "title >=" acota el rango del indice
+    @Query("""
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            order by C.title, C.id
+            """)
+    List<CourseResponseDTO> findCourseDTOsFirstPage(Limit limit);
+
+    @Query("""
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO(
+                C.id, C.title, C.description, C.active, concat(T.name, ' ', coalesce(T.lastname, '')))
+            from Course C
+            left join C.teacher T
+            where C.title >= :title
+              and (C.title > :title or C.id > :id)
+            order by C.title, C.id
+            """)
+    List<CourseResponseDTO> findCourseDTOsAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    @Query("select C.teacher.id from Course C where C.id = :courseId")
+    Optional<Long> findTeacherIdById(@Param("courseId") Long courseId);
+
+    @Query("select C.teacher.id as teacherId, C.active as active from Course C where C.id = :courseId")
+    Optional<CourseOwner> findOwnerById(@Param("courseId") Long courseId);
+
+    boolean existsByTeacher_Id(Long teacherId);
+
+    //cursos del docente que todavia no tienen su propia limpieza
+    @Query("""
+            select C.id from Course C
+            where C.teacher.id = :teacherId
+              and not exists (select J.id from CleanupJob J where J.targetType = :target and J.targetId = C.id)
+            order by C.id
+            """)
+    List<Long> findIdsByTeacherWithoutCleanup(@Param("teacherId") Long teacherId,
+                                              @Param("target") CleanupTarget target,
+                                              Limit limit);
+
+    @Modifying
+    @Query("update Course C set C.active = false where C.id in :ids")
+    int deactivate(@Param("ids") Collection<Long> ids);
+
+    long countByActiveTrue();
+
+    boolean existsByIdAndActiveTrue(Long id);
+
+    @Query("select C.id from Course C where C.id in :ids and C.active = true")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids);
+
+    Optional<CourseCapacity> findCapacityById(Long id);
+
+    interface CourseCapacity {
+        Integer getCapacity();
+    }
+
+    interface CourseOwner {
+        Long getTeacherId();
+        Boolean getActive();
+    }
 }
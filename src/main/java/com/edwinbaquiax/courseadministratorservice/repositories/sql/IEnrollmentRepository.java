@@ -2,13 +2,19 @@ package com.edwinbaquiax.courseadministratorservice.repositories.sql;
 
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Enrollment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,6 +26,18 @@ public interface IEnrollmentRepository extends JpaRepository<Enrollment,Long> {
     Page<Enrollment> findAllByUser_Id(Long userId, Pageable pageable);
 
     Page<Enrollment> findAllByCourse_Id(Long courseId, Pageable pageable);
+
+    //variantes Slice: sin consulta de conteo
+    Slice<Enrollment> findSliceByUser_Id(Long userId, Pageable pageable);
+
+    Slice<Enrollment> findSliceByCourse_Id(Long courseId, Pageable pageable);
+
+    Slice<Enrollment> findSliceBy(Pageable pageable);
+
+    long countByUser_Id(Long userId);
+
+    long countByCourse_Id(Long courseId);
+
     @Query("""
                 SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END
                 FROM Enrollment e
@@ -31,4 +49,107 @@ public interface IEnrollmentRepository extends JpaRepository<Enrollment,Long> {
                                      @Param("moduleId") Long moduleId,
                                      @Param("teacherId") Long teacherId
     );
+
+    //Paginacion por cursor (createdAt, id), indice enrollments(created_at, id). En las paginas
+    //siguientes el "createdAt >=" va primero: el OR solo no se puede usar como rango del indice
+    @Query("""
+            select e from Enrollment e
+            join fetch e.user
+            join fetch e.course
+            order by e.createdAt, e.id
+            """)
+    List<Enrollment> findFirstPage(Limit limit);
+
+    @Query("""
+            select e from Enrollment e
+            join fetch e.user
+            join fetch e.course
+            where e.createdAt >= :createdAt
+              and (e.createdAt > :createdAt or e.id > :id)
+            order by e.createdAt, e.id
+            """)
+    List<Enrollment> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Limit limit);
+
+    //indice enrollments(course_id, created_at, id)
+    @Query("""
+            select e from Enrollment e
+            join fetch e.user
+            join fetch e.course c
+            where c.id = :courseId
+            order by e.createdAt, e.id
+            """)
+    List<Enrollment> findFirstPageByCourse(@Param("courseId") Long courseId, Limit limit);
+
+    @Query("""
+            select e from Enrollment e
+            join fetch e.user
+            join fetch e.course c
+            where c.id = :courseId
+              and e.createdAt >= :createdAt
+              and (e.createdAt > :createdAt or e.id > :id)
+            order by e.createdAt, e.id
+            """)
+    List<Enrollment> findPageByCourseAfter(@Param("courseId") Long courseId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    //mismo criterio que isAsignableToTaskStudent: cualquier inscripcion al curso
+    @Query("select distinct e.user.id from Enrollment e where e.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+
+    //estudiantes activos del curso del modulo, solo si el curso es del docente
+    @Query("""
+            select distinct e.user.id from Enrollment e
+            join e.course c
+            join c.modules m
+            where m.id = :moduleId and c.teacher.id = :teacherId and e.active = true
+            """)
+    List<Long> findActiveStudentIdsByModuleAndTeacher(@Param("moduleId") Long moduleId,
+                                                      @Param("teacherId") Long teacherId);
+
+    //limpieza por lotes: primero los ids con limite y luego un DELETE por ids
+    @Query("select e.id from Enrollment e where e.course.id = :courseId order by e.id")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId, Limit limit);
+
+    @Query("select e.id from Enrollment e where e.user.id = :userId order by e.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    //las de un curso eliminado ya se descontaron al eliminarlo, aunque su limpieza no termine
+    @Query("""
+            select e.course.id as id, count(e) as total from Enrollment e
+            where e.active = true and e.course.active = true
+            group by e.course.id
+            """)
+    List<GroupCount> countActiveByCourse();
+
+    @Query("""
+            select e.course.id as id, count(e) as total from Enrollment e
+            where e.id in :ids and e.active = true and e.course.active = true
+            group by e.course.id
+            """)
+    List<GroupCount> countActiveByCourseIn(@Param("ids") Collection<Long> ids);
+
+    //pares usuario-curso ya inscritos dentro de un lote de importacion (puede traer pares de mas)
+    @Query("""
+            select e.user.id as userId, e.course.id as courseId from Enrollment e
+            where e.active = true and e.user.id in :userIds and e.course.id in :courseIds
+            """)
+    List<UserCourse> findActivePairs(@Param("userIds") Collection<Long> userIds,
+                                     @Param("courseIds") Collection<Long> courseIds);
+
+    interface UserCourse {
+        Long getUserId();
+        Long getCourseId();
+    }
+
+    long countByCourse_IdAndActiveTrue(Long courseId);
+
+    boolean existsByUser_IdAndCourse_IdAndActiveTrue(Long userId, Long courseId);
 }
@@ -1,20 +1,80 @@
 package com.edwinbaquiax.courseadministratorservice.repositories.sql;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Enrollment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.swing.text.html.Option;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IModuleRepository extends JpaRepository<Module, Long> {
     Page<Module> findAllByCourse_IdAndActive(Long courseId, boolean active, Pageable pageable);
+    Slice<Module> findSliceByCourse_IdAndActive(Long courseId, boolean active, Pageable pageable);
+    Slice<Module> findSliceBy(Pageable pageable);
     Optional<Module> findByIdAndCourse_Teacher_Id(Long id, Long courseTeacherId);
 
+    @Query("select m.course.id from Module m where m.id = :moduleId")
+    Optional<Long> findCourseIdById(@Param("moduleId") Long moduleId);
 
+    //proyeccion de los modulos activos en una sola consulta, sin cargar el curso de cada modulo
+    @Query("""
+            select new com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO(
+                M.id, M.course.id, M.moduleName, M.description, M.active, M.createdAt)
+            from Module M
+            where M.course.id = :courseId and M.active = true
+            order by M.moduleName
+            """)
+    List<ModuleResponseDTO> findActiveModuleDTOsByCourse(@Param("courseId") Long courseId);
+
+    //asignacion masiva: solo se toman los modulos que no pertenecen a ningun curso
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Module M set M.course = :course where M.id in :ids and M.course is null")
+    int attachToCourse(@Param("course") Course course, @Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Module M set M.course = null where M.id in :ids and M.course.id = :courseId")
+    int detachFromCourse(@Param("courseId") Long courseId, @Param("ids") Collection<Long> ids);
+
+    //curso actual de cada modulo (null si no tiene), para reportar conflictos
+    @Query("select M.id as id, C.id as courseId from Module M left join M.course C where M.id in :ids")
+    List<ModuleCourse> findCourseIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select M.id from Module M where M.course.id = :courseId order by M.id")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId, Limit limit);
+
+    @Modifying
+    @Query("delete from Module M where M.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    //modulos que cuentan: activos y sin curso o de un curso activo
+    @Query("""
+            select M.id from Module M left join M.course C
+            where M.active = true and (C.id is null or C.active = true)
+            """)
+    List<Long> findCountedIds();
+
+    @Query("""
+            select M.course.id as id, count(M) as total from Module M
+            where M.active = true and M.course.active = true
+            group by M.course.id
+            """)
+    List<GroupCount> countActiveByCourse();
+
+    interface ModuleCourse {
+        Long getId();
+        Long getCourseId();
+    }
 }
@@ -5,8 +5,13 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,9 +19,28 @@ public interface IUserRepository extends JpaRepository<User,Long> {
 
     Optional<User> findByUsername(String userName);
 
+    //Login: usuario y roles en una sola consulta
+    @Query("""
+            select distinct u from User u
+            left join fetch u.roles
+            where u.username = :username
+            """)
+    Optional<User> findWithRolesByUsername(@Param("username") String username);
+
+    //re-hash al iniciar sesion con un costo menor al actual
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
     boolean existsByUsername( String username);
 
     boolean existsByUsernameOrEmail(String username,String email);
 
+    long countByEnabledTrue();
+
+    boolean existsByIdAndEnabledTrue(Long id);
 
+    //un usuario deshabilitado no puede iniciar sesion, tampoco se le inscribe
+    @Query("select u.id from User u where u.id in :ids and u.enabled = true")
+    List<Long> findEnabledIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,39 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.sql;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.WaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IWaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findByUser_IdAndCourse_Id(Long userId, Long courseId);
+
+    List<WaitlistEntry> findByCourse_IdOrderByIdAsc(Long courseId, Limit limit);
+
+    //posicion en la lista, empezando en 1
+    long countByCourse_IdAndIdLessThanEqual(Long courseId, Long id);
+
+    @Query("select distinct W.course.id from WaitlistEntry W")
+    List<Long> findCourseIds();
+
+    //devuelve 0 si otro proceso ya tomo la entrada
+    @Modifying
+    @Query("delete from WaitlistEntry W where W.id = :id")
+    int deleteEntry(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from WaitlistEntry W where W.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry W where W.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,332 @@
+package com.edwinbaquiax.courseadministratorservice.search;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Indice invertido en memoria sobre el titulo y la descripcion de los cursos activos.
+ *
+ * <p>Los textos se separan en palabras, se pasan a minusculas y se les quitan los acentos
+ * ("programación" y "programacion" son el mismo termino). Cada palabra de la consulta
+ * debe coincidir completa o como prefijo; el puntaje favorece el titulo sobre la
+ * descripcion y la palabra completa sobre el prefijo.</p>
+ *
+ * <p>Solo guarda el id, el titulo (para desempatar) y los pesos de cada termino; la busqueda
+ * devuelve ids y el curso se lee de la cache del catalogo, asi no se sirven copias viejas.
+ * Se construye al iniciar la aplicacion y se actualiza por curso cuando se crea, edita o
+ * elimina uno, una vez confirmada la transaccion.</p>
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_BONUS = 2;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int REBUILD_BATCH = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los",
+            "para", "por", "que", "se", "su", "un", "una", "y", "o");
+
+    //mayor puntaje primero, luego titulo y id para que el orden sea estable
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.course().title(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(hit -> hit.course().id());
+
+    //cada termino guarda sus cursos ordenados por peso, del mas relevante al menos relevante
+    private final ConcurrentSkipListMap<String, NavigableSet<Hit>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedCourse> documents = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ICourseRepository courseRepository;
+
+    /**
+     * Reconstruye el indice leyendo los cursos por lotes (paginacion por cursor).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        clear();
+        List<CourseResponseDTO> batch = courseRepository.findCourseDTOsFirstPage(Limit.of(REBUILD_BATCH));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::index);
+            CourseResponseDTO last = batch.get(batch.size() - 1);
+            batch = courseRepository.findCourseDTOsAfter(last.getTitle(), last.getId(), Limit.of(REBUILD_BATCH));
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un curso. Los cursos inactivos se quitan del indice.
+     */
+    public synchronized void index(CourseResponseDTO course) {
+        remove(course.getId());
+        if (!course.isActive()) {
+            return;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(course.getTitle()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(course.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        IndexedCourse indexed = new IndexedCourse(course.getId(), course.getTitle(), Map.copyOf(weights));
+        documents.put(course.getId(), indexed);
+        indexed.weights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, k -> new ConcurrentSkipListSet<>(RANKING)).add(new Hit(indexed, weight)));
+    }
+
+    public synchronized void remove(Long courseId) {
+        IndexedCourse previous = documents.remove(courseId);
+        if (previous == null) {
+            return;
+        }
+        previous.weights().forEach((term, weight) ->
+                postings.computeIfPresent(term, (k, hits) -> {
+                    hits.remove(new Hit(previous, weight));
+                    return hits.isEmpty() ? null : hits;
+                }));
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Busca cursos que contengan todas las palabras de la consulta (completas o como prefijo),
+     * ordenados por relevancia y luego por titulo.
+     *
+     * <p>Las listas de cada termino se recorren a la par, de mayor a menor peso, y se conservan
+     * los {@code limit} mejores en un heap. La busqueda termina cuando la suma de los pesos
+     * que siguen en cada lista ya no alcanza al peor de los que se conservan, asi que no se
+     * visitan todas las coincidencias.</p>
+     *
+     * @return los ids de los cursos, del mas relevante al menos relevante
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<TermCursor> cursors = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            TermCursor cursor = open(term);
+            if (!cursor.hasNext()) {
+                return List.of();
+            }
+            cursors.add(cursor);
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        while (true) {
+            for (TermCursor cursor : cursors) {
+                //un curso que no aparecio en una lista agotada no tiene ese termino
+                if (!cursor.hasNext()) return ranked(top);
+                IndexedCourse course = cursor.next();
+                if (!seen.add(course.id())) continue;
+
+                int score = score(course, cursors);
+                if (score > 0) offer(top, new Hit(course, score), limit);
+            }
+            //con un solo termino la lista ya viene en el orden final
+            if (top.size() == limit && (cursors.size() == 1 || bound(cursors) < top.peek().score())) {
+                return ranked(top);
+            }
+        }
+    }
+
+    /**
+     * Normaliza y separa un texto en terminos: minusculas, sin acentos y sin palabras vacias.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    //listas del termino: la palabra completa y todas las que empiezan por el
+    private TermCursor open(String term) {
+        List<HitIterator> heads = new ArrayList<>();
+        NavigableSet<Hit> exact = postings.get(term);
+        if (exact != null) {
+            heads.add(new HitIterator(exact.iterator(), EXACT_BONUS));
+        }
+        List<String> prefixed = new ArrayList<>();
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, NavigableSet<Hit>> entry
+                    : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                prefixed.add(entry.getKey());
+                heads.add(new HitIterator(entry.getValue().iterator(), 1));
+            }
+        }
+        return new TermCursor(term, prefixed, heads);
+    }
+
+    //suma de los puntajes de cada termino, 0 si a alguno no le corresponde nada
+    private static int score(IndexedCourse course, List<TermCursor> cursors) {
+        int total = 0;
+        for (TermCursor cursor : cursors) {
+            int score = cursor.score(course.weights());
+            if (score == 0) return 0;
+            total += score;
+        }
+        return total;
+    }
+
+    //puntaje maximo que puede tener un curso que todavia no se visito
+    private static int bound(List<TermCursor> cursors) {
+        int bound = 0;
+        for (TermCursor cursor : cursors) {
+            bound += cursor.peekScore();
+        }
+        return bound;
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int limit) {
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (RANKING.compare(hit, top.peek()) < 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static List<Long> ranked(PriorityQueue<Hit> top) {
+        Long[] ids = new Long[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().course().id();
+        }
+        return List.of(ids);
+    }
+
+    private synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    private record IndexedCourse(Long id, String title, Map<String, Integer> weights) {
+    }
+
+    private record Hit(IndexedCourse course, int score) {
+    }
+
+    /**
+     * Recorre una lista de un termino aplicando el factor de palabra completa o de prefijo.
+     */
+    private static final class HitIterator {
+
+        private final Iterator<Hit> hits;
+        private final int factor;
+        private Hit head;
+
+        HitIterator(Iterator<Hit> hits, int factor) {
+            this.hits = hits;
+            this.factor = factor;
+            advance();
+        }
+
+        boolean advance() {
+            if (!hits.hasNext()) {
+                head = null;
+                return false;
+            }
+            Hit next = hits.next();
+            head = factor == 1 ? next : new Hit(next.course(), next.score() * factor);
+            return true;
+        }
+    }
+
+    /**
+     * Mezcla las listas de un termino en una sola, de mayor a menor puntaje.
+     */
+    private static final class TermCursor {
+
+        private final String term;
+        private final List<String> prefixed;
+        private final PriorityQueue<HitIterator> heads =
+                new PriorityQueue<>(Comparator.comparing((HitIterator it) -> it.head, RANKING));
+
+        TermCursor(String term, List<String> prefixed, List<HitIterator> lists) {
+            this.term = term;
+            this.prefixed = prefixed;
+            for (HitIterator list : lists) {
+                if (list.head != null) heads.add(list);
+            }
+        }
+
+        boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        IndexedCourse next() {
+            if (heads.size() == 1) {//sin prefijos no hace falta mezclar
+                HitIterator list = heads.peek();
+                IndexedCourse course = list.head.course();
+                if (!list.advance()) heads.clear();
+                return course;
+            }
+            HitIterator list = heads.poll();
+            IndexedCourse course = list.head.course();
+            if (list.advance()) heads.add(list);
+            return course;
+        }
+
+        int peekScore() {
+            return heads.isEmpty() ? 0 : heads.peek().head.score();
+        }
+
+        //la palabra completa vale mas que un prefijo; se queda el mejor de los dos
+        int score(Map<String, Integer> weights) {
+            Integer exact = weights.get(term);
+            int best = exact == null ? 0 : exact * EXACT_BONUS;
+            if (prefixed.size() <= weights.size()) {
+                for (String candidate : prefixed) {
+                    Integer weight = weights.get(candidate);
+                    if (weight != null) best = Math.max(best, weight);
+                }
+            } else {
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    String candidate = entry.getKey();
+                    if (candidate.length() > term.length() && candidate.startsWith(term)) {
+                        best = Math.max(best, entry.getValue());
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codificacion compacta de los roles dentro del JWT.
+ *
+ * <p>Los roles conocidos se guardan como una mascara de bits en el claim {@code roles}.
+ * Al decodificar se devuelve una lista inmutable precalculada por cada mascara, asi que
+ * leer los roles de un token no crea objetos. El formato anterior (JSON en el claim
+ * {@code authorities}) se sigue aceptando para los tokens emitidos antes del cambio.</p>
+ */
+public final class AuthorityCodec {
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String LEGACY_AUTHORITIES_CLAIM = "authorities";
+
+    //el orden define el bit de cada rol, solo se puede agregar al final
+    private static final String[] KNOWN_ROLES = {"ROLE_STUDENT", "ROLE_TEACHER", "ROLE_ADMIN"};
+
+    private static final Map<String, GrantedAuthority> INTERNED = new ConcurrentHashMap<>();
+    private static final List<List<GrantedAuthority>> BY_MASK;
+
+    //añadiendo sobreescritura rol -> authority
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper()
+            .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class);
+
+    static {
+        for (String role : KNOWN_ROLES) {
+            INTERNED.put(role, new SimpleGrantedAuthority(role));
+        }
+        List<List<GrantedAuthority>> byMask = new ArrayList<>(1 << KNOWN_ROLES.length);
+        for (int mask = 0; mask < (1 << KNOWN_ROLES.length); mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (int bit = 0; bit < KNOWN_ROLES.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    authorities.add(INTERNED.get(KNOWN_ROLES[bit]));
+                }
+            }
+            byMask.add(List.copyOf(authorities));
+        }
+        BY_MASK = List.copyOf(byMask);
+    }
+
+    private AuthorityCodec() {
+    }
+
+    /**
+     * Devuelve la instancia compartida del rol, creandola solo la primera vez.
+     */
+    public static GrantedAuthority authority(String role) {
+        return INTERNED.computeIfAbsent(role, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Codifica los roles como mascara de bits.
+     *
+     * @return la mascara, o {@code -1} si algun rol no tiene bit asignado
+     */
+    public static int encode(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            int bit = bitOf(authority.getAuthority());
+            if (bit < 0) {
+                return -1;
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Decodifica una mascara sin crear objetos.
+     */
+    public static List<GrantedAuthority> decode(int mask) {
+        if (mask < 0 || mask >= BY_MASK.size()) {
+            throw new IllegalArgumentException(String.format("Mascara de roles %d no valida", mask));
+        }
+        return BY_MASK.get(mask);
+    }
+
+    /**
+     * Decodifica el formato anterior: un arreglo JSON de {@code {"authority": "ROLE_X"}}.
+     */
+    public static List<GrantedAuthority> decodeLegacy(String json) throws IOException {
+        SimpleGrantedAuthority[] parsed = LEGACY_MAPPER.readValue(json, SimpleGrantedAuthority[].class);
+        List<GrantedAuthority> authorities = new ArrayList<>(parsed.length);
+        for (SimpleGrantedAuthority authority : parsed) {
+            authorities.add(authority(authority.getAuthority()));
+        }
+        return authorities;
+    }
+
+    /**
+     * Codifica en el formato anterior, usado cuando hay roles sin bit asignado.
+     */
+    public static String encodeLegacy(Collection<? extends GrantedAuthority> authorities) throws IOException {
+        return LEGACY_MAPPER.writeValueAsString(authorities);
+    }
+
+    private static int bitOf(String role) {
+        for (int bit = 0; bit < KNOWN_ROLES.length; bit++) {
+            if (KNOWN_ROLES[bit].equals(role)) {
+                return bit;
+            }
+        }
+        return -1;
+    }
+}
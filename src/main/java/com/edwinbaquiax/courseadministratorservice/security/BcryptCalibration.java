@@ -0,0 +1,40 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calibra el costo de BCrypt al iniciar para acercarse a una latencia objetivo por hash
+ * en el hardware donde corre la aplicacion.
+ */
+public final class BcryptCalibration {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    private static final String SAMPLE = "calibracion-bcrypt";
+
+    private BcryptCalibration() {
+    }
+
+    /**
+     * Mide el costo minimo y estima los demas: cada punto de costo duplica el tiempo.
+     *
+     * @return el mayor costo cuyo tiempo estimado no supera {@code targetMillis}, nunca
+     * menor a {@link #MIN_STRENGTH}
+     */
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode(SAMPLE);//calentamiento del JIT
+
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE);
+        double elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000.0, 1.0);
+
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && elapsedMillis * 2 <= targetMillis) {
+            elapsedMillis *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -1,14 +1,39 @@
 package com.edwinbaquiax.courseadministratorservice.security;
 
+import com.edwinbaquiax.courseadministratorservice.services.user.JpaUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class EncodeConfig {
+
+    //0 = calibrar al iniciar segun target-millis
+    @Value("${security.password.bcrypt.strength:0}")
+    private int strength;
+    @Value("${security.password.bcrypt.target-millis:250}")
+    private long targetMillis;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int threads;
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${security.password.hashing.max-wait-millis:2000}")
+    private long maxWaitMillis;
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        int cost = strength > 0 ? strength : BcryptCalibration.calibrate(targetMillis);
+        //por defecto la mitad de los nucleos, el resto queda para el CRUD
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), poolSize, queueCapacity, maxWaitMillis);
+    }
+
+    //reemplaza al proveedor que Spring arma con el UserDetailsService para tolerar el pool ocupado
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public HashUpgradeAuthenticationProvider authenticationProvider(JpaUserDetailsService userDetailsService,
+                                                                    BoundedPasswordEncoder passwordEncoder) {
+        return new HashUpgradeAuthenticationProvider(userDetailsService, passwordEncoder, userDetailsService);
     }
 }
@@ -0,0 +1,44 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.PasswordHashingBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Login con usuario y contraseña que no falla por la actualizacion del hash.
+ *
+ * <p>Tras verificar la contraseña, {@link DaoAuthenticationProvider} vuelve a hashearla si el
+ * hash guardado usa un costo menor. Si el pool de hashing esta ocupado, ese segundo hash
+ * lanza {@link PasswordHashingBusyException}: aqui se omite la actualizacion (se intentara en
+ * el siguiente login) y el login sigue siendo correcto en lugar de responder 503.</p>
+ */
+@Slf4j
+public class HashUpgradeAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public HashUpgradeAuthenticationProvider(UserDetailsService userDetailsService,
+                                             PasswordEncoder passwordEncoder,
+                                             UserDetailsPasswordService passwordService) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        setUserDetailsPasswordService(passwordService);
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Pool de hashing ocupado, no se actualiza el hash de {}", user.getUsername());
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, authentication.getCredentials(), user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
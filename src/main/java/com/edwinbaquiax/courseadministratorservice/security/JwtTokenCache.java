@@ -0,0 +1,120 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de tokens JWT ya verificados.
+ *
+ * <p>Evita volver a verificar la firma y deserializar los roles en cada peticion
+ * de un mismo token. La llave es el digest SHA-256 del token (nunca el token en claro)
+ * y cada entrada se descarta al llegar el {@code exp} del token.</p>
+ */
+@Component
+public class JwtTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtTokenCache(@Value("${security.jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Devuelve la autenticacion ya construida para el token o {@code null} si no esta
+     * en cache o ya expiro.
+     */
+    public UsernamePasswordAuthenticationToken get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.authentication();
+    }
+
+    public void put(String token, UsernamePasswordAuthenticationToken authentication, Date expiration) {
+        //sin exp no se puede saber hasta cuando es valido
+        if (expiration == null || maxSize <= 0) {
+            return;
+        }
+        long expiresAt = expiration.getTime();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(digest(token), new Entry(authentication, expiresAt));
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return CacheStatsDTO.builder()
+                .name("jwt-tokens")
+                .size(entries.size())
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    //primero se descartan los expirados, si sigue lleno se descarta cualquier entrada
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            //SHA-256 siempre esta disponible en la JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(UsernamePasswordAuthenticationToken authentication, long expiresAt) {
+    }
+}
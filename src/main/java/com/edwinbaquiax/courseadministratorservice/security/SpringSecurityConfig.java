@@ -40,11 +40,15 @@ public class SpringSecurityConfig {
 
     @Value("${security.jwt.secret}")
     private String secretKey;
+    @Value("${security.jwt.write-legacy-authorities:false}")
+    private boolean writeLegacyAuthorities;
 
     @Autowired
     private AuthenticationConfiguration authenticationConfiguration;
     @Autowired
     private IUserService userService;
+    @Autowired
+    private JwtTokenCache tokenCache;
 
     public AuthenticationManager authenticationManager() throws Exception {
 
@@ -67,9 +71,9 @@ public class SpringSecurityConfig {
                 )
                 //FILTROS
                 //extiende de la clase UsernamePasswordAuthenticationFilter
-                .addFilter(new JwtAuthenticationFilter(authenticationManager(),secretKey,userService))
+                .addFilter(new JwtAuthenticationFilter(authenticationManager(),secretKey,userService,writeLegacyAuthorities))
                 //extiende de la clase BasicAuthenticationFilter
-                .addFilter(new JwtValidationFilter(authenticationManager(),secretKey))
+                .addFilter(new JwtValidationFilter(authenticationManager(),secretKey,tokenCache))
 
                 .csrf(AbstractHttpConfigurer::disable)//para formularios
                 //Cors
@@ -1,21 +1,20 @@
 package com.edwinbaquiax.courseadministratorservice.security.filters;
 
+import com.edwinbaquiax.courseadministratorservice.exceptions.PasswordHashingBusyException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.user.LoginUserDetails;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.security.AuthorityCodec;
 import com.edwinbaquiax.courseadministratorservice.services.user.IUserService;
 import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ClaimsBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,7 +22,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
@@ -35,12 +33,15 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     private SecretKey secretKey;
     private AuthenticationManager authenticationManager;
     private IUserService userService;
+    //durante el despliegue las instancias anteriores solo entienden el claim "authorities"
+    private boolean writeLegacyAuthorities;
 
 
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, SecretKey secretKey, IUserService userService) {
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, SecretKey secretKey, IUserService userService, boolean writeLegacyAuthorities) {
         this.authenticationManager = authenticationManager;
         this.secretKey=secretKey;
         this.userService = userService;
+        this.writeLegacyAuthorities = writeLegacyAuthorities;
     }
 
     //Autenticacion
@@ -75,18 +76,26 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain, Authentication authResult) throws IOException, ServletException {
 
 
-        org.springframework.security.core.userdetails.User user= (org.springframework.security.core.userdetails.User) authResult.getPrincipal();
+        //el principal ya trae el id, no se vuelve a consultar el usuario
+        LoginUserDetails user = (LoginUserDetails) authResult.getPrincipal();
         String username = user.getUsername();
-        Long userId = userService.findByUsername(username).getId();
+        Long userId = user.getId();
 
         Collection<? extends GrantedAuthority> roles = authResult.getAuthorities();
 
-        Claims claims = Jwts
+        int rolesMask = AuthorityCodec.encode(roles);
+
+        ClaimsBuilder claimsBuilder = Jwts
                 .claims()
-               // .add("authorities",roles)
-                .add("authorities", new ObjectMapper().writeValueAsString(roles))
-                .add("userId",userId)
-                .build();
+                .add("userId",userId);
+        if (rolesMask >= 0) {
+            claimsBuilder.add(AuthorityCodec.ROLES_CLAIM, rolesMask);
+        }
+        //roles sin bit asignado o despliegue en curso: formato JSON anterior
+        if (rolesMask < 0 || writeLegacyAuthorities) {
+            claimsBuilder.add(AuthorityCodec.LEGACY_AUTHORITIES_CLAIM, AuthorityCodec.encodeLegacy(roles));
+        }
+        Claims claims = claimsBuilder.build();
 
         String jwtToken = Jwts
                 .builder()
@@ -97,7 +106,7 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                 .signWith(secretKey, Jwts.SIG.HS256)//firmado
                 .compact();
         
-        userService.updateLastLogin(username);
+        userService.updateLastLogin(userId);
 
         response.addHeader("Authorization",String.format("Bearer %s",jwtToken));
         Map<String,String> body = new HashMap<>();
@@ -112,6 +121,16 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
         Map<String,String> body = new HashMap<>();
+        //pool de hashing saturado: no es un error de credenciales
+        if (failed instanceof PasswordHashingBusyException) {
+            body.put("message","Servicio saturado, intente de nuevo en unos segundos");
+            body.put("error",failed.getMessage());
+            response.getWriter().write(new ObjectMapper().writeValueAsString(body));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After","1");
+            response.setContentType("application/json");
+            return;
+        }
         body.put("message","Error en la autenticacion, error en username o password incorrectos");
         body.put("error",failed.getMessage());
         //json
@@ -1,30 +1,28 @@
 package com.edwinbaquiax.courseadministratorservice.security.filters;
 
 import com.edwinbaquiax.courseadministratorservice.models.dtos.user.UserPrincipal;
-import com.edwinbaquiax.courseadministratorservice.security.SimpleGrantedAuthorityJsonCreator;
+import com.edwinbaquiax.courseadministratorservice.security.AuthorityCodec;
+import com.edwinbaquiax.courseadministratorservice.security.JwtTokenCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,11 +30,17 @@ import java.util.Map;
 
 public class JwtValidationFilter extends BasicAuthenticationFilter {
 
-    private SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final JwtTokenCache tokenCache;
 
-    public JwtValidationFilter(AuthenticationManager authenticationManager, SecretKey secretKey) {
+    public JwtValidationFilter(AuthenticationManager authenticationManager, SecretKey secretKey, JwtTokenCache tokenCache) {
         super(authenticationManager);
-        this.secretKey = secretKey;
+        //el parser es inmutable y thread-safe, se construye una sola vez
+        this.jwtParser = Jwts
+                .parser()
+                .verifyWith(secretKey)
+                .build();
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -50,32 +54,26 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
         }
         String token = header.replace("Bearer ", "");
         try {
+            UsernamePasswordAuthenticationToken authenticationToken = tokenCache.get(token);
 
+            if (authenticationToken == null) {
+                Claims claims = jwtParser
+                        .parseSignedClaims(token).getPayload();
 
-            Claims claims = Jwts
-                    .parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token).getPayload();
-
-            String username = claims.getSubject();
-            //segun clave
+                String username = claims.getSubject();
+                //segun clave
 //            String username2 = (String) claims.get("sub");
-            Object authoritiesClaims = claims.get("authorities");
-            Object userIdObj = claims.get("userId");
-            Long userIdClaim = userIdObj == null ? null : Long.valueOf(userIdObj.toString());
-
-            //Obtencion de roles y convirtiendolos a una collecion
-            Collection<? extends GrantedAuthority> authorities = Arrays.asList(new ObjectMapper()
-                    //añadiendo sobreescritura rol -> authority
-                    .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class)
-                    .readValue(authoritiesClaims.toString().getBytes(), SimpleGrantedAuthority[].class));
-
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(
-                            new UserPrincipal(userIdClaim, username),
-                            null,
-                            authorities);
+                Long userIdClaim = userId(claims);
+                Collection<? extends GrantedAuthority> authorities = authorities(claims);
+
+                authenticationToken =
+                        new UsernamePasswordAuthenticationToken(
+                                new UserPrincipal(userIdClaim, username),
+                                null,
+                                authorities);
+
+                tokenCache.put(token, authenticationToken, claims.getExpiration());
+            }
 
             //Autenticacion
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -92,4 +90,27 @@ public class JwtValidationFilter extends BasicAuthenticationFilter {
         }
     }
 
+    //un claim con formato invalido es un token invalido (401), no un error del servidor
+    private static Long userId(Claims claims) {
+        Object userIdObj = claims.get("userId");
+        try {
+            return userIdObj == null ? null : Long.valueOf(userIdObj.toString());
+        } catch (NumberFormatException e) {
+            throw new MalformedJwtException("userId invalido", e);
+        }
+    }
+
+    //Obtencion de roles: mascara compacta o JSON de tokens anteriores
+    private static Collection<? extends GrantedAuthority> authorities(Claims claims) {
+        Object rolesClaim = claims.get(AuthorityCodec.ROLES_CLAIM);
+        Object legacyClaim = claims.get(AuthorityCodec.LEGACY_AUTHORITIES_CLAIM);
+        try {
+            if (rolesClaim instanceof Number mask) return AuthorityCodec.decode(mask.intValue());
+            if (legacyClaim == null) throw new MalformedJwtException("El token no tiene roles");
+            return AuthorityCodec.decodeLegacy(legacyClaim.toString());
+        } catch (IllegalArgumentException | IOException e) {
+            throw new MalformedJwtException("Roles del token invalidos", e);
+        }
+    }
+
 }
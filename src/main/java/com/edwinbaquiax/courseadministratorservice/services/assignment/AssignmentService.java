@@ -1,14 +1,22 @@
 package com.edwinbaquiax.courseadministratorservice.services.assignment;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
 import com.edwinbaquiax.courseadministratorservice.exceptions.*;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkAssignmentResultDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeItemDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeResultDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 
 import static com.edwinbaquiax.courseadministratorservice.models.mappers.AssignmentProfile.*;
 
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.GradeStatus;
 import com.edwinbaquiax.courseadministratorservice.models.enums.TaskStatus;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.AssignmentProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.mongo.IAssignmentRepository;
@@ -18,20 +26,48 @@ import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentR
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.CursorCodec;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
+import com.mongodb.bulk.BulkWriteError;
 import jakarta.transaction.Transactional;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class AssignmentService implements IAssignmentService {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    //ya calificada o cancelada: submit no la vuelve a calificar
+    private static final List<String> CLOSED_STATUSES = List.of(TaskStatus.COMPLETED.name(), TaskStatus.CANCELLED.name());
+
 @Autowired
     private IAssignmentRepository assignmentRepository;
     @Autowired
@@ -44,6 +80,14 @@ public class AssignmentService implements IAssignmentService {
     private IUserRepository userRepository;
     @Autowired
     private CurrentUser currentUser;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private ApproximateCounts approximateCounts;
+    @Autowired
+    private IModuleRepository moduleRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
 
 
     @Override
@@ -58,35 +102,84 @@ public class AssignmentService implements IAssignmentService {
         userRepository.findById(request.getUserId())
                 .orElseThrow(UserNotFoundException::new);
 
-       if(!enrollmentRepository.isAsignableToTaskStudent(request.getUserId(),task.getModuleId(),currentUser.getUserId())){
+       if(!assignabilityCache.isAssignable(request.getUserId(),task.getModuleId(),currentUser.getUserId())){
            throw new TaskNotFoundException();
        }
 
 
         Assignment assignment = assignmentRequestDtoToEntity(request);
-        Assignment saved = assignmentRepository.save(assignment);
+        assignment.setMaxScore(task.getValue());
+        return entityToAssignmentResponseDTO(saveUnique(assignment));
+    }
+
+    /**
+     * Asigna la tarea a todos los estudiantes activos del curso de su modulo.
+     *
+     * <p>El costo no depende del tamaño del grupo: la tarea, la lista del curso en una
+     * consulta SQL, las asignaciones existentes en un {@code $in} sobre
+     * {@code (user_id, task_id)} y las nuevas en una sola escritura masiva sin orden.</p>
+     */
+    @Override
+    public BulkAssignmentResultDTO assignToEnrolledStudents(String taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(TaskNotFoundException::new);
+        Long teacherId = currentUser.getUserId();
+
+        List<Long> roster = enrollmentRepository.findActiveStudentIdsByModuleAndTeacher(task.getModuleId(), teacherId);
+        if (roster.isEmpty()) {
+            //sin estudiantes o el curso no es del docente
+            moduleRepository.findByIdAndCourse_Teacher_Id(task.getModuleId(), teacherId)
+                    .orElseThrow(TaskNotFoundException::new);
+            return BulkAssignmentResultDTO.builder().taskId(taskId).build();
+        }
 
-        return entityToAssignmentResponseDTO(saved);
+        Set<Long> assigned = assignmentRepository.findByTaskIdAndUserIdIn(taskId, roster).stream()
+                .map(IAssignmentRepository.AssignedStudent::getUserId)
+                .collect(Collectors.toSet());
+        List<Assignment> pending = roster.stream()
+                .filter(userId -> !assigned.contains(userId))
+                .map(userId -> Assignment.builder()
+                        .userId(userId)
+                        .taskId(taskId)
+                        .status(TaskStatus.PENDING.name())
+                        .maxScore(task.getValue())
+                        .version(0L)
+                        .build())
+                .toList();
+
+        int created = insertUnordered(pending);
+        return BulkAssignmentResultDTO.builder()
+                .taskId(taskId)
+                .enrolled(roster.size())
+                .created(created)
+                .alreadyAssigned(roster.size() - created)
+                .build();
     }
 
     @Override
     public AssignmentResponseDTO updateAssignment(String assignmentId, AssignmentRequestDTO request) {
         Task task = taskRepository.findById(request.getTaskId())
                 .orElseThrow(TaskNotFoundException::new);
-        if(!enrollmentRepository.isAsignableToTaskStudent(request.getUserId(),task.getModuleId(),currentUser.getUserId())){
+        if(!assignabilityCache.isAssignable(request.getUserId(),task.getModuleId(),currentUser.getUserId())){
             throw new TaskNotFoundException();
         }
 
-        if(request.getScore() > task.getValue()){
+        if(request.getScore() != null && task.getValue() != null && request.getScore() > task.getValue()){
             throw  new AssignmentInvalidScoreException("La puntuacion sobrepasa el limite a obtener");
         }
 
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-                .orElseThrow(AssignmentNotFoundException::new);
-
-        updateEntityFromDto(assignment, request);
-        Assignment updated = assignmentRepository.save(assignment);
+        //la nota y el permiso se validaron para esta tarea y este estudiante, asi que el filtro exige ambos
+        Query query = Query.query(Criteria.where("id").is(assignmentId)
+                .and("taskId").is(task.getId())
+                .and("userId").is(request.getUserId()));
+        if (request.getVersion() != null) query.addCriteria(versionIs(request.getVersion()));
+        Assignment updated = mongoTemplate.findAndModify(query,
+                updateFromDto(request).set("maxScore", task.getValue()), RETURN_NEW, Assignment.class);
 
+        if (updated == null) {
+            if (!assignmentRepository.existsById(assignmentId)) throw new AssignmentNotFoundException();
+            throw new AssignmentConflictException("La asignacion cambio desde que se leyo o no pertenece a la tarea o al estudiante");
+        }
         return entityToAssignmentResponseDTO(updated);
     }
 
@@ -120,21 +213,230 @@ public class AssignmentService implements IAssignmentService {
         return assignments.map(AssignmentProfile::entityToAssignmentResponseDTO);
     }
 
+    @Override
+    public SlicePageDTO<AssignmentResponseDTO> findAssignmentsByStudentSlice(Long userId, int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("submittedAt").descending());
+
+        return SlicePages.of(assignmentRepository.findSliceByUserId(userId, pageable),
+                AssignmentProfile::entityToAssignmentResponseDTO,
+                approximateCounts.total(approxTotal, "assignments:student:" + userId,
+                        () -> assignmentRepository.countByUserId(userId)));
+    }
+
+    @Override
+    public SlicePageDTO<AssignmentResponseDTO> findAssignmentsByTaskSlice(String taskId, int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("submittedAt").descending());
+
+        return SlicePages.of(assignmentRepository.findSliceByTaskId(taskId, pageable),
+                AssignmentProfile::entityToAssignmentResponseDTO,
+                approximateCounts.total(approxTotal, "assignments:task:" + taskId,
+                        () -> assignmentRepository.countByTaskId(taskId)));
+    }
+
+    @Override
+    public CursorPageDTO<AssignmentResponseDTO> findAssignmentsByTaskCursor(String taskId, String cursor, int size) {
+        int limit = CursorCodec.clampSize(size);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        if (after != null && !ObjectId.isValid(after.id())) {
+            throw new InvalidCursorException();
+        }
+
+        List<Assignment> rows = after == null
+                ? assignmentRepository.findByTaskIdOrderByIdAsc(taskId, Limit.of(limit + 1))
+                : assignmentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(taskId, new ObjectId(after.id()), Limit.of(limit + 1));
+
+        return CursorCodec.toPage(rows, limit, AssignmentProfile::entityToAssignmentResponseDTO,
+                a -> CursorCodec.encode(a.getId(), null));
+    }
+
+    /**
+     * Califica la asignacion con un solo findAndModify: el filtro exige que no este cerrada y
+     * que la nota no supere {@code max_score}, asi que dos docentes calificando a la vez no se
+     * pisan y el caso normal es un viaje a la base.
+     */
     @Override
     public AssignmentResponseDTO submitAssignment(String assignmentId, Double score) {
-        Assignment assignment = assignmentRepository.findById(assignmentId)
+        if (score == null || score < 0) {
+            throw new AssignmentInvalidScoreException("La puntuacion debe ser mayor o igual a cero");
+        }
+        Assignment graded = mongoTemplate.findAndModify(
+                submittable(assignmentId).addCriteria(Criteria.where("maxScore").gte(score)),
+                submission(score, LocalDateTime.now()), RETURN_NEW, Assignment.class);
+        if (graded == null) graded = submitRejected(assignmentId, score);
+        return entityToAssignmentResponseDTO(graded);
+    }
+
+    //el filtro no coincidio: se lee la asignacion solo para saber por que
+    private Assignment submitRejected(String assignmentId, Double score) {
+        Assignment current = assignmentRepository.findById(assignmentId)
                 .orElseThrow(AssignmentNotFoundException::new);
+        Double maxScore = current.getMaxScore();
+        //creada antes de max_score: se valida contra la tarea y se completa el campo
+        boolean withoutMaxScore = maxScore == null;
+        if (withoutMaxScore) {
+            maxScore = taskRepository.findById(current.getTaskId())
+                    .orElseThrow(TaskNotFoundException::new)
+                    .getValue();
+        }
+        if (maxScore != null && score > maxScore) {
+            throw new AssignmentInvalidScoreException("La puntuacion sobrepasa el limite a obtener");
+        }
+        if (withoutMaxScore) {
+            Assignment graded = mongoTemplate.findAndModify(
+                    submittable(assignmentId).addCriteria(Criteria.where("maxScore").is(null)),
+                    submission(score, LocalDateTime.now()).set("maxScore", maxScore), RETURN_NEW, Assignment.class);
+            if (graded != null) return graded;
+        }
+        throw new AssignmentConflictException("La asignacion ya fue calificada o cancelada");
+    }
 
-        Task task = taskRepository.findById(assignment.getTaskId()).orElseThrow(TaskNotFoundException::new);
-        if(score > task.getValue()){
-            throw  new AssignmentInvalidScoreException("La puntuacion sobrepasa el limite a obtener");
+    private static Query submittable(String assignmentId) {
+        return Query.query(Criteria.where("id").is(assignmentId).and("status").nin(CLOSED_STATUSES));
+    }
+
+    private static Update submission(Double score, LocalDateTime submittedAt) {
+        return new Update()
+                .set("status", TaskStatus.COMPLETED.name())
+                .set("score", score)
+                .set("submittedAt", submittedAt)
+                .inc("version", 1);
+    }
+
+    //las asignaciones sin el campo cuentan como version 0
+    private static Criteria versionIs(long version) {
+        return version == 0
+                ? Criteria.where("version").in(0L, null)
+                : Criteria.where("version").is(version);
+    }
+
+    //el indice unico (user_id, task_id) resuelve dos creaciones simultaneas de la misma asignacion
+    private Assignment saveUnique(Assignment assignment) {
+        try {
+            return assignmentRepository.save(assignment);
+        } catch (DuplicateKeyException e) {
+            throw new AssignmentAlreadyExistException();
+        }
+    }
+
+    /**
+     * Califica varias asignaciones en una peticion.
+     *
+     * <p>La tarea de cada asignacion se lee con un {@code $in} y cada tarea distinta una sola
+     * vez; las notas se validan en memoria con el mismo criterio que {@link #submitAssignment}.
+     * Las validas se escriben en un solo bulkWrite sin orden con el mismo filtro condicional que
+     * {@link #submitAssignment}, asi que un error de escritura solo marca su propia asignacion y
+     * una asignacion calificada o cancelada mientras tanto queda como {@code CONFLICT}.</p>
+     */
+    @Override
+    public BulkGradeReportDTO gradeAssignments(List<GradeItemDTO> grades) {
+        Set<String> assignmentIds = grades.stream()
+                .map(GradeItemDTO::getAssignmentId)
+                .collect(Collectors.toSet());
+        Map<String, String> taskByAssignment = new HashMap<>();
+        for (IAssignmentRepository.AssignmentTask row : assignmentRepository.findTaskIdsByIdIn(assignmentIds)) {
+            taskByAssignment.put(row.getId(), row.getTaskId());
+        }
+        //el valor puede ser null (sin limite), por eso containsKey y no get
+        Map<String, Double> maxScoreByTask = new HashMap<>();
+        for (ITaskRepository.TaskValue row : taskRepository.findValuesByIdIn(new HashSet<>(taskByAssignment.values()))) {
+            maxScoreByTask.put(row.getId(), row.getValue());
+        }
+
+        List<GradeResultDTO> results = new ArrayList<>(grades.size());
+        List<GradeResultDTO> valid = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (GradeItemDTO grade : grades) {
+            GradeResultDTO result = GradeResultDTO.builder()
+                    .assignmentId(grade.getAssignmentId())
+                    .score(grade.getScore())
+                    .build();
+            results.add(result);
+
+            String taskId = taskByAssignment.get(grade.getAssignmentId());
+            Double maxScore = maxScoreByTask.get(taskId);
+            if (!seen.add(grade.getAssignmentId())) {
+                reject(result, GradeStatus.DUPLICATE, "La asignacion se repite en la peticion");
+            } else if (taskId == null || !maxScoreByTask.containsKey(taskId)) {
+                reject(result, GradeStatus.NOT_FOUND, "La asignacion o su tarea no existe");
+            } else if (grade.getScore() == null || grade.getScore() < 0) {
+                reject(result, GradeStatus.INVALID_SCORE, "La puntuacion debe ser mayor o igual a cero");
+            } else if (maxScore != null && grade.getScore() > maxScore) {
+                reject(result, GradeStatus.INVALID_SCORE, "La puntuacion sobrepasa el limite a obtener");
+            } else {
+                valid.add(result);
+            }
         }
 
-        assignment.setStatus(TaskStatus.COMPLETED.name());
-        assignment.setScore(score);
-        assignment.setSubmittedAt(LocalDateTime.now());
+        writeGrades(valid);
+        int graded = (int) results.stream().filter(r -> r.getStatus() == GradeStatus.GRADED).count();
+        return BulkGradeReportDTO.builder()
+                .total(results.size())
+                .graded(graded)
+                .rejected(results.size() - graded)
+                .results(results)
+                .build();
+    }
+
+    private void writeGrades(List<GradeResultDTO> valid) {
+        if (valid.isEmpty()) return;
+        //en milisegundos, como lo guarda Mongo, para reconocer despues lo que escribio este lote
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Assignment.class);
+        for (GradeResultDTO result : valid) {
+            //sin max_score (anteriores al campo) la nota ya se valido contra la tarea
+            Query query = submittable(result.getAssignmentId()).addCriteria(new Criteria().orOperator(
+                    Criteria.where("maxScore").gte(result.getScore()),
+                    Criteria.where("maxScore").is(null)));
+            bulkOps.updateOne(query, submission(result.getScore(), now));
+            result.setStatus(GradeStatus.GRADED);
+        }
+        int matched;
+        try {
+            matched = bulkOps.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            //el indice del error es la posicion de la operacion en el lote
+            for (BulkWriteError error : e.getErrors()) {
+                reject(valid.get(error.getIndex()), GradeStatus.FAILED, error.getMessage());
+            }
+            matched = e.getResult().getMatchedCount();
+        }
 
-        Assignment saved = assignmentRepository.save(assignment);
-        return entityToAssignmentResponseDTO(saved);
+        List<GradeResultDTO> written = valid.stream().filter(r -> r.getStatus() == GradeStatus.GRADED).toList();
+        if (matched < written.size()) markConflicts(written, now);
+    }
+
+    //el resultado del lote solo da el total: se leen las que quedaron con la fecha de este lote
+    private void markConflicts(List<GradeResultDTO> written, LocalDateTime submittedAt) {
+        Query query = Query.query(Criteria.where("id").in(written.stream().map(GradeResultDTO::getAssignmentId).toList())
+                .and("submittedAt").is(submittedAt));
+        query.fields().include("id");
+        Set<String> graded = mongoTemplate.find(query, Assignment.class).stream()
+                .map(Assignment::getId)
+                .collect(Collectors.toSet());
+        for (GradeResultDTO result : written) {
+            if (!graded.contains(result.getAssignmentId())) {
+                reject(result, GradeStatus.CONFLICT, "La asignacion ya fue calificada o cancelada, o la nota supera su limite");
+            }
+        }
+    }
+
+    private static void reject(GradeResultDTO result, GradeStatus status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    //sin orden: si otra peticion creo alguna en paralelo el indice unico la rechaza y las demas se insertan
+    private int insertUnordered(List<Assignment> assignments) {
+        if (assignments.isEmpty()) return 0;
+        try {
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Assignment.class)
+                    .insert(assignments)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) throw e;
+            return e.getResult().getInsertedCount();
+        }
     }
-}
\ No newline at end of file
+}
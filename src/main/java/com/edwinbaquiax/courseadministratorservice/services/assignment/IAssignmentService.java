@@ -1,7 +1,13 @@
 package com.edwinbaquiax.courseadministratorservice.services.assignment;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkAssignmentResultDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeItemDTO;
+import java.util.List;
 import org.springframework.data.domain.Page;
 
 public interface IAssignmentService {
@@ -9,6 +15,9 @@ public interface IAssignmentService {
     AssignmentResponseDTO createAssignment(AssignmentRequestDTO request);
 
 
+    BulkAssignmentResultDTO assignToEnrolledStudents(String taskId);
+
+
     AssignmentResponseDTO updateAssignment(String assignmentId, AssignmentRequestDTO request);
 
 
@@ -24,5 +33,17 @@ public interface IAssignmentService {
     Page<AssignmentResponseDTO> findAssignmentsByTask(String taskId, int page, int size);
 
 
+    SlicePageDTO<AssignmentResponseDTO> findAssignmentsByStudentSlice(Long userId, int page, int size, boolean approxTotal);
+
+
+    SlicePageDTO<AssignmentResponseDTO> findAssignmentsByTaskSlice(String taskId, int page, int size, boolean approxTotal);
+
+
+    CursorPageDTO<AssignmentResponseDTO> findAssignmentsByTaskCursor(String taskId, String cursor, int size);
+
+
     AssignmentResponseDTO submitAssignment(String assignmentId, Double score);
+
+
+    BulkGradeReportDTO gradeAssignments(List<GradeItemDTO> grades);
 }
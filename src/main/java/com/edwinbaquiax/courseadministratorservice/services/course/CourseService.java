@@ -1,20 +1,42 @@
 package com.edwinbaquiax.courseadministratorservice.services.course;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AfterCommit;
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleAlreadyExistException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleBulkResultDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.CourseProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
-
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import com.edwinbaquiax.courseadministratorservice.search.CourseSearchIndex;
+import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.enrollment.SeatAllocator;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.CursorCodec;
+
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,9 +46,18 @@ import org.springframework.transaction.annotation.Transactional;
 
 import static com.edwinbaquiax.courseadministratorservice.models.mappers.CourseProfile.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CourseService implements ICourseService {
@@ -40,6 +71,29 @@ public class CourseService implements ICourseService {
 
     @Autowired
     private IModuleRepository moduleRepository;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private CourseCatalogCache catalogCache;
+    @Autowired
+    private CourseSearchIndex searchIndex;
+    @Autowired
+    private CleanupQueue cleanupQueue;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private SeatAllocator seatAllocator;
+    @Autowired
+    private ApproximateCounts approximateCounts;
+    @Autowired
+    private CurrentUser currentUser;
+    @Autowired
+    private IWaitlistRepository waitlistRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final ObjectWriter NDJSON_WRITER = new ObjectMapper().writer().withRootValueSeparator("\n");
 
 
 
@@ -50,38 +104,100 @@ public class CourseService implements ICourseService {
                 .findAll()
                 .stream()
                 .map(CourseProfile::courseEntityToCourseResponseDTO)
+                .map(this::withCounters)
                 .collect(Collectors.toList());
     }
+    /**
+     * Escribe el catalogo como NDJSON (un curso por linea) mientras llegan las filas,
+     * sin cargar la lista completa: cada curso se separa del contexto de persistencia
+     * al escribirse, asi la memoria no depende del tamaño del catalogo.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCatalog(OutputStream out) throws IOException {
+        try (Stream<Course> courses = courseRepository.streamAllWithTeacher();
+             SequenceWriter writer = NDJSON_WRITER.writeValues(out)) {
+            Iterator<Course> iterator = courses.iterator();
+            while (iterator.hasNext()) {
+                Course course = iterator.next();
+                writer.write(withCounters(courseEntityToCatalogRowDTO(course)));
+                entityManager.detach(course);
+            }
+            writer.flush();
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CourseResponseDTO> findAllCourseByPages(int page, int size) {
         Pageable pageable = PageRequest.of(page,size, Sort.by("title").ascending());
 
-        return courseRepository
-                .findAll(pageable)
-                .map(CourseProfile::courseEntityToCourseResponseDTO);
+        //proyeccion: sin cargar entidades ni el docente por separado
+        return courseRepository.findAllCourseDTOs(pageable).map(this::withCounters);
 
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SlicePageDTO<CourseResponseDTO> findAllCourseSlice(int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
+
+        return SlicePages.of(courseRepository.sliceCourseDTOs(pageable), this::withCounters,
+                approximateCounts.total(approxTotal, "courses", courseRepository::count));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CourseResponseDTO> findAllCourseByCursor(String cursor, int size) {
+        int limit = CursorCodec.clampSize(size);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+
+        List<CourseResponseDTO> rows = after == null
+                ? courseRepository.findCourseDTOsFirstPage(Limit.of(limit + 1))
+                : courseRepository.findCourseDTOsAfter(after.key(), after.idAsLong(), Limit.of(limit + 1));
+
+        return CursorCodec.toPage(rows, limit, this::withCounters,
+                c -> CursorCodec.encode(c.getId(), c.getTitle()));
+    }
+
+    //el indice en memoria solo da los ids; el curso se lee de la cache del catalogo para no servir copias viejas
+    @Override
+    @Transactional(readOnly = true)
+    public List<CourseResponseDTO> searchCourses(String query, int limit) {
+        return searchIndex.search(query, CursorCodec.clampSize(limit)).stream()
+                .map(id -> catalogCache.course(id, this::loadCourse))
+                .filter(course -> course != null && course.isActive())
+                .map(this::withCounters)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CourseResponseDTO> findCoursesByStudent(Long userId,int page, int size) {
 
-        User student = userRepository.findById(userId).orElseThrow(UserNotFoundException::new);
+        if(!userRepository.existsById(userId)) throw new UserNotFoundException();
         Pageable pageable = PageRequest.of(page,size, Sort.by("title").ascending());
 
-        Page<Course> coursesAvailable = courseRepository.findCoursesByStudent(student.getId(),pageable);
+        return courseRepository.findCourseDTOsByStudent(userId,pageable).map(this::withCounters);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SlicePageDTO<CourseResponseDTO> findCoursesByStudentSlice(Long userId, int page, int size, boolean approxTotal) {
+        if(!userRepository.existsById(userId)) throw new UserNotFoundException();
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
 
-        return coursesAvailable.map(CourseProfile::courseEntityToCourseResponseDTO);
+        return SlicePages.of(courseRepository.sliceCourseDTOsByStudent(userId, pageable), this::withCounters,
+                approximateCounts.total(approxTotal, "courses:student:" + userId,
+                        () -> courseRepository.countCoursesByStudent(userId)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public CourseResponseDTO findById(Long courseId) {
-        Course existCourse = courseRepository.findById(courseId).orElseThrow(CourseNotFoundException::new);
-
-        return  courseEntityToCourseResponseDTO(existCourse);
+        CourseResponseDTO course = catalogCache.course(courseId, this::loadCourse);
+        if (course == null) throw new CourseNotFoundException();
+        return withCounters(course);
     }
 
     @Override
@@ -93,14 +209,30 @@ public class CourseService implements ICourseService {
         courseRequest.setTeacher(teacher);
 
         Course newCourse = courseRepository.save(courseRequest);
+        CourseResponseDTO created = courseEntityToCourseResponseDTO(newCourse);
+        AfterCommit.run(() -> searchIndex.index(created));
+        counters.courseAdded();
 
-        return courseEntityToCourseResponseDTO(newCourse);
+        return created;
     }
 
+    //el curso queda inactivo ya; inscripciones, modulos, tareas y asignaciones se eliminan en segundo plano
     @Override
+    @Transactional
     public CourseResponseDTO deleteCourse(Long userId, Long courseId) {
         Course course = courseRepository.findByIdAndTeacher_Id(courseId,userId).orElseThrow(CourseNotFoundException::new);
-        courseRepository.delete(course);
+        if (course.isActive()) {
+            counters.courseRemoved(courseId, moduleRepository.findIdsByCourseId(courseId, Limit.unlimited()));
+        }
+        course.setActive(false);
+        courseRepository.save(course);
+        cleanupQueue.enqueue(CleanupTarget.COURSE, courseId);
+        //nadie de la lista de espera debe entrar a un curso eliminado
+        waitlistRepository.deleteByCourseId(courseId);
+        AfterCommit.run(() -> seatAllocator.forget(courseId));
+        assignabilityCache.invalidateCourse(courseId);
+        catalogCache.invalidateCourse(courseId);
+        AfterCommit.run(() -> searchIndex.remove(courseId));
         return courseEntityToCourseResponseDTO(course);
     }
 
@@ -113,10 +245,14 @@ public class CourseService implements ICourseService {
         }
         existCourse.setTitle(request.getTitle());
         existCourse.setDescription(request.getDescription());
+        existCourse.setCapacity(request.getCapacity());
         Course updated = courseRepository.save(existCourse);
+        catalogCache.invalidateCourse(courseId);
+        AfterCommit.run(() -> seatAllocator.capacityChanged(courseId));
+        CourseResponseDTO body = courseEntityToCourseResponseDTO(updated);
+        AfterCommit.run(() -> searchIndex.index(body));
 
-
-        return courseEntityToCourseResponseDTO(updated);
+        return body;
     }
 
     @Transactional
@@ -138,20 +274,124 @@ public class CourseService implements ICourseService {
 
 
         moduleRepository.save(existModule);
+        assignabilityCache.invalidateModule(moduleId);
+        catalogCache.invalidateModule(moduleId);
+        catalogCache.invalidateModulesOfCourse(courseId);
+        if (existModule.isActive()) counters.modulesMoved(null, courseId, 1);
 
+        return CourseProfile.courseEntityToCourseResponseDTO(existCourse );
+    }
 
+    /**
+     * Asigna varios modulos al curso con un solo UPDATE, sin cargar la coleccion de modulos.
+     * Los modulos que ya estan en el curso cuentan como aplicados; los que no existen o
+     * pertenecen a otro curso se devuelven como conflicto.
+     */
+    @Transactional
+    @Override
+    public ModuleBulkResultDTO attachModules(Long courseId, Long userId, List<Long> moduleIds) {
+        ICourseRepository.CourseOwner owner = checkCourseOwner(courseId, userId);
+        //un curso desactivado espera su limpieza, los modulos asignados se eliminarian con el
+        if(!Boolean.TRUE.equals(owner.getActive())){
+            throw new CourseNotFoundException("El curso no existe o no esta activo");
+        }
+        Set<Long> ids = new LinkedHashSet<>(moduleIds);
 
-        return CourseProfile.courseEntityToCourseResponseDTO(existCourse );
+        int updated = moduleRepository.attachToCourse(courseRepository.getReferenceById(courseId), ids);
+        counters.modulesMoved(null, courseId, updated);
+
+        return bulkResult(courseId, ids, updated, courseId, "El modulo ya pertenece a otro curso");
+    }
+
+    /**
+     * Retira varios modulos del curso con un solo UPDATE. Los que ya no tienen curso cuentan
+     * como aplicados; los que no existen o pertenecen a otro curso se devuelven como conflicto.
+     */
+    @Transactional
+    @Override
+    public ModuleBulkResultDTO detachModules(Long courseId, Long userId, List<Long> moduleIds) {
+        checkCourseOwner(courseId, userId);
+        Set<Long> ids = new LinkedHashSet<>(moduleIds);
+
+        int updated = moduleRepository.detachFromCourse(courseId, ids);
+        counters.modulesMoved(courseId, null, updated);
+
+        return bulkResult(courseId, ids, updated, null, "El modulo no pertenece al curso");
+    }
+
+    //el creador del curso o un administrador
+    private ICourseRepository.CourseOwner checkCourseOwner(Long courseId, Long userId) {
+        ICourseRepository.CourseOwner owner = courseRepository.findOwnerById(courseId).orElseThrow(CourseNotFoundException::new);
+        if(!Objects.equals(owner.getTeacherId(), userId) && !currentUser.isAdmin()){
+            throw new CourseNotFoundException("Solo el creador del curso puede modificarlo");
+        }
+        return owner;
+    }
+
+    //solo si el UPDATE no alcanzo a todos los modulos se consulta su estado para saber cuales fallaron
+    private ModuleBulkResultDTO bulkResult(Long courseId, Set<Long> ids, int updated, Long expectedCourseId, String conflictReason) {
+        List<Long> applied = new ArrayList<>(ids.size());
+        List<ModuleBulkResultDTO.Conflict> conflicts = new ArrayList<>();
+
+        if (updated == ids.size()) {
+            applied.addAll(ids);
+        } else {
+            Map<Long, IModuleRepository.ModuleCourse> current = moduleRepository.findCourseIdsByIdIn(ids)
+                    .stream()
+                    .collect(Collectors.toMap(IModuleRepository.ModuleCourse::getId, Function.identity()));
+            for (Long id : ids) {
+                IModuleRepository.ModuleCourse module = current.get(id);
+                if (module == null) {
+                    conflicts.add(new ModuleBulkResultDTO.Conflict(id, "El modulo no existe"));
+                } else if (Objects.equals(module.getCourseId(), expectedCourseId)) {
+                    applied.add(id);
+                } else {
+                    conflicts.add(new ModuleBulkResultDTO.Conflict(id, conflictReason));
+                }
+            }
+        }
+
+        applied.forEach(id -> {
+            assignabilityCache.invalidateModule(id);
+            catalogCache.invalidateModule(id);
+        });
+        if (!applied.isEmpty()) catalogCache.invalidateModulesOfCourse(courseId);
+
+        return ModuleBulkResultDTO.builder()
+                .courseId(courseId)
+                .applied(applied)
+                .conflicts(conflicts)
+                .build();
+    }
+
+    //null si no existe, la cache no guarda los nulos
+    private CourseResponseDTO loadCourse(Long courseId) {
+        return courseRepository.findById(courseId).map(CourseProfile::courseEntityToCourseResponseDTO).orElse(null);
+    }
+
+    //copia con los contadores actuales: el DTO puede venir compartido de la cache o del indice
+    private CourseResponseDTO withCounters(CourseResponseDTO course) {
+        return course.toBuilder()
+                .enrolledStudents(counters.enrolledStudents(course.getId()))
+                .moduleCount(counters.moduleCount(course.getId()))
+                .build();
     }
 
     @Override
     public Page<CourseResponseDTO> findCoursesByTeacher(Long userId, int page, int size) {
-        User teacher = userRepository.findById(userId).orElseThrow(UserNotFoundException::new);
+        if(!userRepository.existsById(userId)) throw new UserNotFoundException();
         Pageable pageable = PageRequest.of(page,size, Sort.by("title").ascending());
 
-        Page<Course> coursesAvailable = courseRepository.findCoursesByTeacher_Id(teacher.getId(),pageable);
+        return courseRepository.findCourseDTOsByTeacher(userId,pageable).map(this::withCounters);
+    }
 
+    @Override
+    public SlicePageDTO<CourseResponseDTO> findCoursesByTeacherSlice(Long userId, int page, int size, boolean approxTotal) {
+        if(!userRepository.existsById(userId)) throw new UserNotFoundException();
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title").ascending());
 
-        return coursesAvailable.map(CourseProfile::courseEntityToCourseResponseDTO);
+        return SlicePages.of(courseRepository.sliceCourseDTOsByTeacher(userId, pageable), this::withCounters,
+                approximateCounts.total(approxTotal, "courses:teacher:" + userId,
+                        () -> courseRepository.countByTeacher_Id(userId)));
     }
 }
@@ -1,17 +1,27 @@
 package com.edwinbaquiax.courseadministratorservice.services.course;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleBulkResultDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ICourseService {
     List<CourseResponseDTO> findAll();
+    void exportCatalog(OutputStream out) throws IOException;
     Page<CourseResponseDTO> findAllCourseByPages(int page, int size);
+    SlicePageDTO<CourseResponseDTO> findAllCourseSlice(int page, int size, boolean approxTotal);
+    CursorPageDTO<CourseResponseDTO> findAllCourseByCursor(String cursor, int size);
+    List<CourseResponseDTO> searchCourses(String query, int limit);
     Page<CourseResponseDTO> findCoursesByStudent(Long userId,int page, int size);
+    SlicePageDTO<CourseResponseDTO> findCoursesByStudentSlice(Long userId, int page, int size, boolean approxTotal);
     CourseResponseDTO findById(Long courseId);
     CourseResponseDTO createCourse(Long userId, CourseRequestDTO request);
     CourseResponseDTO deleteCourse(Long userId, Long courseId);
@@ -20,6 +30,9 @@ public interface ICourseService {
 
 
     CourseResponseDTO addModuleToCourse(Long courseId, Long moduleId, Long userId);
+    ModuleBulkResultDTO attachModules(Long courseId, Long userId, List<Long> moduleIds);
+    ModuleBulkResultDTO detachModules(Long courseId, Long userId, List<Long> moduleIds);
 
     Page<CourseResponseDTO> findCoursesByTeacher(Long userId, int page, int size);
+    SlicePageDTO<CourseResponseDTO> findCoursesByTeacherSlice(Long userId, int page, int size, boolean approxTotal);
 }
@@ -0,0 +1,88 @@
+package com.edwinbaquiax.courseadministratorservice.services.coursetree;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseTreeDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleTreeDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.mappers.TaskProfile;
+import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.services.course.ICourseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Arma el arbol curso -> modulos -> tareas en una sola peticion.
+ *
+ * <p>El curso se consulta en paralelo con la cadena modulos -> tareas, asi la latencia es la
+ * de la rama mas lenta: una consulta a Postgres para los modulos y una sola consulta
+ * {@code $in} a Mongo para las tareas de todos los modulos, sin importar cuantos sean.</p>
+ */
+@Service
+public class CourseTreeService implements ICourseTreeService {
+
+    private static final Sort TASK_ORDER = Sort.by("createdAt").ascending();
+
+    @Autowired
+    private ICourseService courseService;
+    @Autowired
+    private IModuleRepository moduleRepository;
+    @Autowired
+    private ITaskRepository taskRepository;
+    @Autowired
+    @Qualifier("queryExecutor")
+    private ExecutorService queryExecutor;
+
+    @Override
+    public CourseTreeDTO getCourseTree(Long courseId) {
+        //el curso pasa por la cache del catalogo y lanza CourseNotFoundException si no existe
+        CompletableFuture<CourseResponseDTO> course =
+                CompletableFuture.supplyAsync(() -> courseService.findById(courseId), queryExecutor);
+
+        CompletableFuture<List<ModuleTreeDTO>> modules =
+                CompletableFuture.supplyAsync(() -> moduleRepository.findActiveModuleDTOsByCourse(courseId), queryExecutor)
+                        .thenApply(this::withTasks);
+
+        try {
+            return CourseTreeDTO.builder()
+                    .course(course.join())
+                    .modules(modules.join())
+                    .build();
+        } catch (CompletionException e) {
+            //se propaga la excepcion original para que el interceptor responda el codigo correcto
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        } finally {
+            course.cancel(false);
+            modules.cancel(false);
+        }
+    }
+
+    private List<ModuleTreeDTO> withTasks(List<ModuleResponseDTO> modules) {
+        if (modules.isEmpty()) return List.of();
+
+        List<Long> moduleIds = modules.stream().map(ModuleResponseDTO::getId).toList();
+        Map<Long, List<TaskResponseDTO>> tasksByModule = taskRepository
+                .findAllByModuleIdInAndActiveTrue(moduleIds, TASK_ORDER)
+                .stream()
+                .map(TaskProfile::taskEntityToResponseDTO)
+                .collect(Collectors.groupingBy(TaskResponseDTO::getModuleId));
+
+        return modules.stream()
+                .map(module -> ModuleTreeDTO.builder()
+                        .module(module)
+                        .tasks(tasksByModule.getOrDefault(module.getId(), List.of()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.edwinbaquiax.courseadministratorservice.services.coursetree;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseTreeDTO;
+
+public interface ICourseTreeService {
+    CourseTreeDTO getCourseTree(Long courseId);
+}
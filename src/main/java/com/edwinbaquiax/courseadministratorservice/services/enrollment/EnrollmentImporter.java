@@ -0,0 +1,154 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportRowDTO;
+import com.edwinbaquiax.courseadministratorservice.models.enums.EnrollmentImportStatus;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importa un lote de inscripciones en una sola transaccion.
+ *
+ * <p>Por lote se hacen tres consultas (usuarios habilitados, cursos activos e inscripciones
+ * activas de esos pares) sin importar cuantas filas traiga, y las filas validas se insertan
+ * con un solo batch JDBC en lugar de un {@code save} por entidad; en PostgreSQL el batch usa
+ * {@code ON CONFLICT DO NOTHING} y una fila que choca con una inscripcion concurrente se
+ * reporta como duplicada en lugar de abortar el lote. Cada fila valida reserva un lugar
+ * del curso; si esta lleno el usuario pasa a la lista de espera.</p>
+ */
+@Component
+public class EnrollmentImporter {
+
+    static final String INSERT_SQL =
+            "INSERT INTO enrollments (user_id, course_id, active, created_at) VALUES (?, ?, true, ?)";
+
+    //con el indice unico parcial: una fila que choca con una inscripcion activa no se inserta
+    static final String INSERT_IGNORING_DUPLICATES_SQL =
+            INSERT_SQL + " ON CONFLICT (user_id, course_id) WHERE active DO NOTHING";
+
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private SeatAllocator seatAllocator;
+    @Autowired
+    private Waitlist waitlist;
+    @Autowired
+    private EnrollmentWriter enrollmentWriter;
+
+    public record Row(int line, Long userId, Long courseId) {
+    }
+
+    private record Pair(Long userId, Long courseId) {
+    }
+
+    @Transactional
+    public List<EnrollmentImportRowDTO> importChunk(List<Row> rows) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (Row row : rows) {
+            userIds.add(row.userId());
+            courseIds.add(row.courseId());
+        }
+
+        Set<Long> users = new HashSet<>(userRepository.findEnabledIds(userIds));
+        Set<Long> courses = new HashSet<>(courseRepository.findActiveIds(courseIds));
+
+        //la consulta trae el producto usuarios x cursos, se filtra por par en memoria
+        Set<Pair> enrolled = new HashSet<>();
+        if (!users.isEmpty() && !courses.isEmpty()) {
+            enrollmentRepository.findActivePairs(users, courses)
+                    .forEach(p -> enrolled.add(new Pair(p.getUserId(), p.getCourseId())));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        List<EnrollmentImportRowDTO> pending = new ArrayList<>(rows.size());
+        List<EnrollmentImportRowDTO> results = new ArrayList<>(rows.size());
+
+        for (Row row : rows) {
+            EnrollmentImportStatus status;
+            String message = null;
+            if (!users.contains(row.userId())) {
+                status = EnrollmentImportStatus.USER_NOT_FOUND;
+                message = "El usuario no existe o no esta habilitado";
+            } else if (!courses.contains(row.courseId())) {
+                status = EnrollmentImportStatus.COURSE_NOT_FOUND;
+                message = "El curso no existe o no esta activo";
+            } else if (!enrolled.add(new Pair(row.userId(), row.courseId()))) {
+                //ya inscrito antes o repetido dentro del mismo archivo
+                status = EnrollmentImportStatus.DUPLICATE;
+                message = "El usuario ya esta inscrito en el curso";
+            } else if (!seatAllocator.tryReserve(row.courseId())) {
+                //igual que una inscripcion individual: sin cupo pasa a la lista de espera
+                status = EnrollmentImportStatus.WAITLISTED;
+                message = "Curso lleno, posicion " + waitlist.join(row.userId(), row.courseId()).getWaitlistPosition()
+                        + " en la lista de espera";
+            } else {
+                status = EnrollmentImportStatus.CREATED;
+                batch.add(new Object[]{row.userId(), row.courseId(), now});
+            }
+            EnrollmentImportRowDTO result = EnrollmentImportRowDTO.builder()
+                    .line(row.line())
+                    .userId(row.userId())
+                    .courseId(row.courseId())
+                    .status(status)
+                    .message(message)
+                    .build();
+            if (status == EnrollmentImportStatus.CREATED) pending.add(result);
+            results.add(result);
+        }
+
+        if (!batch.isEmpty()) {
+            insert(batch, pending);
+        }
+        return results;
+    }
+
+    //una fila que no se inserto choco con una inscripcion activa confirmada despues de la consulta
+    private void insert(List<Object[]> batch, List<EnrollmentImportRowDTO> pending) {
+        int[] inserted = jdbcTemplate.batchUpdate(
+                enrollmentWriter.supportsOnConflict() ? INSERT_IGNORING_DUPLICATES_SQL : INSERT_SQL, batch);
+
+        Map<Long, Integer> createdByCourse = new HashMap<>();
+        for (int i = 0; i < pending.size(); i++) {
+            EnrollmentImportRowDTO row = pending.get(i);
+            if (inserted[i] == 0) {
+                row.setStatus(EnrollmentImportStatus.DUPLICATE);
+                row.setMessage("El usuario ya esta inscrito en el curso");
+                seatAllocator.releaseAfterCommit(row.getCourseId());
+            } else {
+                //SUCCESS_NO_INFO cuenta como insertada
+                createdByCourse.merge(row.getCourseId(), 1, Integer::sum);
+            }
+        }
+        createdByCourse.forEach((courseId, count) -> {
+            assignabilityCache.invalidateCourse(courseId);
+            counters.enrollmentsAdded(courseId, count);
+        });
+    }
+}
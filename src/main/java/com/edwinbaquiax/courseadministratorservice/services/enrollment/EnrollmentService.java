@@ -1,26 +1,52 @@
 package com.edwinbaquiax.courseadministratorservice.services.enrollment;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.EnrollmentExistException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.EnrollmentNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportRowDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Enrollment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.EnrollmentImportStatus;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.EnrollmentProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.CursorCodec;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
 import static com.edwinbaquiax.courseadministratorservice.models.mappers.EnrollmentProfile.*;
 
 @Service
@@ -31,38 +57,69 @@ public class EnrollmentService implements IEnrollmentService{
     private IUserRepository userRepository;
     @Autowired
     private ICourseRepository courseRepository;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private EnrollmentImporter importer;
+    @Autowired
+    private EnrollmentWriter enrollmentWriter;
+    @Autowired
+    private SeatAllocator seatAllocator;
+    @Autowired
+    private Waitlist waitlist;
+    @Autowired
+    private ApproximateCounts approximateCounts;
 
+    @Value("${enrollments.import.chunk-size:1000}")
+    private int importChunkSize;
 
-    @Override
-    @Transactional
-    public EnrollmentResponseDTO enrollStudent(EnrollmentRequestDTO request) {
-       enrollmentRepository
-                .findByUser_IdAndCourse_IdAndActiveTrueAndCourse_ActiveTrue(request.getUserId(),request.getCourseId())
-                .ifPresent(enrollment -> {throw  new EnrollmentExistException();});
-
-
+    @Value("${enrollments.import.max-errors:100}")
+    private int importMaxErrors;
 
-        User student = userRepository.findById(request.getUserId())
-                .orElseThrow(UserNotFoundException::new);
-        Course course = courseRepository.findById(request.getCourseId())
-                .orElseThrow(CourseNotFoundException::new);
+    private static final ObjectMapper NDJSON_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-        Enrollment newEnrollment = enrollmentRequestDtoTOEnrollmentEntity(request);
 
-        newEnrollment.setCourse(course);
-        newEnrollment.setUser(student);
+    @Override
+    @Transactional
+    public EnrollmentResponseDTO enrollStudent(EnrollmentRequestDTO request) {
+        //sin cupo la inscripcion pasa a la lista de espera
+        if (!seatAllocator.tryReserve(request.getCourseId())) {
+            return waitlist.join(request.getUserId(), request.getCourseId());
+        }
 
-        newEnrollment =  enrollmentRepository.save(newEnrollment);
+        //si no se inserta, la excepcion revierte la transaccion y el lugar se devuelve
+        EnrollmentResponseDTO created = enrollmentWriter.insertIfAbsent(request.getUserId(), request.getCourseId());
+        if (created == null) {
+            //no se inserto nada: solo en este caso se consulta el motivo
+            if (!userRepository.existsByIdAndEnabledTrue(request.getUserId())) throw new UserNotFoundException();
+            if (!courseRepository.existsByIdAndActiveTrue(request.getCourseId())) throw new CourseNotFoundException();
+            throw new EnrollmentExistException();
+        }
 
-        return enrollmentEntityToEnrollmentResponseDTO(newEnrollment);
+        assignabilityCache.invalidateCourse(created.getCourseId());
+        counters.enrollmentAdded(created.getCourseId());
+        return created;
     }
 
     @Override
     @Transactional
     public void cancelEnrollment(Long enrollmentId) {
        Enrollment enrollmentToCancel = enrollmentRepository.findById(enrollmentId).orElseThrow(EnrollmentNotFoundException::new);
+       boolean wasActive = enrollmentToCancel.isActive();
        enrollmentToCancel.setActive(false);
        enrollmentRepository.save(enrollmentToCancel);
+       if (!wasActive) return;
+
+       Long courseId = enrollmentToCancel.getCourse().getId();
+       counters.enrollmentRemoved(courseId);
+       assignabilityCache.invalidateCourse(courseId);
+       //el lugar pasa directo al primero de la lista de espera, si no hay nadie se libera
+       if (waitlist.promoteNext(courseId) == null) {
+           seatAllocator.releaseAfterCommit(courseId);
+       }
     }
 
     @Override
@@ -84,6 +141,41 @@ public class EnrollmentService implements IEnrollmentService{
 
         return enrollments.map(EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO);
     }
+    @Override
+    @Transactional(readOnly = true)
+    public SlicePageDTO<EnrollmentResponseDTO> getEnrollmentsByStudentSlice(Long userId, int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
+
+        return SlicePages.of(enrollmentRepository.findSliceByUser_Id(userId, pageable),
+                EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO,
+                approximateCounts.total(approxTotal, "enrollments:student:" + userId,
+                        () -> enrollmentRepository.countByUser_Id(userId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SlicePageDTO<EnrollmentResponseDTO> getEnrollmentsByCourseSlice(Long courseId, int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
+
+        return SlicePages.of(enrollmentRepository.findSliceByCourse_Id(courseId, pageable),
+                EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO,
+                approximateCounts.total(approxTotal, "enrollments:course:" + courseId,
+                        () -> enrollmentRepository.countByCourse_Id(courseId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EnrollmentResponseDTO> getEnrollmentsByCourseCursor(Long courseId, String cursor, int size) {
+        int limit = CursorCodec.clampSize(size);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+
+        List<Enrollment> rows = after == null
+                ? enrollmentRepository.findFirstPageByCourse(courseId, Limit.of(limit + 1))
+                : enrollmentRepository.findPageByCourseAfter(courseId, after.keyAsDateTime(), after.idAsLong(), Limit.of(limit + 1));
+
+        return CursorCodec.toPage(rows, limit, EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO,
+                e -> CursorCodec.encode(e.getId(), e.getCreatedAt()));
+    }
     @Transactional(readOnly = true)
     @Override
     public EnrollmentResponseDTO getEnrollmentById(Long enrollmentId) {
@@ -97,22 +189,36 @@ public class EnrollmentService implements IEnrollmentService{
     public EnrollmentResponseDTO updateEnrollment(Long enrollmentId, EnrollmentRequestDTO request) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(EnrollmentNotFoundException::new);
+        Long previousCourseId = enrollment.getCourse().getId();
+        boolean moving = !previousCourseId.equals(request.getCourseId());
 
-        if(!enrollment.getUser().getId().equals(request.getUserId())) {
-            User user = userRepository.findById(request.getUserId())
-                    .orElseThrow(UserNotFoundException::new);
-            enrollment.setUser(user);
-        }
+        User user = enrollment.getUser().getId().equals(request.getUserId())
+                ? enrollment.getUser()
+                : userRepository.findById(request.getUserId()).orElseThrow(UserNotFoundException::new);
 
-        if(!enrollment.getCourse().getId().equals(request.getCourseId())) {
+        if (moving) {
             Course course = courseRepository.findById(request.getCourseId())
                     .orElseThrow(CourseNotFoundException::new);
+            //una inscripcion activa ocupa un lugar en el curso nuevo; si esta lleno el estudiante
+            //pasa a su lista de espera y la inscripcion se queda como estaba
+            if (enrollment.isActive() && !seatAllocator.tryReserve(course.getId())) {
+                return waitlist.join(user.getId(), course.getId());
+            }
             enrollment.setCourse(course);
         }
-
-
+        enrollment.setUser(user);
 
         Enrollment updated = enrollmentRepository.save(enrollment);
+        //cambia el estudiante o el curso: ambos cursos quedan afectados
+        assignabilityCache.invalidateCourse(previousCourseId);
+        assignabilityCache.invalidateCourse(updated.getCourse().getId());
+        if (updated.isActive() && moving) {
+            counters.enrollmentMoved(previousCourseId, updated.getCourse().getId());
+            //el lugar que deja en el curso anterior pasa a su lista de espera o se libera
+            if (waitlist.promoteNext(previousCourseId) == null) {
+                seatAllocator.releaseAfterCommit(previousCourseId);
+            }
+        }
         return enrollmentEntityToEnrollmentResponseDTO(updated);
     }
 
@@ -123,4 +229,158 @@ public class EnrollmentService implements IEnrollmentService{
         Page<Enrollment> enrollments = enrollmentRepository.findAll(pageable);
         return enrollments.map(EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public SlicePageDTO<EnrollmentResponseDTO> getAllEnrollmentsSlice(int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
+        return SlicePages.of(enrollmentRepository.findSliceBy(pageable),
+                EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO,
+                approximateCounts.total(approxTotal, "enrollments", enrollmentRepository::count));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<EnrollmentResponseDTO> getAllEnrollmentsCursor(String cursor, int size) {
+        int limit = CursorCodec.clampSize(size);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+
+        List<Enrollment> rows = after == null
+                ? enrollmentRepository.findFirstPage(Limit.of(limit + 1))
+                : enrollmentRepository.findPageAfter(after.keyAsDateTime(), after.idAsLong(), Limit.of(limit + 1));
+
+        return CursorCodec.toPage(rows, limit, EnrollmentProfile::enrollmentEntityToEnrollmentResponseDTO,
+                e -> CursorCodec.encode(e.getId(), e.getCreatedAt()));
+    }
+
+    /**
+     * Lee el archivo linea por linea y lo importa en lotes de {@code importChunkSize} filas,
+     * cada lote en su propia transaccion: un error de base de datos solo revierte ese lote y
+     * el archivo nunca se carga completo en memoria. Del resultado solo se guardan los totales
+     * y los primeros {@code importMaxErrors} errores, no una fila por linea.
+     */
+    @Override
+    public EnrollmentImportReportDTO importEnrollments(InputStream input, MediaType contentType) {
+        boolean ndjson = contentType != null && "x-ndjson".equalsIgnoreCase(contentType.getSubtype());
+        int chunkSize = Math.max(1, importChunkSize);
+        ImportTally tally = new ImportTally(Math.max(0, importMaxErrors));
+        List<EnrollmentImporter.Row> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty()) continue;
+                //encabezado opcional del CSV
+                if (!ndjson && lineNumber == 1 && !Character.isDigit(line.charAt(0))) continue;
+
+                EnrollmentImporter.Row row = ndjson ? parseNdjson(lineNumber, line) : parseCsv(lineNumber, line);
+                if (row == null) {
+                    tally.add(EnrollmentImportRowDTO.builder()
+                            .line(lineNumber)
+                            .status(EnrollmentImportStatus.INVALID)
+                            .message("Se esperaba userId y courseId numericos")
+                            .build());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    tally.addAll(importer.importChunk(chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            tally.addAll(importer.importChunk(chunk));
+        }
+        return tally.report();
+    }
+
+    private static EnrollmentImporter.Row parseCsv(int lineNumber, String line) {
+        String[] values = line.split(",");
+        if (values.length != 2) return null;
+        Long userId = parseId(values[0]);
+        Long courseId = parseId(values[1]);
+        return userId == null || courseId == null ? null : new EnrollmentImporter.Row(lineNumber, userId, courseId);
+    }
+
+    private static EnrollmentImporter.Row parseNdjson(int lineNumber, String line) {
+        try {
+            EnrollmentRequestDTO request = NDJSON_MAPPER.readValue(line, EnrollmentRequestDTO.class);
+            if (request.getUserId() == null || request.getCourseId() == null) return null;
+            return new EnrollmentImporter.Row(lineNumber, request.getUserId(), request.getCourseId());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value.strip().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Totales de la importacion y los primeros errores por numero de linea. Las filas invalidas
+     * se cuentan al leerlas y las de un lote cuando el lote termina (con el estado final que le
+     * deja el insert), por eso los errores no llegan en orden y se guardan en un heap acotado.
+     */
+    private static final class ImportTally {
+        private final int maxErrors;
+        //el de mayor linea arriba, para descartarlo cuando llega uno anterior
+        private final PriorityQueue<EnrollmentImportRowDTO> errors;
+        private int total, created, duplicates, waitlisted, errorCount;
+
+        ImportTally(int maxErrors) {
+            this.maxErrors = maxErrors;
+            this.errors = new PriorityQueue<>(Comparator.comparingInt(EnrollmentImportRowDTO::getLine).reversed());
+        }
+
+        void addAll(List<EnrollmentImportRowDTO> rows) {
+            rows.forEach(this::add);
+        }
+
+        void add(EnrollmentImportRowDTO row) {
+            total++;
+            switch (row.getStatus()) {
+                case CREATED -> created++;
+                case WAITLISTED -> waitlisted++;
+                default -> {
+                    if (row.getStatus() == EnrollmentImportStatus.DUPLICATE) duplicates++;
+                    errorCount++;
+                    keepError(row);
+                }
+            }
+        }
+
+        private void keepError(EnrollmentImportRowDTO row) {
+            if (maxErrors == 0) return;
+            if (errors.size() < maxErrors) {
+                errors.add(row);
+            } else if (row.getLine() < errors.peek().getLine()) {
+                errors.poll();
+                errors.add(row);
+            }
+        }
+
+        EnrollmentImportReportDTO report() {
+            List<EnrollmentImportRowDTO> firstErrors = new ArrayList<>(errors);
+            firstErrors.sort(Comparator.comparingInt(EnrollmentImportRowDTO::getLine));
+            return EnrollmentImportReportDTO.builder()
+                    .total(total)
+                    .created(created)
+                    .duplicates(duplicates)
+                    .waitlisted(waitlisted)
+                    .rejected(total - created - duplicates - waitlisted)
+                    .errors(firstErrors)
+                    .errorsTruncated(errorCount > firstErrors.size())
+                    .build();
+        }
+    }
 }
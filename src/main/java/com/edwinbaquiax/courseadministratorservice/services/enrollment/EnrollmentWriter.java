@@ -0,0 +1,140 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserta una inscripcion en una sola sentencia.
+ *
+ * <p>En PostgreSQL la unicidad de {@code (user_id, course_id)} entre inscripciones activas
+ * la garantiza un indice unico parcial, y la insercion usa {@code ON CONFLICT DO NOTHING}
+ * dentro de un CTE que devuelve los datos de la respuesta: el caso normal es un solo viaje
+ * a la base y dos clics simultaneos no pueden crear duplicados. En otras bases (H2 en las
+ * pruebas) se usa un {@code INSERT ... WHERE NOT EXISTS}.</p>
+ *
+ * <p>Si en PostgreSQL el indice no se puede crear (normalmente por duplicados previos) la
+ * aplicacion no arranca; con {@code enrollments.unique-index.fail-on-missing=false} arranca
+ * registrando el error y usa el {@code INSERT ... WHERE NOT EXISTS}, que no evita duplicados
+ * entre inserciones simultaneas.</p>
+ *
+ * <p>Un curso eliminado queda inactivo hasta que termina su limpieza y un usuario
+ * deshabilitado sigue existiendo: ninguno de los dos recibe inscripciones nuevas.</p>
+ */
+@Slf4j
+@Component
+public class EnrollmentWriter {
+
+    static final String UNIQUE_INDEX_SQL = """
+            CREATE UNIQUE INDEX IF NOT EXISTS uq_enrollments_active_user_course
+            ON enrollments (user_id, course_id) WHERE active""";
+
+    static final String UPSERT_SQL = """
+            WITH ins AS (
+                INSERT INTO enrollments (user_id, course_id, active, created_at)
+                SELECT u.id, c.id, true, ? FROM users u JOIN courses c ON c.id = ? AND c.active WHERE u.id = ? AND u.enabled
+                ON CONFLICT (user_id, course_id) WHERE active DO NOTHING
+                RETURNING id, user_id, course_id, created_at
+            )
+            SELECT ins.id, ins.user_id, u.username, ins.course_id, c.title, ins.created_at
+            FROM ins JOIN users u ON u.id = ins.user_id JOIN courses c ON c.id = ins.course_id""";
+
+    static final String INSERT_IF_ABSENT_SQL = """
+            INSERT INTO enrollments (user_id, course_id, active, created_at)
+            SELECT u.id, c.id, true, ? FROM users u JOIN courses c ON c.id = ? AND c.active WHERE u.id = ? AND u.enabled
+            AND NOT EXISTS (SELECT 1 FROM enrollments e WHERE e.user_id = u.id AND e.course_id = c.id AND e.active)""";
+
+    static final String SELECT_BY_ID_SQL = """
+            SELECT e.id, e.user_id, u.username, e.course_id, c.title, e.created_at
+            FROM enrollments e JOIN users u ON u.id = e.user_id JOIN courses c ON c.id = e.course_id
+            WHERE e.id = ?""";
+
+    private static final RowMapper<EnrollmentResponseDTO> RESPONSE_MAPPER = (rs, rowNum) ->
+            EnrollmentResponseDTO.builder()
+                    .id(rs.getLong(1))
+                    .userId(rs.getLong(2))
+                    .usernameStudent(rs.getString(3))
+                    .courseId(rs.getLong(4))
+                    .title(rs.getString(5))
+                    .active(true)
+                    .enrolledAt(rs.getTimestamp(6).toLocalDateTime())
+                    .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${enrollments.unique-index.fail-on-missing:true}")
+    private boolean failOnMissingIndex;
+
+    //solo se activa cuando el indice parcial existe, ON CONFLICT lo necesita
+    private volatile boolean upsert;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            log.info("Inscripciones sin ON CONFLICT en {}", product);
+            return;
+        }
+        try {
+            jdbcTemplate.execute(UNIQUE_INDEX_SQL);
+            upsert = true;
+        } catch (DataAccessException e) {
+            //normalmente por duplicados previos, hay que limpiarlos a mano
+            if (failOnMissingIndex) {
+                throw new IllegalStateException("No se pudo crear el indice unico de inscripciones activas", e);
+            }
+            log.error("No se pudo crear el indice unico de inscripciones activas, "
+                    + "las inscripciones simultaneas pueden duplicarse", e);
+        }
+    }
+
+    /**
+     * Indica si el indice unico parcial existe y se puede usar {@code ON CONFLICT}.
+     */
+    public boolean supportsOnConflict() {
+        return upsert;
+    }
+
+    /**
+     * Inscribe al usuario en el curso si no tiene ya una inscripcion activa.
+     *
+     * @return la inscripcion creada, o {@code null} si ya estaba inscrito, el usuario no existe
+     * o esta deshabilitado, o el curso no existe o no esta activo
+     */
+    public EnrollmentResponseDTO insertIfAbsent(Long userId, Long courseId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (upsert) {
+            List<EnrollmentResponseDTO> rows = jdbcTemplate.query(UPSERT_SQL, RESPONSE_MAPPER, now, courseId, userId);
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_IF_ABSENT_SQL, new String[]{"id"});
+            ps.setTimestamp(1, now);
+            ps.setLong(2, courseId);
+            ps.setLong(3, userId);
+            return ps;
+        }, keyHolder);
+        if (inserted == 0) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(SELECT_BY_ID_SQL, RESPONSE_MAPPER, keyHolder.getKey().longValue());
+    }
+}
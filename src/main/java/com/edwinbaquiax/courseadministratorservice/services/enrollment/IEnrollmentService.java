@@ -1,10 +1,15 @@
 package com.edwinbaquiax.courseadministratorservice.services.enrollment;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportReportDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface IEnrollmentService {
@@ -12,6 +17,9 @@ public interface IEnrollmentService {
     void cancelEnrollment(Long enrollmentId);
     Page<EnrollmentResponseDTO> getEnrollmentsByStudent(Long userId, int page, int size);
     Page<EnrollmentResponseDTO> getEnrollmentsByCourse(Long courseId, int page, int size);
+    SlicePageDTO<EnrollmentResponseDTO> getEnrollmentsByStudentSlice(Long userId, int page, int size, boolean approxTotal);
+    SlicePageDTO<EnrollmentResponseDTO> getEnrollmentsByCourseSlice(Long courseId, int page, int size, boolean approxTotal);
+    CursorPageDTO<EnrollmentResponseDTO> getEnrollmentsByCourseCursor(Long courseId, String cursor, int size);
 
     @Transactional(readOnly = true)
     EnrollmentResponseDTO getEnrollmentById(Long enrollmentId);
@@ -21,4 +29,11 @@ public interface IEnrollmentService {
 
     @Transactional(readOnly = true)
     Page<EnrollmentResponseDTO> getAllEnrollments(int page, int size);
+
+    SlicePageDTO<EnrollmentResponseDTO> getAllEnrollmentsSlice(int page, int size, boolean approxTotal);
+
+    @Transactional(readOnly = true)
+    CursorPageDTO<EnrollmentResponseDTO> getAllEnrollmentsCursor(String cursor, int size);
+
+    EnrollmentImportReportDTO importEnrollments(InputStream input, MediaType contentType);
 }
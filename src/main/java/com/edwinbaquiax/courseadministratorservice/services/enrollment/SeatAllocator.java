@@ -0,0 +1,181 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AfterCommit;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserva de cupos por curso sin bloquear filas de {@code courses}.
+ *
+ * <p>Cada curso con cupo tiene un contador atomico de lugares ocupados que se carga de la
+ * base la primera vez que se usa. Reservar es un compare-and-set sobre ese contador, asi
+ * que miles de inscripciones simultaneas al mismo curso nunca pasan del cupo y ninguna
+ * espera un lock. Si la transaccion que reservo no confirma, el lugar se devuelve.</p>
+ *
+ * <p>El contador vive en esta instancia; una tarea periodica lo vuelve a alinear con la
+ * base (por ejemplo si otra instancia inscribio en el mismo curso) y entrega los lugares
+ * libres a la lista de espera.</p>
+ */
+@Slf4j
+@Component
+public class SeatAllocator {
+
+    static final int UNLIMITED = -1;
+
+    private final Map<Long, Seats> seats = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+    @Autowired
+    private IWaitlistRepository waitlistRepository;
+    @Autowired
+    private Waitlist waitlist;
+
+    static final class Seats {
+        //cambia si se edita el cupo del curso
+        volatile int capacity;
+        final AtomicInteger taken;
+        //reservas cuya transaccion aun no termina
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        Seats(int capacity, int taken) {
+            this.capacity = capacity;
+            this.taken = new AtomicInteger(taken);
+        }
+    }
+
+    /**
+     * Intenta ocupar un lugar del curso.
+     *
+     * @return {@code false} si el curso esta lleno
+     */
+    public boolean tryReserve(Long courseId) {
+        Seats course = seats(courseId);
+        //curso inexistente o sin limite
+        if (course == null || course.capacity == UNLIMITED) return true;
+
+        int current;
+        do {
+            current = course.taken.get();
+            if (current >= course.capacity) return false;
+        } while (!course.taken.compareAndSet(current, current + 1));
+
+        settleOnCompletion(course);
+        return true;
+    }
+
+    /**
+     * Devuelve un lugar cuando la transaccion actual confirma (cancelacion de una inscripcion).
+     */
+    public void releaseAfterCommit(Long courseId) {
+        AfterCommit.run(() -> release(courseId));
+    }
+
+    /**
+     * Descarta el contador del curso, por ejemplo al eliminarlo.
+     */
+    public void forget(Long courseId) {
+        seats.remove(courseId);
+    }
+
+    /**
+     * Aplica el cupo nuevo del curso. El contador se conserva y solo cambia el limite, asi
+     * las reservas cuya transaccion aun no termina siguen contando. Si el curso no tenia
+     * limite sus lugares no se contaban y el contador se carga de nuevo de la base.
+     */
+    public void capacityChanged(Long courseId) {
+        seats.computeIfPresent(courseId, (id, current) -> {
+            Seats loaded = load(id);
+            if (loaded == null || current.capacity == UNLIMITED || loaded.capacity == UNLIMITED) {
+                return loaded;
+            }
+            current.capacity = loaded.capacity;
+            return current;
+        });
+    }
+
+    /**
+     * Vuelve a contar las inscripciones de los cursos con cupo y entrega los lugares libres
+     * a la lista de espera.
+     */
+    @Scheduled(fixedDelayString = "${enrollments.seats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        seats.forEach((courseId, course) -> {
+            if (course.capacity != UNLIMITED) reconcile(courseId, course);
+        });
+        for (Long courseId : waitlistRepository.findCourseIds()) {
+            promoteWaiting(courseId);
+        }
+    }
+
+    void reconcile(Long courseId, Seats course) {
+        if (course.inFlight.get() != 0) return;
+        int observed = course.taken.get();
+        int actual = (int) enrollmentRepository.countByCourse_IdAndActiveTrue(courseId);
+        //si hubo reservas mientras se contaba se deja para la siguiente vuelta
+        if (course.inFlight.get() == 0 && observed != actual && course.taken.compareAndSet(observed, actual)) {
+            log.info("Cupos del curso {} ajustados de {} a {}", courseId, observed, actual);
+        }
+    }
+
+    private void promoteWaiting(Long courseId) {
+        while (tryReserve(courseId)) {
+            try {
+                if (waitlist.promoteNext(courseId) == null) {
+                    release(courseId);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                release(courseId);
+                log.warn("No se pudo promover la lista de espera del curso {}", courseId, e);
+                return;
+            }
+        }
+    }
+
+    private Seats seats(Long courseId) {
+        return seats.computeIfAbsent(courseId, this::load);
+    }
+
+    //null si el curso no existe: no se guarda y la insercion reporta el error
+    private Seats load(Long courseId) {
+        return courseRepository.findCapacityById(courseId)
+                .map(course -> course.getCapacity() == null
+                        ? new Seats(UNLIMITED, 0)
+                        : new Seats(course.getCapacity(), (int) enrollmentRepository.countByCourse_IdAndActiveTrue(courseId)))
+                .orElse(null);
+    }
+
+    private void release(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course == null || course.capacity == UNLIMITED) return;
+        course.taken.getAndUpdate(taken -> Math.max(0, taken - 1));
+    }
+
+    private static void settleOnCompletion(Seats course) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        course.inFlight.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    course.taken.getAndUpdate(taken -> Math.max(0, taken - 1));
+                }
+                course.inFlight.decrementAndGet();
+            }
+        });
+    }
+}
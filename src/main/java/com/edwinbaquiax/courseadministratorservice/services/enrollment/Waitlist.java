@@ -0,0 +1,112 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.exceptions.EnrollmentExistException;
+import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.WaitlistEntry;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Lista de espera de los cursos llenos.
+ */
+@Component
+public class Waitlist {
+
+    @Autowired
+    private IWaitlistRepository waitlistRepository;
+    @Autowired
+    private IEnrollmentRepository enrollmentRepository;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private ICourseRepository courseRepository;
+    @Autowired
+    private EnrollmentWriter enrollmentWriter;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Agrega al usuario a la lista de espera del curso. Si ya estaba se devuelve su lugar actual.
+     */
+    @Transactional
+    public EnrollmentResponseDTO join(Long userId, Long courseId) {
+        if (enrollmentRepository.existsByUser_IdAndCourse_IdAndActiveTrue(userId, courseId)) {
+            throw new EnrollmentExistException();
+        }
+        WaitlistEntry entry = waitlistRepository.findByUser_IdAndCourse_Id(userId, courseId)
+                .orElseGet(() -> add(userId, courseId));
+
+        return EnrollmentResponseDTO.builder()
+                .userId(userId)
+                .usernameStudent(entry.getUser().getUsername())
+                .courseId(courseId)
+                .title(entry.getCourse().getTitle())
+                .active(false)
+                .waitlisted(true)
+                .waitlistPosition(waitlistRepository.countByCourse_IdAndIdLessThanEqual(courseId, entry.getId()))
+                .build();
+    }
+
+    //dos join simultaneos del mismo usuario chocan con uq_waitlist_user_course: la insercion va en
+    //su propia transaccion para que el error no aborte la de la inscripcion y se usa la entrada que gano
+    private WaitlistEntry add(Long userId, Long courseId) {
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .user(userRepository.findById(userId).filter(User::isEnabled).orElseThrow(UserNotFoundException::new))
+                .course(courseRepository.findById(courseId).filter(Course::isActive).orElseThrow(CourseNotFoundException::new))
+                .build();
+        TransactionTemplate insert = new TransactionTemplate(transactionManager);
+        insert.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return insert.execute(status -> waitlistRepository.saveAndFlush(entry));
+        } catch (DataIntegrityViolationException e) {
+            return waitlistRepository.findByUser_IdAndCourse_Id(userId, courseId).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Inscribe al primero de la lista de espera en el lugar que se acaba de liberar.
+     *
+     * @return la inscripcion creada o {@code null} si la lista esta vacia
+     */
+    @Transactional
+    public EnrollmentResponseDTO promoteNext(Long courseId) {
+        while (true) {
+            List<WaitlistEntry> next = waitlistRepository.findByCourse_IdOrderByIdAsc(courseId, Limit.of(1));
+            if (next.isEmpty()) return null;
+
+            WaitlistEntry entry = next.get(0);
+            //otra promocion concurrente pudo tomar la misma entrada
+            if (waitlistRepository.deleteEntry(entry.getId()) == 0) continue;
+
+            EnrollmentResponseDTO created = enrollmentWriter.insertIfAbsent(entry.getUser().getId(), courseId);
+            //si ya estaba inscrito se pasa al siguiente
+            if (created != null) {
+                assignabilityCache.invalidateCourse(courseId);
+                counters.enrollmentAdded(courseId);
+                return created;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.edwinbaquiax.courseadministratorservice.services.module;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
 import org.springframework.data.domain.Page;
@@ -17,4 +18,8 @@ public interface IModuleService {
 
     Page<ModuleResponseDTO> findAllModulesByCourseId(long courseId, int page, int size);
 
+    SlicePageDTO<ModuleResponseDTO> findAllModulesSlice(int page, int size, boolean approxTotal);
+
+    SlicePageDTO<ModuleResponseDTO> findAllModulesByCourseIdSlice(long courseId, int page, int size, boolean approxTotal);
+
 }
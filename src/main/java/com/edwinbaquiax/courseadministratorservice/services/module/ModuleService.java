@@ -1,18 +1,26 @@
 package com.edwinbaquiax.courseadministratorservice.services.module;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
 
 import static com.edwinbaquiax.courseadministratorservice.models.mappers.ModuleProfile.*;
 
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.ModuleProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -29,6 +37,16 @@ public class ModuleService implements IModuleService {
     private IModuleRepository moduleRepository;
     @Autowired
     private ICourseRepository courseRepository;
+    @Autowired
+    private AssignabilityCache assignabilityCache;
+    @Autowired
+    private CourseCatalogCache catalogCache;
+    @Autowired
+    private CleanupQueue cleanupQueue;
+    @Autowired
+    private PlatformCounters counters;
+    @Autowired
+    private ApproximateCounts approximateCounts;
 
     @Override
     public ModuleResponseDTO createModule(ModuleRequestDTO request) {
@@ -37,6 +55,9 @@ public class ModuleService implements IModuleService {
         module.setCourse(existCourse);
 
         Module saved = moduleRepository.save(module);
+        assignabilityCache.invalidateModule(saved.getId());
+        catalogCache.invalidateModulesOfCourse(existCourse.getId());
+        counters.moduleAdded(existCourse.getId());
         return entityToModuleResponseDTO(saved);
     }
 
@@ -44,10 +65,18 @@ public class ModuleService implements IModuleService {
     public ModuleResponseDTO updateModule(Long moduleId, ModuleRequestDTO request) {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(ModuleNotFoundException::new);
+        Long previousCourseId = module.getCourse() != null ? module.getCourse().getId() : null;
         Course existCourse = courseRepository.findById(request.getCourseId()).orElseThrow(CourseNotFoundException::new);
         module.setCourse(existCourse);
         updateEntityFromDto(module, request);
         Module updated = moduleRepository.save(module);
+        assignabilityCache.invalidateModule(moduleId);
+        catalogCache.invalidateModule(moduleId);
+        catalogCache.invalidateModulesOfCourse(previousCourseId);
+        catalogCache.invalidateModulesOfCourse(existCourse.getId());
+        if (updated.isActive() && !existCourse.getId().equals(previousCourseId)) {
+            counters.modulesMoved(previousCourseId, existCourse.getId(), 1);
+        }
         return entityToModuleResponseDTO(updated);
     }
 
@@ -55,15 +84,21 @@ public class ModuleService implements IModuleService {
     public void deleteModule(Long moduleId) {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(ModuleNotFoundException::new);
+        if (module.isActive()) {
+            counters.moduleRemoved(module.getCourse() != null ? module.getCourse().getId() : null, moduleId);
+        }
         module.setActive(false);
         moduleRepository.save(module);
+        //tareas y asignaciones del modulo se eliminan en segundo plano
+        cleanupQueue.enqueue(CleanupTarget.MODULE, moduleId);
+        catalogCache.invalidateModule(moduleId);
+        if (module.getCourse() != null) catalogCache.invalidateModulesOfCourse(module.getCourse().getId());
     }
 
     @Override
     public ModuleResponseDTO findById(Long moduleId) {
-        Module module = moduleRepository.findById(moduleId)
-                .orElseThrow(ModuleNotFoundException::new);
-        return entityToModuleResponseDTO(module);
+        return catalogCache.module(moduleId, id ->
+                entityToModuleResponseDTO(moduleRepository.findById(id).orElseThrow(ModuleNotFoundException::new)));
     }
 
     @Override
@@ -75,9 +110,27 @@ public class ModuleService implements IModuleService {
 
     @Override
     public Page<ModuleResponseDTO> findAllModulesByCourseId(long courseId, int page, int size) {
+        return catalogCache.modulesByCourse(courseId, page, size, key -> {
+            Pageable pageable = PageRequest.of(key.page(), key.size(), Sort.by("moduleName").ascending());
+            Page<Module> modules = moduleRepository.findAllByCourse_IdAndActive(key.courseId(), true, pageable);
+
+            return modules.map(ModuleProfile::entityToModuleResponseDTO);
+        });
+    }
+
+    @Override
+    public SlicePageDTO<ModuleResponseDTO> findAllModulesSlice(int page, int size, boolean approxTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("moduleName").ascending());
-        Page<Module> modules = moduleRepository.findAllByCourse_IdAndActive(courseId, true, pageable);
+        return SlicePages.of(moduleRepository.findSliceBy(pageable), ModuleProfile::entityToModuleResponseDTO,
+                approximateCounts.total(approxTotal, "modules", moduleRepository::count));
+    }
 
-        return modules.map(ModuleProfile::entityToModuleResponseDTO);
+    //el total de modulos activos del curso ya lo lleva PlatformCounters
+    @Override
+    public SlicePageDTO<ModuleResponseDTO> findAllModulesByCourseIdSlice(long courseId, int page, int size, boolean approxTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("moduleName").ascending());
+        return SlicePages.of(moduleRepository.findSliceByCourse_IdAndActive(courseId, true, pageable),
+                ModuleProfile::entityToModuleResponseDTO,
+                approxTotal ? counters.moduleCount(courseId) : null);
     }
-}
\ No newline at end of file
+}
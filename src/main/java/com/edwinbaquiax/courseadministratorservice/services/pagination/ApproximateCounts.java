@@ -0,0 +1,121 @@
+package com.edwinbaquiax.courseadministratorservice.services.pagination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales aproximados para las paginas sin conteo.
+ *
+ * <p>Cada total se cuenta una sola vez al pedirse por primera vez. Despues solo se recalcula
+ * cuando alguien lo lee y ya tiene mas de {@code stale-ms}: esa lectura lanza un unico
+ * recalculo en segundo plano y, mientras termina, todas siguen recibiendo el valor anterior,
+ * asi las peticiones nunca esperan un {@code count} de una llave conocida. Los totales que
+ * nadie lee durante un tiempo se descartan, y si se llega al maximo de llaves se hace lugar
+ * igual que en {@link com.edwinbaquiax.courseadministratorservice.cache.ReadThroughCache}.</p>
+ */
+@Slf4j
+@Component
+public class ApproximateCounts {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long staleMillis;
+    private final long idleMillis;
+    private final Executor executor;
+
+    public ApproximateCounts(@Value("${pagination.approx-count.max-keys:10000}") int maxKeys,
+                             @Value("${pagination.approx-count.stale-ms:60000}") long staleMillis,
+                             @Value("${pagination.approx-count.idle-ms:600000}") long idleMillis,
+                             @Qualifier("queryExecutor") Executor executor) {
+        this.maxKeys = maxKeys;
+        this.staleMillis = staleMillis;
+        this.idleMillis = idleMillis;
+        this.executor = executor;
+    }
+
+    private static final class Entry {
+        final LongSupplier counter;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long value;
+        volatile long countedAt;
+        volatile long lastRead;
+
+        Entry(LongSupplier counter, long value, long now) {
+            this.counter = counter;
+            this.value = value;
+            this.countedAt = now;
+            this.lastRead = now;
+        }
+    }
+
+    /**
+     * Devuelve el total guardado para la llave, o {@code null} si no se pidio.
+     *
+     * @param counter conteo exacto; se ejecuta la primera vez y en cada recalculo
+     */
+    public Long total(boolean requested, String key, LongSupplier counter) {
+        if (!requested) return null;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxKeys) makeRoom(now);
+            entry = entries.computeIfAbsent(key, k -> new Entry(counter, counter.getAsLong(), now));
+        }
+        entry.lastRead = now;
+        if (now - entry.countedAt >= staleMillis) refreshInBackground(key, entry);
+        return entry.value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${pagination.approx-count.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        entries.values().removeIf(entry -> entry.lastRead < idleSince);
+    }
+
+    //solo la lectura que gana el flag recalcula; las demas devuelven el valor anterior
+    private void refreshInBackground(String key, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    entry.value = entry.counter.getAsLong();
+                } catch (RuntimeException e) {
+                    //se sigue sirviendo el valor anterior y se reintenta cuando vuelva a vencer
+                    log.warn("No se pudo recalcular el total {}", key, e);
+                } finally {
+                    entry.countedAt = System.currentTimeMillis();
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    //primero se descartan los que nadie lee, si sigue lleno se descarta cualquier entrada
+    private void makeRoom(long now) {
+        long idleSince = now - idleMillis;
+        entries.values().removeIf(entry -> entry.lastRead < idleSince);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxKeys && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.edwinbaquiax.courseadministratorservice.services.pagination;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.InvalidCursorException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Codifica la posicion de una pagina por cursor (llave de orden + id del ultimo elemento)
+ * en un token opaco para el cliente.
+ *
+ * <p>La siguiente pagina se consulta con {@code where (llave, id) > (:llave, :id)} sobre un
+ * indice, por lo que su costo no depende de cuantas paginas se hayan recorrido, a diferencia
+ * de OFFSET/LIMIT. Tampoco se ejecuta {@code count(*)}.</p>
+ */
+public final class CursorCodec {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object id, Object key) {
+        String raw = VERSION + SEPARATOR + id + SEPARATOR + (key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return la posicion codificada, o {@code null} si no se envio cursor (primera pagina)
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+        //la llave va al final porque puede contener el separador (titulos)
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[1].isEmpty()) {
+            throw new InvalidCursorException();
+        }
+        return new Cursor(parts[1], parts[2]);
+    }
+
+    public static int clampSize(int size) {
+        if (size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Arma la pagina a partir de {@code size + 1} filas: la fila extra solo indica que hay
+     * mas elementos y no se devuelve.
+     */
+    public static <E, T> CursorPageDTO<T> toPage(List<E> rows, int size, Function<E, T> mapper,
+                                                 Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> visible = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDTO.<T>builder()
+                .content(visible.stream().map(mapper).toList())
+                .size(visible.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(visible.get(visible.size() - 1)) : null)
+                .build();
+    }
+
+    public record Cursor(String id, String key) {
+
+        public Long idAsLong() {
+            try {
+                return Long.valueOf(id);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException();
+            }
+        }
+
+        public LocalDateTime keyAsDateTime() {
+            try {
+                return LocalDateTime.parse(key);
+            } catch (DateTimeParseException e) {
+                throw new InvalidCursorException();
+            }
+        }
+    }
+}
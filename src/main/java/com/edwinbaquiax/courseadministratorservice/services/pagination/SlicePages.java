@@ -0,0 +1,35 @@
+package com.edwinbaquiax.courseadministratorservice.services.pagination;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Function;
+
+/**
+ * Utilidades para las respuestas paginadas sin conteo ({@code ?count=none|approx}).
+ */
+public final class SlicePages {
+
+    public static final String APPROX = "approx";
+
+    private SlicePages() {
+    }
+
+    /**
+     * {@code count=approx} pide ademas el total aproximado; cualquier otro valor distinto de
+     * {@code exact} devuelve solo la pagina.
+     */
+    public static boolean wantsApproxTotal(String count) {
+        return APPROX.equalsIgnoreCase(count);
+    }
+
+    public static <E, D> SlicePageDTO<D> of(Slice<E> slice, Function<? super E, ? extends D> mapper, Long approxTotal) {
+        return SlicePageDTO.<D>builder()
+                .content(slice.getContent().stream().<D>map(mapper).toList())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .approxTotal(approxTotal)
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.edwinbaquiax.courseadministratorservice.services.task;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.StudentTaskDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
 import org.springframework.data.domain.Page;
 
 public interface ITaskService {
@@ -15,7 +18,9 @@ public interface ITaskService {
     TaskResponseDTO findById(String taskId);
 
 
-    Page<TaskResponseDTO> findTasksByModule(Long moduleId, int page, int size);
+    Page<TaskSummaryDTO> findTasksByModule(Long moduleId, int page, int size);
 
-    Page<TaskResponseDTO> findTasksByStudent(Long userId, int page, int size);
+    SlicePageDTO<TaskSummaryDTO> findTasksByModuleSlice(Long moduleId, int page, int size, boolean approxTotal);
+
+    Page<StudentTaskDTO> findTasksByStudent(Long userId, int page, int size);
 }
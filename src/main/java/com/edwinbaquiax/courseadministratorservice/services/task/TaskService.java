@@ -1,9 +1,13 @@
 package com.edwinbaquiax.courseadministratorservice.services.task;
 
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.TaskNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.StudentTaskDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
@@ -12,15 +16,24 @@ import static com.edwinbaquiax.courseadministratorservice.models.mappers.TaskPro
 
 import com.edwinbaquiax.courseadministratorservice.models.enums.TypeTask;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.TaskProfile;
-import com.edwinbaquiax.courseadministratorservice.repositories.mongo.IAssignmentRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.SlicePages;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class TaskService implements ITaskService {
@@ -29,10 +42,12 @@ public class TaskService implements ITaskService {
     @Autowired
     private IModuleRepository moduleRepository;
     @Autowired
-    private IAssignmentRepository assignmentRepository;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
     private CurrentUser currentUser;
+    @Autowired
+    private PlatformCounters counters;
 
 
     @Override
@@ -46,6 +61,7 @@ public class TaskService implements ITaskService {
         task.setModuleId(module.getId());
 
         Task saved = taskRepository.save(task);
+        counters.taskAdded(saved.getModuleId());
         return taskEntityToResponseDTO(saved);
     }
 
@@ -57,8 +73,17 @@ public class TaskService implements ITaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(TaskNotFoundException::new);
 
+        Long previousModuleId = task.getModuleId();
+        boolean wasActive = task.isActive();
+        Double previousValue = task.getValue();
         updateTaskFromDto(task, request);
         Task updated = taskRepository.save(task);
+        countTaskChange(previousModuleId, wasActive, updated);
+        if (!Objects.equals(previousValue, updated.getValue())) {
+            //las asignaciones guardan el valor de la tarea para validar la nota al calificar
+            mongoTemplate.updateMulti(Query.query(Criteria.where("taskId").is(taskId)),
+                    new Update().set("maxScore", updated.getValue()), Assignment.class);
+        }
 
         return taskEntityToResponseDTO(updated);
     }
@@ -68,6 +93,7 @@ public class TaskService implements ITaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(TaskNotFoundException::new);
 
+        if (task.isActive()) counters.taskRemoved(task.getModuleId());
         task.setActive(false);
         taskRepository.save(task);
     }
@@ -81,32 +107,91 @@ public class TaskService implements ITaskService {
     }
 
     @Override
-    public Page<TaskResponseDTO> findTasksByModule(Long moduleId, int page, int size) {
+    public Page<TaskSummaryDTO> findTasksByModule(Long moduleId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
-        Page<Task> tasks = taskRepository.findAllByModuleIdAndActiveTrue(moduleId, pageable);
-        return tasks.map(TaskProfile::taskEntityToResponseDTO);
+        return taskRepository.findAllByModuleIdAndActiveTrue(moduleId, pageable)
+                .map(TaskProfile::taskSummaryToDTO);
     }
 
+    //el total de tareas activas del modulo ya lo lleva PlatformCounters
     @Override
-    public Page<TaskResponseDTO> findTasksByStudent(Long userId, int page, int size) {
+    public SlicePageDTO<TaskSummaryDTO> findTasksByModuleSlice(Long moduleId, int page, int size, boolean approxTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Assignment> assignments = assignmentRepository.findAllByUserId(userId, pageable);
 
-        List<String> taskIds = assignments
-                .stream()
-                .map((Assignment::getTaskId))
+        return SlicePages.of(taskRepository.findSliceByModuleIdAndActiveTrue(moduleId, pageable),
+                TaskProfile::taskSummaryToDTO,
+                approxTotal ? counters.taskCount(moduleId) : null);
+    }
+
+    /**
+     * Tareas del estudiante en una sola agregacion sobre {@code assignments}: filtra por
+     * estudiante, ordena por fecha de entrega (indice {@code user_id, submitted_at}) y en un
+     * {@code $facet} obtiene la pagina, con la tarea unida por {@code $lookup}, y el total.
+     */
+    @Override
+    public Page<StudentTaskDTO> findTasksByStudent(Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Document result = mongoTemplate
+                .aggregate(studentTasksAggregation(userId, pageable), "assignments", Document.class)
+                .getUniqueMappedResult();
+        if (result == null) return Page.empty(pageable);
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        List<StudentTaskDTO> content = result.getList("page", Document.class).stream()
+                .map(row -> {
+                    Assignment assignment = converter.read(Assignment.class, row);
+                    Document task = row.get("task", Document.class);
+                    return StudentTaskDTO.builder()
+                            .assignmentId(assignment.getId())
+                            .status(assignment.getStatus())
+                            .score(assignment.getScore())
+                            .submittedAt(assignment.getSubmittedAt())
+                            .task(task == null ? null : taskEntityToResponseDTO(converter.read(Task.class, task)))
+                            .build();
+                })
                 .toList();
-        List<Task> tasks = taskRepository.findAllById(taskIds);
+        List<Document> total = result.getList("total", Document.class);
+        long count = total.isEmpty() ? 0 : total.get(0).get("value", Number.class).longValue();
 
+        return new PageImpl<>(content, pageable, count);
+    }
+
+    static Aggregation studentTasksAggregation(Long userId, Pageable pageable) {
+        //task_id se guarda como texto y el _id de tasks es ObjectId
+        Document taskLookup = new Document("from", "tasks")
+                .append("let", new Document("taskId", new Document("$convert", new Document("input", "$task_id")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null))))
+                .append("pipeline", List.of(new Document("$match",
+                        new Document("$expr", new Document("$eq", List.of("$_id", "$$taskId"))))))
+                .append("as", "task");
+
+        return Aggregation.newAggregation(
+                stage("$match", new Document("user_id", userId)),
+                stage("$sort", new Document("submitted_at", -1).append("_id", -1)),
+                stage("$facet", new Document("page", List.of(
+                                new Document("$skip", pageable.getOffset()),
+                                new Document("$limit", pageable.getPageSize()),
+                                new Document("$lookup", taskLookup),
+                                new Document("$unwind", new Document("path", "$task")
+                                        .append("preserveNullAndEmptyArrays", true))))
+                        .append("total", List.of(new Document("$count", "value")))));
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
 
-        return new PageImpl<>(
-                tasks
-                        .stream()
-                        .map(TaskProfile::taskEntityToResponseDTO)
-                        .toList(),
-                pageable,
-                tasks.size()
-        );
+    //la actualizacion puede activar, desactivar o mover la tarea a otro modulo
+    private void countTaskChange(Long previousModuleId, boolean wasActive, Task updated) {
+        if (wasActive && updated.isActive()) {
+            if (!Objects.equals(previousModuleId, updated.getModuleId())) counters.taskMoved(previousModuleId, updated.getModuleId());
+        } else if (wasActive) {
+            counters.taskRemoved(previousModuleId);
+        } else if (updated.isActive()) {
+            counters.taskAdded(updated.getModuleId());
+        }
     }
 }
@@ -23,5 +23,5 @@ public interface IUserService {
     UserResponseDTO updateRoleUser(Long userId, Set<String> roleNames);
      UserResponseDTO findById(Long id);
     UserResponseDTO findByUsername(String username);
-    void updateLastLogin(String username);
+    void updateLastLogin(Long userId);
 }
@@ -1,12 +1,14 @@
 package com.edwinbaquiax.courseadministratorservice.services.user;
 
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.user.LoginUserDetails;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.security.AuthorityCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -17,7 +19,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private IUserRepository userRepository;
@@ -25,7 +27,7 @@ public class JpaUserDetailsService implements UserDetailsService {
     @Override
     @Transactional(readOnly = true)  //Login
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException,UserNotFoundException {
-        Optional<User> userOptional = userRepository.findByUsername(username);
+        Optional<User> userOptional = userRepository.findWithRolesByUsername(username);
         if(userOptional.isEmpty()){
             throw new UsernameNotFoundException(String.format("Usuario %s no existe",username));
         }
@@ -37,17 +39,34 @@ public class JpaUserDetailsService implements UserDetailsService {
         List<GrantedAuthority>  authorities = user
                 .getRoles()
                 .stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))//para setear
+                .map(role -> AuthorityCodec.authority(role.getName()))//instancia compartida
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(
+        //el id viaja con el principal hasta la generacion del token
+        return new LoginUserDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),//auto configurable y auto comparable
                 user.isEnabled(),
-                true,
-                true ,
-                true,
                 authorities
         );
     }
+
+    /**
+     * Spring Security lo invoca tras un login correcto cuando el hash guardado usa un costo
+     * menor al configurado: se guarda el nuevo hash sin que el usuario lo note.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        LoginUserDetails details = (LoginUserDetails) user;
+        return new LoginUserDetails(
+                details.getId(),
+                details.getUsername(),
+                newPassword,
+                details.isEnabled(),
+                details.getAuthorities()
+        );
+    }
 }
@@ -0,0 +1,75 @@
+package com.edwinbaquiax.courseadministratorservice.services.user;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer write-behind para el ultimo login de cada usuario.
+ *
+ * <p>El login solo registra el instante en memoria (se conserva el mas reciente por usuario)
+ * y una tarea en segundo plano lo escribe en lotes cada pocos segundos y al apagar la
+ * aplicacion. Asi el login no espera la escritura ni compite por la fila del usuario.</p>
+ */
+@Slf4j
+@Component
+public class LastLoginBuffer {
+
+    //no se sobreescribe un valor mas reciente ya guardado por otra instancia
+    static final String UPDATE_SQL =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void record(Long userId, LocalDateTime instant) {
+        pending.merge(userId, instant, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${security.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> snapshot = new ArrayList<>(pending.size());
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            Map.Entry<Long, LocalDateTime> copy = Map.entry(entry.getKey(), entry.getValue());
+            Timestamp lastLogin = Timestamp.valueOf(copy.getValue());
+            snapshot.add(copy);
+            batch.add(new Object[]{lastLogin, copy.getKey(), lastLogin});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (RuntimeException e) {
+            //se conservan los valores para el siguiente intento
+            log.warn("No se pudo guardar el ultimo login de {} usuarios", batch.size(), e);
+            return;
+        }
+
+        //solo se quita si no llego un login mas reciente mientras se escribia
+        snapshot.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -1,11 +1,14 @@
 package com.edwinbaquiax.courseadministratorservice.services.user;
 
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.RoleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UsernameIsExistsException;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.user.UserResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Role;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.UserProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IRoleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
@@ -28,6 +31,12 @@ public class UserService implements IUserService {
     private IRoleRepository roleRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+    @Autowired
+    private CleanupQueue cleanupQueue;
+    @Autowired
+    private PlatformCounters counters;
 
     @Override
     @Transactional(readOnly = true)
@@ -63,8 +72,9 @@ public class UserService implements IUserService {
         user.setRoles(roles);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
-
-        return userEntityToUserResponseDTO(userRepository.save(user));
+        UserResponseDTO saved = userEntityToUserResponseDTO(userRepository.save(user));
+        counters.userAdded();
+        return saved;
     }
 
     @Override
@@ -93,13 +103,9 @@ public class UserService implements IUserService {
     }
 
     @Override
-    public void updateLastLogin(String username) {
-        userRepository.findByUsername(username).ifPresent(
-                user -> {
-                    user.setLastLogin(LocalDateTime.now());
-                    userRepository.save(user);
-                }
-        );
+    public void updateLastLogin(Long userId) {
+        //se escribe en segundo plano, el login no espera la escritura
+        lastLoginBuffer.record(userId, LocalDateTime.now());
     }
     @Transactional
     @Override
@@ -125,7 +131,11 @@ public class UserService implements IUserService {
     public void delete(Long userId) {
         User existUser = userRepository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
-        userRepository.delete(existUser);
+        if (existUser.isEnabled()) counters.userRemoved();
+        //deshabilitado ya; asignaciones, inscripciones y cursos se eliminan en segundo plano
+        existUser.setEnabled(false);
+        userRepository.save(existUser);
+        cleanupQueue.enqueue(CleanupTarget.USER, userId);
     }
     @Override
     @Transactional
@@ -0,0 +1,128 @@
+package com.edwinbaquiax.courseadministratorservice.cache;
+
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssignabilityCacheTest {
+
+    @Mock
+    private IModuleRepository moduleRepository;
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    @Mock
+    private IEnrollmentRepository enrollmentRepository;
+
+    @InjectMocks
+    private AssignabilityCache cache = new AssignabilityCache(100, 2);
+
+    private final Long moduleId = 5L;
+    private final Long courseId = 3L;
+    private final Long teacherId = 2L;
+
+    @Test
+    void isAssignable_ShouldLoadCourseOnceForWholeClass() {
+        // Arrange
+        List<Long> students = LongStream.rangeClosed(100, 399).boxed().toList();
+        when(moduleRepository.findCourseIdById(moduleId)).thenReturn(Optional.of(courseId));
+        when(courseRepository.findTeacherIdById(courseId)).thenReturn(Optional.of(teacherId));
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(students);
+
+        // Act
+        boolean allAssignable = students.stream().allMatch(id -> cache.isAssignable(id, moduleId, teacherId));
+
+        // Assert
+        assertTrue(allAssignable);
+        verify(moduleRepository, times(1)).findCourseIdById(moduleId);
+        verify(enrollmentRepository, times(1)).findStudentIdsByCourseId(courseId);
+        verify(enrollmentRepository, never()).isAsignableToTaskStudent(any(), any(), any());
+    }
+
+    @Test
+    void isAssignable_ShouldRejectOtherTeacherOrUnenrolledStudent() {
+        // Arrange
+        when(moduleRepository.findCourseIdById(moduleId)).thenReturn(Optional.of(courseId));
+        when(courseRepository.findTeacherIdById(courseId)).thenReturn(Optional.of(teacherId));
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L));
+
+        // Act & Assert
+        assertFalse(cache.isAssignable(1L, moduleId, 99L));
+        assertFalse(cache.isAssignable(7L, moduleId, teacherId));
+        assertTrue(cache.isAssignable(1L, moduleId, teacherId));
+    }
+
+    @Test
+    void isAssignable_ShouldReturnFalseForModuleWithoutCourse() {
+        // Arrange
+        when(moduleRepository.findCourseIdById(moduleId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(cache.isAssignable(1L, moduleId, teacherId));
+        verifyNoInteractions(courseRepository, enrollmentRepository);
+    }
+
+    @Test
+    void invalidateCourse_ShouldReloadEnrollmentsOnNextCheck() {
+        // Arrange
+        when(moduleRepository.findCourseIdById(moduleId)).thenReturn(Optional.of(courseId));
+        when(courseRepository.findTeacherIdById(courseId)).thenReturn(Optional.of(teacherId));
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId))
+                .thenReturn(List.of())
+                .thenReturn(List.of(1L));
+        assertFalse(cache.isAssignable(1L, moduleId, teacherId));
+
+        // Act
+        cache.invalidateCourse(courseId);
+
+        // Assert
+        assertTrue(cache.isAssignable(1L, moduleId, teacherId));
+        verify(enrollmentRepository, times(2)).findStudentIdsByCourseId(courseId);
+    }
+
+    @Test
+    void invalidateModule_ShouldPickUpModuleMovedToAnotherCourse() {
+        // Arrange
+        when(moduleRepository.findCourseIdById(moduleId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(courseId));
+        when(courseRepository.findTeacherIdById(courseId)).thenReturn(Optional.of(teacherId));
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L));
+        assertFalse(cache.isAssignable(1L, moduleId, teacherId));
+
+        // Act
+        cache.invalidateModule(moduleId);
+
+        // Assert
+        assertTrue(cache.isAssignable(1L, moduleId, teacherId));
+    }
+
+    @Test
+    void isAssignable_ShouldBoundModulesKept() {
+        // Arrange
+        when(moduleRepository.findCourseIdById(any())).thenReturn(Optional.empty());
+        List<Long> modules = List.of(1L, 2L, 3L);
+
+        // Act: con espacio para dos modulos, leer tres dos veces obliga a recargar alguno
+        modules.forEach(id -> cache.isAssignable(1L, id, teacherId));
+        modules.forEach(id -> cache.isAssignable(1L, id, teacherId));
+
+        // Assert
+        verify(moduleRepository, atLeast(4)).findCourseIdById(any());
+    }
+}
@@ -0,0 +1,120 @@
+package com.edwinbaquiax.courseadministratorservice.cache;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadThroughCacheTest {
+
+    @Test
+    void get_ShouldLoadOnceAndCountHits() {
+        // Arrange
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get(1L, id -> "curso-" + loads.incrementAndGet());
+        String second = cache.get(1L, id -> "curso-" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("curso-1", second);
+        CacheStatsDTO stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void get_ShouldReloadAfterTtlExpires() throws InterruptedException {
+        // Arrange
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 20, 10);
+        cache.get(1L, id -> "viejo");
+        Thread.sleep(40);
+
+        // Act
+        String value = cache.get(1L, id -> "nuevo");
+
+        // Assert
+        assertEquals("nuevo", value);
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void get_ShouldEvictWhenFull() {
+        // Arrange
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 60_000, 2);
+
+        // Act
+        for (long id = 0; id < 5; id++) {
+            cache.get(id, String::valueOf);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 2);
+        assertEquals(3, cache.stats().getEvictions());
+    }
+
+    @Test
+    void get_ShouldNotStoreValueLoadedWhileKeyWasInvalidated() {
+        // Arrange
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 60_000, 10);
+
+        // Act: una escritura invalida mientras otra peticion todavia carga el valor anterior
+        cache.get(1L, id -> {
+            cache.invalidate(1L);
+            return "antes-del-cambio";
+        });
+        String value = cache.get(1L, id -> "despues-del-cambio");
+
+        // Assert
+        assertEquals("despues-del-cambio", value);
+    }
+
+    @Test
+    void get_WhenInvalidatedBetweenLoadAndPut_ShouldNeverKeepTheOldValue() throws Exception {
+        // Arrange: lectores cargan sin parar mientras una escritura cambia la version e invalida
+        ReadThroughCache<Long, Integer> cache = new ReadThroughCache<>("test", 60_000, 10);
+        AtomicInteger version = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            readers.execute(() -> {
+                while (running.get()) cache.get(1L, id -> version.get());
+            });
+        }
+
+        // Act & Assert: despues de cada invalidacion la cache nunca sirve una version anterior
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                int current = version.incrementAndGet();
+                cache.invalidate(1L);
+                assertEquals(current, cache.get(1L, id -> version.get()));
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+            assertTrue(readers.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void invalidateIf_ShouldDropMatchingKeysOnly() {
+        // Arrange
+        ReadThroughCache<Long, String> cache = new ReadThroughCache<>("test", 60_000, 10);
+        cache.get(1L, String::valueOf);
+        cache.get(2L, String::valueOf);
+
+        // Act
+        cache.invalidateIf(id -> id == 1L);
+
+        // Assert
+        assertEquals(1, cache.size());
+    }
+}
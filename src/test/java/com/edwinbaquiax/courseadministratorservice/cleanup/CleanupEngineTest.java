@@ -0,0 +1,205 @@
+package com.edwinbaquiax.courseadministratorservice.cleanup;
+
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupPhase;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICleanupJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanupEngineTest {
+
+    @Mock
+    private ICleanupJobRepository jobRepository;
+
+    @Mock
+    private CleanupSteps steps;
+
+    @InjectMocks
+    private CleanupEngine engine;
+
+    private CleanupJob job;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "batchSize", 500);
+        ReflectionTestUtils.setField(engine, "jobsPerPoll", 10);
+        ReflectionTestUtils.setField(engine, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(engine, "maxAttempts", 3);
+
+        job = CleanupJob.builder()
+                .id(1L)
+                .targetType(CleanupTarget.COURSE)
+                .targetId(7L)
+                .status(CleanupStatus.RUNNING)
+                .phase(CleanupPhase.TASKS)
+                .build();
+    }
+
+    @Test
+    void process_ShouldWalkEveryPhaseInBatchesAndRecordProgress() {
+        // Arrange: dos lotes de tareas, uno de inscripciones, modulos vacios y la raiz
+        List<CleanupPhase> seen = new ArrayList<>();
+        when(steps.run(eq(job), eq(500))).thenAnswer(inv -> {
+            seen.add(job.getPhase());
+            return switch (seen.size()) {
+                case 1 -> new CleanupSteps.Result(500, false, false);
+                case 2 -> new CleanupSteps.Result(120, true, false);
+                case 3 -> new CleanupSteps.Result(40, true, false);
+                case 4 -> new CleanupSteps.Result(0, true, false);
+                default -> new CleanupSteps.Result(1, true, false);
+            };
+        });
+        when(jobRepository.save(job)).thenReturn(job);
+
+        // Act
+        engine.process(job);
+
+        // Assert
+        assertEquals(List.of(CleanupPhase.TASKS, CleanupPhase.TASKS, CleanupPhase.ENROLLMENTS,
+                CleanupPhase.MODULES, CleanupPhase.ROOT), seen);
+        assertEquals(CleanupStatus.DONE, job.getStatus());
+        assertEquals(661, job.getProcessed());
+        assertNull(job.getLockedUntil());
+        //el avance se guarda despues de cada lote
+        verify(jobRepository, times(5)).save(job);
+    }
+
+    @Test
+    void process_WhenPhaseMustWait_ShouldReleaseJobWithoutAdvancing() {
+        // Arrange
+        job.setTargetType(CleanupTarget.USER);
+        job.setPhase(CleanupPhase.ROOT);
+        when(steps.run(job, 500)).thenReturn(new CleanupSteps.Result(0, false, true));
+
+        // Act
+        engine.process(job);
+
+        // Assert
+        assertEquals(CleanupStatus.RUNNING, job.getStatus());
+        assertEquals(CleanupPhase.ROOT, job.getPhase());
+        assertTrue(job.getLockedUntil().isAfter(LocalDateTime.now()));
+        verify(steps, times(1)).run(job, 500);
+    }
+
+    @Test
+    void process_WhenBatchFails_ShouldRetryLaterAndFailAfterMaxAttempts() {
+        // Arrange
+        when(steps.run(job, 500)).thenThrow(new IllegalStateException("mongo no disponible"));
+
+        // Act
+        engine.process(job);
+
+        // Assert
+        assertEquals(1, job.getAttempts());
+        assertEquals(CleanupStatus.RUNNING, job.getStatus());
+        assertEquals("mongo no disponible", job.getLastError());
+
+        engine.process(job);
+        engine.process(job);
+        assertEquals(CleanupStatus.FAILED, job.getStatus());
+        assertEquals(CleanupPhase.TASKS, job.getPhase());
+    }
+
+    @Test
+    void process_WhenDependentsAppear_ShouldRestartFromFirstPhase() {
+        // Arrange: se agrega un modulo al curso despues de la etapa de modulos
+        job.setPhase(CleanupPhase.ROOT);
+        List<CleanupPhase> seen = new ArrayList<>();
+        when(steps.run(job, 500)).thenAnswer(inv -> {
+            seen.add(job.getPhase());
+            if (seen.size() == 1) return new CleanupSteps.Result(0, false, false, true);
+            return new CleanupSteps.Result(seen.size() == 3 ? 1 : 0, true, false);
+        });
+        when(jobRepository.save(job)).thenReturn(job);
+
+        // Act
+        engine.process(job);
+
+        // Assert
+        assertEquals(List.of(CleanupPhase.ROOT, CleanupPhase.TASKS, CleanupPhase.ENROLLMENTS,
+                CleanupPhase.MODULES, CleanupPhase.ROOT), seen);
+        assertEquals(CleanupStatus.DONE, job.getStatus());
+    }
+
+    @Test
+    void process_WhenAnotherInstanceTookTheJob_ShouldStopProcessing() {
+        // Arrange: el bloqueo vencio y otra instancia tomo el trabajo (la version ya cambio)
+        when(steps.run(job, 500)).thenReturn(new CleanupSteps.Result(500, false, false));
+        when(jobRepository.save(job)).thenThrow(new OptimisticLockingFailureException("version"));
+
+        // Act
+        engine.process(job);
+
+        // Assert
+        verify(steps, times(1)).run(job, 500);
+        verify(jobRepository, times(1)).save(job);
+    }
+
+    @Test
+    void poll_ShouldComputeLeaseWhenClaimingEachJob() {
+        // Arrange: el primer trabajo tarda y el bloqueo del segundo se calcula despues
+        CleanupJob other = CleanupJob.builder().id(2L).targetType(CleanupTarget.MODULE).targetId(3L)
+                .status(CleanupStatus.PENDING).phase(CleanupPhase.ROOT).build();
+        job.setPhase(CleanupPhase.ROOT);
+        job.setTargetType(CleanupTarget.MODULE);
+        List<LocalDateTime> claimedAt = new ArrayList<>();
+        when(jobRepository.findClaimableIds(any(), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(jobRepository.claim(any(), eq(CleanupStatus.RUNNING), any(), any())).thenAnswer(inv -> {
+            claimedAt.add(inv.getArgument(2));
+            return 1;
+        });
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(other));
+        when(steps.run(job, 500)).thenAnswer(inv -> {
+            Thread.sleep(20);
+            return new CleanupSteps.Result(1, true, false);
+        });
+        when(steps.run(other, 500)).thenReturn(new CleanupSteps.Result(1, true, false));
+
+        // Act
+        engine.poll();
+
+        // Assert
+        assertEquals(2, claimedAt.size());
+        assertTrue(claimedAt.get(1).isAfter(claimedAt.get(0)));
+    }
+
+    @Test
+    void poll_ShouldOnlyProcessJobsItManagesToClaim() {
+        // Arrange
+        CleanupJob other = CleanupJob.builder().id(2L).targetType(CleanupTarget.MODULE).targetId(3L)
+                .status(CleanupStatus.PENDING).phase(CleanupPhase.ROOT).build();
+        when(jobRepository.findClaimableIds(any(), any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(jobRepository.claim(eq(1L), eq(CleanupStatus.RUNNING), any(), any())).thenReturn(0);
+        when(jobRepository.claim(eq(2L), eq(CleanupStatus.RUNNING), any(), any())).thenReturn(1);
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(other));
+        when(steps.run(other, 500)).thenReturn(new CleanupSteps.Result(1, true, false));
+
+        // Act
+        engine.poll();
+
+        // Assert
+        assertEquals(CleanupStatus.DONE, other.getStatus());
+        verify(jobRepository, never()).findById(1L);
+    }
+}
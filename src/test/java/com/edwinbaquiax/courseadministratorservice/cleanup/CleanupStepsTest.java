@@ -0,0 +1,271 @@
+package com.edwinbaquiax.courseadministratorservice.cleanup;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.CleanupJob;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupPhase;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupStatus;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.GroupCount;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import com.edwinbaquiax.courseadministratorservice.search.CourseSearchIndex;
+import com.mongodb.client.result.DeleteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanupStepsTest {
+
+    @Mock
+    private IEnrollmentRepository enrollmentRepository;
+    @Mock
+    private IModuleRepository moduleRepository;
+    @Mock
+    private ICourseRepository courseRepository;
+    @Mock
+    private IUserRepository userRepository;
+    @Mock
+    private IWaitlistRepository waitlistRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private CleanupQueue cleanupQueue;
+    @Mock
+    private AssignabilityCache assignabilityCache;
+    @Mock
+    private CourseCatalogCache catalogCache;
+    @Mock
+    private CourseSearchIndex searchIndex;
+    @Mock
+    private PlatformCounters counters;
+
+    @InjectMocks
+    private CleanupSteps steps;
+
+    private static CleanupJob job(CleanupTarget target, Long targetId, CleanupPhase phase) {
+        return CleanupJob.builder()
+                .id(1L)
+                .targetType(target)
+                .targetId(targetId)
+                .status(CleanupStatus.RUNNING)
+                .phase(phase)
+                .build();
+    }
+
+    @Test
+    void run_TasksOfModule_ShouldDeleteAssignmentsBeforeTheirTasks() {
+        // Arrange
+        Task task = Task.builder().id("t1").moduleId(3L).build();
+        when(mongoTemplate.find(any(Query.class), eq(Task.class))).thenReturn(List.of(task));
+        when(mongoTemplate.find(any(Query.class), eq(Assignment.class)))
+                .thenReturn(List.of(Assignment.builder().id("a1").taskId("t1").build()));
+        when(mongoTemplate.remove(any(Query.class), eq(Assignment.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.MODULE, 3L, CleanupPhase.TASKS), 500);
+
+        // Assert
+        assertEquals(new CleanupSteps.Result(1, false, false), result);
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Task.class));
+    }
+
+    @Test
+    void run_EnrollmentsOfCourse_WhenBatchIsNotFull_ShouldFinishPhase() {
+        // Arrange
+        when(enrollmentRepository.findIdsByCourseId(7L, Limit.of(500))).thenReturn(List.of(10L, 11L));
+        when(enrollmentRepository.deleteByIds(List.of(10L, 11L))).thenReturn(2);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.ENROLLMENTS), 500);
+
+        // Assert
+        assertEquals(new CleanupSteps.Result(2, true, false), result);
+    }
+
+    @Test
+    void run_EnrollmentsOfUser_ShouldDiscountThemFromCounters() {
+        // Arrange
+        GroupCount row = mock(GroupCount.class);
+        when(row.getId()).thenReturn(7L);
+        when(row.getTotal()).thenReturn(2L);
+        when(enrollmentRepository.findIdsByUserId(5L, Limit.of(500))).thenReturn(List.of(10L, 11L));
+        when(enrollmentRepository.countActiveByCourseIn(List.of(10L, 11L))).thenReturn(List.of(row));
+        when(enrollmentRepository.deleteByIds(List.of(10L, 11L))).thenReturn(2);
+
+        // Act
+        steps.run(job(CleanupTarget.USER, 5L, CleanupPhase.ENROLLMENTS), 500);
+
+        // Assert
+        verify(counters).enrollmentsRemoved(7L, 2L);
+    }
+
+    @Test
+    void run_ModulesOfCourse_ShouldDeleteBatchAndInvalidateCaches() {
+        // Arrange
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(2))).thenReturn(List.of(3L, 4L));
+        when(moduleRepository.deleteByIds(List.of(3L, 4L))).thenReturn(2);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.MODULES), 2);
+
+        // Assert
+        assertEquals(new CleanupSteps.Result(2, false, false), result);
+        verify(assignabilityCache).invalidateModule(3L);
+        verify(catalogCache).invalidateModule(4L);
+    }
+
+    @Test
+    void run_CoursesOfTeacher_ShouldDeactivateAndEnqueueEachCourse() {
+        // Arrange
+        when(courseRepository.findIdsByTeacherWithoutCleanup(5L, CleanupTarget.COURSE, Limit.of(500)))
+                .thenReturn(List.of(7L, 8L));
+        when(courseRepository.findActiveIds(List.of(7L, 8L))).thenReturn(List.of(7L));
+        when(moduleRepository.findIdsByCourseId(7L, Limit.unlimited())).thenReturn(List.of(3L));
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.USER, 5L, CleanupPhase.COURSES), 500);
+
+        // Assert
+        assertEquals(new CleanupSteps.Result(0, true, false), result);
+        verify(courseRepository).deactivate(List.of(7L, 8L));
+        verify(cleanupQueue).enqueue(CleanupTarget.COURSE, 7L);
+        verify(cleanupQueue).enqueue(CleanupTarget.COURSE, 8L);
+        verify(searchIndex).remove(8L);
+        //solo el curso que seguia activo se descuenta, con las tareas de sus modulos
+        verify(counters).courseRemoved(7L, List.of(3L));
+        verify(counters, never()).courseRemoved(eq(8L), any());
+    }
+
+    @Test
+    void run_ModulesOfCourse_WhenTaskCreatedAfterTasksPhase_ShouldReopenInsteadOfDeleting() {
+        // Arrange
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(500))).thenReturn(List.of(3L, 4L));
+        when(mongoTemplate.exists(any(Query.class), eq(Task.class))).thenReturn(true);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.MODULES), 500);
+
+        // Assert
+        assertTrue(result.reopen());
+        verify(moduleRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void run_RootOfCourse_ShouldDeleteWaitlistAndCourse() {
+        // Arrange
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of());
+        when(enrollmentRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of());
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertEquals(new CleanupSteps.Result(1, true, false), result);
+        verify(waitlistRepository).deleteByCourseId(7L);
+        verify(courseRepository).deleteById(7L);
+        verify(assignabilityCache).invalidateCourse(7L);
+    }
+
+    @Test
+    void run_RootOfCourse_WhenModuleAttachedAfterItsPhase_ShouldReopenInsteadOfDeleting() {
+        // Arrange
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of(9L));
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertTrue(result.reopen());
+        verify(courseRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void run_RootOfCourse_WhenEnrollmentAddedAfterItsPhase_ShouldReopenInsteadOfDeleting() {
+        // Arrange
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of());
+        when(enrollmentRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of(20L));
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertTrue(result.reopen());
+        verify(courseRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void run_RootOfCourse_WhenModuleAttachedAfterTheCheck_ShouldFailOnForeignKey() {
+        // Arrange: el modulo llega entre la revision y el DELETE
+        when(moduleRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of());
+        when(enrollmentRepository.findIdsByCourseId(7L, Limit.of(1))).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("fk_modules_course"))
+                .when(courseRepository).deleteById(7L);
+
+        // Act & Assert: el motor reintenta el lote y entonces la revision lo encuentra
+        assertThrows(DataIntegrityViolationException.class,
+                () -> steps.run(job(CleanupTarget.COURSE, 7L, CleanupPhase.ROOT), 500));
+        verify(catalogCache, never()).invalidateCourse(7L);
+    }
+
+    @Test
+    void run_RootOfModule_WhenTaskCreatedAfterItsPhase_ShouldReopen() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(Task.class))).thenReturn(true);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.MODULE, 3L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertTrue(result.reopen());
+        verify(moduleRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void run_RootOfUser_WhenAssignmentCreatedAfterItsPhase_ShouldReopen() {
+        // Arrange
+        when(enrollmentRepository.findIdsByUserId(5L, Limit.of(1))).thenReturn(List.of());
+        when(mongoTemplate.exists(any(Query.class), eq(Assignment.class))).thenReturn(true);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.USER, 5L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertTrue(result.reopen());
+        verify(userRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void run_RootOfUser_WhenStillTeaching_ShouldWait() {
+        // Arrange
+        when(enrollmentRepository.findIdsByUserId(5L, Limit.of(1))).thenReturn(List.of());
+        when(courseRepository.existsByTeacher_Id(5L)).thenReturn(true);
+
+        // Act
+        CleanupSteps.Result result = steps.run(job(CleanupTarget.USER, 5L, CleanupPhase.ROOT), 500);
+
+        // Assert
+        assertTrue(result.waiting());
+        verify(userRepository, never()).deleteById(any());
+    }
+}
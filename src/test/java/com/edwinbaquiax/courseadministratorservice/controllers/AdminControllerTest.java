@@ -0,0 +1,64 @@
+package com.edwinbaquiax.courseadministratorservice.controllers;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.counters.CounterReconciler;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICleanupJobRepository;
+import com.edwinbaquiax.courseadministratorservice.security.JwtTokenCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private JwtTokenCache tokenCache;
+
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Mock
+    private CourseCatalogCache catalogCache;
+
+    @Mock
+    private ICleanupJobRepository cleanupJobRepository;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private CounterReconciler counterReconciler;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @Test
+    void tokenCacheStats_ShouldReturnCacheCounters() {
+        // Arrange
+        CacheStatsDTO stats = CacheStatsDTO.builder()
+                .name("jwt-tokens")
+                .hits(10)
+                .misses(2)
+                .build();
+        when(tokenCache.stats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<CacheStatsDTO> response = adminController.tokenCacheStats();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(10, response.getBody().getHits());
+        verify(tokenCache, times(1)).stats();
+    }
+}
@@ -2,6 +2,10 @@ package com.edwinbaquiax.courseadministratorservice.controllers;
 
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkAssignmentResultDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeRequestDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeItemDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.assignment.IAssignmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -87,6 +91,49 @@ class AssignmentControllerTest {
         verify(assignmentService, times(1)).createAssignment(assignmentRequestDTO);
     }
 
+    @Test
+    void gradeAssignments_ShouldReturnReport() {
+        // Arrange
+        List<GradeItemDTO> grades = List.of(new GradeItemDTO(assignmentId, 90.0));
+        BulkGradeReportDTO report = BulkGradeReportDTO.builder()
+                .total(1)
+                .graded(1)
+                .build();
+        when(assignmentService.gradeAssignments(grades)).thenReturn(report);
+
+        // Act
+        ResponseEntity<BulkGradeReportDTO> response =
+                assignmentController.gradeAssignments(new BulkGradeRequestDTO(grades));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getGraded());
+        verify(assignmentService, times(1)).gradeAssignments(grades);
+    }
+
+    @Test
+    void assignToEnrolledStudents_ShouldReturnSummary() {
+        // Arrange
+        BulkAssignmentResultDTO result = BulkAssignmentResultDTO.builder()
+                .taskId(taskId)
+                .enrolled(30)
+                .created(28)
+                .alreadyAssigned(2)
+                .build();
+        when(assignmentService.assignToEnrolledStudents(taskId)).thenReturn(result);
+
+        // Act
+        ResponseEntity<BulkAssignmentResultDTO> response =
+                assignmentController.assignToEnrolledStudents(taskId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(28, response.getBody().getCreated());
+        verify(assignmentService, times(1)).assignToEnrolledStudents(taskId);
+    }
+
     @Test
     void updateAssignment_WithValidRequest_ShouldReturnOk() {
         // Arrange
@@ -5,6 +5,7 @@ import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResp
 import com.edwinbaquiax.courseadministratorservice.models.dtos.user.UserPrincipal;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.course.ICourseService;
+import com.edwinbaquiax.courseadministratorservice.services.coursetree.ICourseTreeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,7 +25,9 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -40,6 +43,9 @@ class CourseControllerTest {
     @Mock
     private ICourseService courseService;
 
+    @Mock
+    private ICourseTreeService courseTreeService;
+
     @Mock
     private CurrentUser currentUser;
 
@@ -88,6 +94,22 @@ class CourseControllerTest {
         assertEquals(courseId, response.getBody().get(0).getId());
     }
 
+    @Test
+    void exportCatalog_ShouldStreamServiceOutputAsNdjson() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = courseController.exportCatalog();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", String.valueOf(response.getHeaders().getContentType()));
+        verify(courseService, times(1)).exportCatalog(out);
+    }
+
     @Test
     void findAllCourses_ShouldReturnPageOfCourses() {
         // Arrange
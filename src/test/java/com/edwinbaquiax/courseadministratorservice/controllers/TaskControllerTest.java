@@ -1,7 +1,9 @@
 package com.edwinbaquiax.courseadministratorservice.controllers;
 
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.StudentTaskDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
 import com.edwinbaquiax.courseadministratorservice.services.task.ITaskService;
 import org.junit.jupiter.api.BeforeEach;
@@ -131,15 +133,19 @@ class TaskControllerTest {
     @Test
     void findTasksByModule_WithValidParameters_ShouldReturnPage() {
         // Arrange
-        Page<TaskResponseDTO> page = new PageImpl<>(
-                Collections.singletonList(taskResponseDTO),
+        TaskSummaryDTO summary = TaskSummaryDTO.builder()
+                .id(taskId)
+                .title("Test Task")
+                .build();
+        Page<TaskSummaryDTO> page = new PageImpl<>(
+                Collections.singletonList(summary),
                 PageRequest.of(0, 20), 1);
 
         when(taskService.findTasksByModule(eq(moduleId), eq(0), eq(20)))
                 .thenReturn(page);
 
         // Act
-        ResponseEntity<Page<TaskResponseDTO>> response =
+        ResponseEntity<Page<TaskSummaryDTO>> response =
                 taskController.findTasksByModule(moduleId, 0, 20);
 
         // Assert
@@ -152,8 +158,12 @@ class TaskControllerTest {
     @Test
     void findTasksByStudent_WithValidParameters_ShouldReturnPage() {
         // Arrange
-        Page<TaskResponseDTO> page = new PageImpl<>(
-                Collections.singletonList(taskResponseDTO),
+        StudentTaskDTO studentTask = StudentTaskDTO.builder()
+                .assignmentId("assignment-id")
+                .task(taskResponseDTO)
+                .build();
+        Page<StudentTaskDTO> page = new PageImpl<>(
+                Collections.singletonList(studentTask),
                 PageRequest.of(0, 20), 1);
 
         when(currentUser.getUserId()).thenReturn(1L);
@@ -161,14 +171,14 @@ class TaskControllerTest {
                 .thenReturn(page);
 
         // Act
-        ResponseEntity<Page<TaskResponseDTO>> response =
+        ResponseEntity<Page<StudentTaskDTO>> response =
                 taskController.findTasksByStudent(0, 20);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getTotalElements());
-        assertEquals(taskId, response.getBody().getContent().get(0).getId());
+        assertEquals(taskId, response.getBody().getContent().get(0).getTask().getId());
     }
 
 
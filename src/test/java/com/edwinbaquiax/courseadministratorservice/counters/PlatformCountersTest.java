@@ -0,0 +1,197 @@
+package com.edwinbaquiax.courseadministratorservice.counters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlatformCountersTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PlatformCounters counters;
+
+    private final Long courseId = 1L;
+    private final Long moduleId = 10L;
+
+    @Test
+    void writes_ShouldKeepCourseAndPlatformCountersInStep() {
+        // Act
+        counters.enrollmentAdded(courseId);
+        counters.enrollmentAdded(courseId);
+        counters.enrollmentAdded(2L);
+        counters.enrollmentMoved(2L, courseId);
+        counters.enrollmentRemoved(courseId);
+        counters.moduleAdded(courseId);
+        counters.taskAdded(moduleId);
+        counters.taskAdded(moduleId);
+
+        // Assert
+        assertEquals(2, counters.enrolledStudents(courseId));
+        assertEquals(0, counters.enrolledStudents(2L));
+        assertEquals(1, counters.moduleCount(courseId));
+        assertEquals(2, counters.taskCount(moduleId));
+        assertEquals(2, counters.platform().getEnrollments());
+        assertEquals(2, counters.platform().getTasks());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void courseRemoved_ShouldSubtractItsEnrollmentsModulesAndTasksFromTotals() {
+        // Arrange
+        counters.courseAdded();
+        counters.enrollmentAdded(courseId);
+        counters.moduleAdded(courseId);
+        counters.moduleAdded(courseId);
+        counters.taskAdded(moduleId);
+
+        // Act
+        counters.courseRemoved(courseId, List.of(moduleId, 11L));
+
+        // Assert
+        assertEquals(0, counters.enrolledStudents(courseId));
+        assertEquals(0, counters.moduleCount(courseId));
+        assertEquals(0, counters.taskCount(moduleId));
+        assertEquals(0, counters.platform().getCourses());
+        assertEquals(0, counters.platform().getEnrollments());
+        assertEquals(0, counters.platform().getModules());
+        assertEquals(0, counters.platform().getTasks());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteDeltasAndInsertMissingRows() {
+        // Arrange
+        counters.enrollmentAdded(courseId);
+        when(jdbcTemplate.batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList())).thenReturn(new int[]{1, 0});
+
+        // Act
+        counters.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(PlatformCounters.INSERT_SQL), inserts.capture());
+        assertEquals(1, inserts.getValue().size());
+        assertEquals(1, counters.enrolledStudents(courseId));
+
+        //sin cambios nuevos no se vuelve a escribir
+        counters.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepPendingChanges() {
+        // Arrange
+        counters.taskAdded(moduleId);
+        when(jdbcTemplate.batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList()))
+                .thenThrow(new IllegalStateException("sin conexion"))
+                .thenReturn(new int[]{1, 1});
+
+        // Act
+        counters.flush();
+        counters.flush();
+
+        // Assert
+        assertEquals(1, counters.taskCount(moduleId));
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList());
+    }
+
+    @Test
+    void flush_WhenInsertFailsAfterIncrements_ShouldRollBackAndWriteEachDeltaOnce() {
+        // Arrange: otra instancia inserto la misma llave primero
+        counters.enrollmentAdded(courseId);
+        when(jdbcTemplate.batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList()))
+                .thenReturn(new int[]{1, 0})
+                .thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.batchUpdate(eq(PlatformCounters.INSERT_SQL), anyList()))
+                .thenThrow(new DuplicateKeyException("counters_pkey"));
+
+        // Act
+        counters.flush();
+        counters.flush();
+        counters.flush();
+
+        // Assert: el primer intento se revierte completo y el segundo escribe los mismos deltas
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList());
+        assertEquals(1, counters.enrolledStudents(courseId));
+    }
+
+    @Test
+    void reset_ShouldReplaceValuesAndZeroCountersMissingFromSource() {
+        // Arrange
+        counters.enrollmentAdded(courseId);
+        when(jdbcTemplate.batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList())).thenReturn(new int[]{1, 1});
+        counters.flush();
+
+        // Act
+        counters.reset(Map.of(PlatformCounters.courseModules(courseId), 4L, PlatformCounters.MODULES, 4L));
+
+        // Assert
+        assertEquals(0, counters.enrolledStudents(courseId));
+        assertEquals(4, counters.moduleCount(courseId));
+        assertEquals(4, counters.platform().getModules());
+        verify(jdbcTemplate).update(PlatformCounters.DELETE_ALL_SQL);
+    }
+
+    @Test
+    void reset_ShouldDiscardPendingChangesAlreadyCountedBySource() {
+        // Arrange: cambios sin escribir que el recalculo ya incluye
+        counters.enrollmentAdded(courseId);
+        counters.enrollmentAdded(courseId);
+        counters.taskAdded(moduleId);
+
+        // Act
+        counters.reset(Map.of(PlatformCounters.courseEnrollments(courseId), 2L, PlatformCounters.ENROLLMENTS, 2L));
+
+        // Assert
+        assertEquals(2, counters.enrolledStudents(courseId));
+        assertEquals(2, counters.platform().getEnrollments());
+        assertEquals(0, counters.taskCount(moduleId));
+
+        //no queda nada pendiente por escribir
+        counters.flush();
+        verify(jdbcTemplate, never()).batchUpdate(eq(PlatformCounters.INCREMENT_SQL), anyList());
+    }
+
+    @Test
+    void concurrentWrites_ShouldNotLoseIncrements() throws InterruptedException {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            pool.execute(() -> counters.enrollmentAdded(courseId));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(10_000, counters.enrolledStudents(courseId));
+        assertEquals(10_000, counters.platform().getEnrollments());
+    }
+}
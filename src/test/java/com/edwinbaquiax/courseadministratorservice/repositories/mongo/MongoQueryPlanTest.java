@@ -0,0 +1,171 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.mongo;
+
+import com.edwinbaquiax.courseadministratorservice.config.MongoIndexInitializer;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta las consultas de los repositorios de Mongo contra un mongod embebido y revisa
+ * con {@code explain} que ninguna recorra la coleccion completa.
+ */
+class MongoQueryPlanTest {
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+
+    private static final List<Document> commands = new CopyOnWriteArrayList<>();
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static MongoIndexInitializer indexInitializer;
+
+    private ITaskRepository taskRepository;
+    private IAssignmentRepository assignmentRepository;
+    private String taskId;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + mongod.current().getServerAddress()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if (EXPLAINABLE.contains(event.getCommandName())) {
+                            commands.add(Document.parse(event.getCommand().toJson()));
+                        }
+                    }
+                })
+                .build());
+        mongoTemplate = new MongoTemplate(client, "course_administrator_test");
+
+        indexInitializer = new MongoIndexInitializer();
+        ReflectionTestUtils.setField(indexInitializer, "mongoTemplate", mongoTemplate);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        mongod.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Task.class);
+        mongoTemplate.dropCollection(Assignment.class);
+        assertEquals(List.of(), indexInitializer.ensureIndexes());
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        taskRepository = factory.getRepository(ITaskRepository.class);
+        assignmentRepository = factory.getRepository(IAssignmentRepository.class);
+
+        for (int i = 0; i < 50; i++) {
+            Task task = taskRepository.save(Task.builder()
+                    .title("Tarea " + i)
+                    .moduleId((long) (i % 5))
+                    .active(i % 7 != 0)
+                    .createdAt(LocalDateTime.now().minusDays(i))
+                    .build());
+            taskId = task.getId();
+            assignmentRepository.save(Assignment.builder()
+                    .userId((long) (i % 10))
+                    .taskId(task.getId())
+                    .status("PENDING")
+                    .submittedAt(LocalDateTime.now().minusHours(i))
+                    .build());
+        }
+        commands.clear();
+    }
+
+    @Test
+    void ensureIndexes_ShouldBeIdempotent() {
+        // Act
+        List<String> missing = indexInitializer.ensureIndexes();
+
+        // Assert
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void repositoryQueries_ShouldNotScanWholeCollection() {
+        // Arrange
+        Sort byCreatedAt = Sort.by("createdAt").descending();
+        Sort bySubmittedAt = Sort.by("submittedAt").descending();
+
+        // Act
+        taskRepository.findAllByModuleIdAndActiveTrue(1L, PageRequest.of(0, 20, byCreatedAt));
+        taskRepository.findSliceByModuleIdAndActiveTrue(1L, PageRequest.of(0, 20, byCreatedAt));
+        taskRepository.findAllByModuleIdInAndActiveTrue(List.of(1L, 2L), Sort.by("createdAt").ascending());
+
+        assignmentRepository.findAllByUserId(1L, PageRequest.of(0, 20, bySubmittedAt));
+        assignmentRepository.findAllByTaskId(taskId, PageRequest.of(0, 20, bySubmittedAt));
+        assignmentRepository.findSliceByUserId(1L, PageRequest.of(0, 20, bySubmittedAt));
+        assignmentRepository.findSliceByTaskId(taskId, PageRequest.of(0, 20, bySubmittedAt));
+        assignmentRepository.countByUserId(1L);
+        assignmentRepository.countByTaskId(taskId);
+        assignmentRepository.findByTaskIdOrderByIdAsc(taskId, Limit.of(10));
+        assignmentRepository.findByTaskIdAndIdGreaterThanOrderByIdAsc(taskId, new ObjectId(), Limit.of(10));
+        assignmentRepository.existsAssignmentByUserIdAndTaskId(1L, taskId);
+        assignmentRepository.findByTaskIdAndUserIdIn(taskId, List.of(1L, 2L, 3L));
+        assignmentRepository.findTaskIdsByIdIn(List.of(new ObjectId().toHexString()));
+        taskRepository.findValuesByIdIn(List.of(taskId));
+
+        // Assert
+        assertFalse(commands.isEmpty());
+        for (Document command : List.copyOf(commands)) {
+            Document plan = explain(command);
+            assertFalse(scansCollection(plan), () -> "COLLSCAN en " + command.toJson());
+        }
+    }
+
+    private static Document explain(Document command) {
+        Document explainable = new Document(command);
+        explainable.keySet().removeIf(key -> key.startsWith("$") || key.equals("lsid"));
+        return mongoTemplate.getDb().runCommand(new Document("explain", explainable)
+                .append("verbosity", "queryPlanner"));
+    }
+
+    //busca un COLLSCAN en el plan ganador, los planes descartados no cuentan
+    private static boolean scansCollection(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            if ("COLLSCAN".equals(map.get("stage"))) return true;
+            return map.entrySet().stream()
+                    .filter(e -> !"rejectedPlans".equals(e.getKey()))
+                    .anyMatch(e -> scansCollection(e.getValue()));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(MongoQueryPlanTest::scansCollection);
+        }
+        return false;
+    }
+}
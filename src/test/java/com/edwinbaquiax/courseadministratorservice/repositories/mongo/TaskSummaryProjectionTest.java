@@ -0,0 +1,178 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.mongo;
+
+import com.edwinbaquiax.courseadministratorservice.config.MongoIndexInitializer;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara el listado de tareas de un modulo con 500 tareas leyendo el documento completo
+ * y leyendo solo el resumen: bytes que devuelve Mongo y, con la etiqueta benchmark, latencia
+ * de la consulta.
+ */
+class TaskSummaryProjectionTest {
+
+    private static final long MODULE_ID = 1L;
+    private static final int TASKS = 500;
+
+    //bytes de las respuestas find/getMore y ultimo find enviado
+    private static final AtomicLong responseBytes = new AtomicLong();
+    private static final AtomicReference<BsonDocument> lastFind = new AtomicReference<>();
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ITaskRepository taskRepository;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + mongod.current().getServerAddress()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if ("find".equals(event.getCommandName())) lastFind.set(event.getCommand().clone());
+                    }
+
+                    @Override
+                    public void commandSucceeded(CommandSucceededEvent event) {
+                        if ("find".equals(event.getCommandName()) || "getMore".equals(event.getCommandName())) {
+                            responseBytes.addAndGet(new RawBsonDocument(event.getResponse(), new BsonDocumentCodec())
+                                    .getByteBuffer().remaining());
+                        }
+                    }
+                })
+                .build());
+        mongoTemplate = new MongoTemplate(client, "course_administrator_test");
+
+        MongoIndexInitializer indexInitializer = new MongoIndexInitializer();
+        ReflectionTestUtils.setField(indexInitializer, "mongoTemplate", mongoTemplate);
+        indexInitializer.ensureIndexes();
+
+        taskRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(ITaskRepository.class);
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Tarea " + i)
+                    .value(100.0)
+                    .description("Descripcion ".repeat(200))
+                    .instructions("Instrucciones ".repeat(400))
+                    .active(true)
+                    .typeTask("EXAM")
+                    .moduleId(MODULE_ID)
+                    .createdAt(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+        mongoTemplate.insertAll(tasks);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        mongod.close();
+    }
+
+    @Test
+    void findAllByModuleIdAndActiveTrue_ShouldProjectSummaryFields() {
+        // Act
+        taskRepository.findAllByModuleIdAndActiveTrue(MODULE_ID, PageRequest.of(0, 20));
+
+        // Assert
+        BsonDocument projection = lastFind.get().getDocument("projection");
+        assertTrue(projection.containsKey("title"));
+        assertTrue(projection.containsKey("created_at"));
+        assertFalse(projection.containsKey("description"));
+        assertFalse(projection.containsKey("instructions"));
+    }
+
+    @Test
+    void summaryListing_ShouldTransferAFractionOfTheFullDocuments() {
+        // Arrange
+        Pageable wholeModule = PageRequest.of(0, TASKS, Sort.by("createdAt").descending());
+
+        // Act
+        responseBytes.set(0);
+        assertEquals(TASKS, mongoTemplate.find(fullQuery(wholeModule), Task.class).size());
+        long fullBytes = responseBytes.getAndSet(0);
+        assertEquals(TASKS, taskRepository.findSliceByModuleIdAndActiveTrue(MODULE_ID, wholeModule)
+                .getNumberOfElements());
+        long summaryBytes = responseBytes.getAndSet(0);
+
+        // Assert
+        assertTrue(summaryBytes * 10 < fullBytes,
+                String.format("completo: %d bytes; resumen: %d bytes", fullBytes, summaryBytes));
+    }
+
+    //medicion de latencia: fuera de la suite normal, se corre con ./gradlew benchmark
+    @Test
+    @Tag("benchmark")
+    void summaryListing_ShouldBeFasterThanFullDocuments() {
+        // Arrange
+        Pageable wholeModule = PageRequest.of(0, TASKS, Sort.by("createdAt").descending());
+        Query fullQuery = fullQuery(wholeModule);
+        for (int i = 0; i < 20; i++) {//calentamiento del JIT y de la cache de mongod
+            mongoTemplate.find(fullQuery, Task.class);
+            taskRepository.findSliceByModuleIdAndActiveTrue(MODULE_ID, wholeModule);
+        }
+
+        // Act
+        long[] fullNanos = new long[50];
+        long[] summaryNanos = new long[50];
+        for (int i = 0; i < fullNanos.length; i++) {
+            long start = System.nanoTime();
+            mongoTemplate.find(fullQuery, Task.class);
+            fullNanos[i] = System.nanoTime() - start;
+        }
+        for (int i = 0; i < summaryNanos.length; i++) {
+            long start = System.nanoTime();
+            taskRepository.findSliceByModuleIdAndActiveTrue(MODULE_ID, wholeModule);
+            summaryNanos[i] = System.nanoTime() - start;
+        }
+
+        // Assert
+        Arrays.sort(fullNanos);
+        Arrays.sort(summaryNanos);
+        long fullMedian = fullNanos[fullNanos.length / 2];
+        long summaryMedian = summaryNanos[summaryNanos.length / 2];
+        assertTrue(summaryMedian < fullMedian, String.format("completo: mediana %d us; resumen: mediana %d us",
+                fullMedian / 1_000, summaryMedian / 1_000));
+    }
+
+    private static Query fullQuery(Pageable pageable) {
+        return Query.query(Criteria.where("moduleId").is(MODULE_ID).and("active").is(true)).with(pageable);
+    }
+}
@@ -0,0 +1,170 @@
+package com.edwinbaquiax.courseadministratorservice.repositories.sql;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Enrollment;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "uri.postgresql=jdbc:h2:mem",
+        "name.postgresql.db=test",
+        "user.postgresql=sa",
+        "password.postgresql=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ICourseRepositoryTest {
+
+    @Autowired
+    private ICourseRepository courseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<User> teachers = new ArrayList<>();
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        for (int t = 0; t < 5; t++) {
+            teachers.add(entityManager.persist(user("teacher" + t)));
+        }
+        student = entityManager.persist(user("student"));
+        for (int c = 0; c < 40; c++) {
+            Course course = entityManager.persist(Course.builder()
+                    .title("Curso " + c)
+                    .description("Descripcion " + c)
+                    .teacher(teachers.get(c % teachers.size()))
+                    .build());
+            if (c % 2 == 0) {
+                entityManager.persist(Enrollment.builder().user(student).course(course).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllCourseDTOs_ShouldUseOneSelectAndOneCountPerPage() {
+        // Act
+        Page<CourseResponseDTO> page = courseRepository.findAllCourseDTOs(PageRequest.of(0, 20, Sort.by("title")));
+
+        // Assert
+        assertEquals(20, page.getContent().size());
+        assertEquals(40, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(page.getContent().get(0).getNameTeacher().startsWith("Nombre"));
+    }
+
+    @Test
+    void findAllCourseDTOs_ShouldKeepCoursesWithoutTeacherInContentAndTotal() {
+        // Arrange
+        entityManager.persist(Course.builder().title("Curso sin docente").description("Descripcion").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Page<CourseResponseDTO> page = courseRepository.findAllCourseDTOs(PageRequest.of(0, 50, Sort.by("title")));
+
+        // Assert
+        assertEquals(41, page.getTotalElements());
+        assertEquals(41, page.getContent().size());
+        assertTrue(page.getContent().stream().anyMatch(c -> c.getTitle().equals("Curso sin docente")));
+    }
+
+    @Test
+    void streamAllWithTeacher_ShouldIncludeCoursesWithoutTeacher() {
+        // Arrange
+        entityManager.persist(Course.builder().title("Curso sin docente").description("Descripcion").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Course> exported;
+        try (Stream<Course> courses = courseRepository.streamAllWithTeacher()) {
+            exported = courses.toList();
+        }
+
+        // Assert
+        assertEquals(41, exported.size());
+        assertTrue(exported.stream().anyMatch(c -> c.getTeacher() == null));
+    }
+
+    @Test
+    void findCourseDTOsByStudent_ShouldUseOneSelectAndOneCountPerPage() {
+        // Act
+        Page<CourseResponseDTO> page = courseRepository.findCourseDTOsByStudent(student.getId(), PageRequest.of(0, 10, Sort.by("title")));
+
+        // Assert
+        assertEquals(10, page.getContent().size());
+        assertEquals(20, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findCourseDTOsByTeacher_ShouldUseOneSelectAndOneCountPerPage() {
+        // Act
+        Page<CourseResponseDTO> page = courseRepository.findCourseDTOsByTeacher(teachers.get(0).getId(), PageRequest.of(0, 5, Sort.by("title")));
+
+        // Assert
+        assertEquals(5, page.getContent().size());
+        assertEquals(8, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findCourseDTOsAfter_ShouldWalkEveryCourseOnceInTitleOrder() {
+        // Act
+        List<CourseResponseDTO> seen = new ArrayList<>();
+        List<CourseResponseDTO> page = courseRepository.findCourseDTOsFirstPage(Limit.of(7));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            CourseResponseDTO last = page.get(page.size() - 1);
+            page = courseRepository.findCourseDTOsAfter(last.getTitle(), last.getId(), Limit.of(7));
+        }
+
+        // Assert
+        List<String> titles = seen.stream().map(CourseResponseDTO::getTitle).toList();
+        assertEquals(40, titles.size());
+        assertEquals(titles.stream().sorted().toList(), titles);
+        assertEquals(40, titles.stream().distinct().count());
+    }
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .name("Nombre")
+                .lastname(username)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.edwinbaquiax.courseadministratorservice.search;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseSearchIndexTest {
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    @InjectMocks
+    private CourseSearchIndex index;
+
+    @Test
+    void search_ShouldIgnoreAccentsAndCase() {
+        // Arrange
+        index.index(course(1L, "Programación en Java", "Introducción a la programación"));
+
+        // Act & Assert
+        assertEquals(1, index.search("PROGRAMACION java", 10).size());
+        assertEquals(1, index.search("introducción", 10).size());
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAndRequireEveryTerm() {
+        // Arrange
+        index.index(course(1L, "Bases de datos", "SQL y modelado relacional"));
+        index.index(course(2L, "Estructuras de datos", "Listas, arboles y grafos"));
+
+        // Act & Assert
+        assertEquals(2, index.search("dat", 10).size());
+        assertEquals(List.of(1L), index.search("dat relac", 10));
+        assertTrue(index.search("dat quimica", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        // Arrange
+        index.index(course(1L, "Historia del arte", "Incluye una unidad de python para analisis"));
+        index.index(course(2L, "Python basico", "Primeros pasos"));
+
+        // Act
+        List<Long> results = index.search("python", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), results);
+    }
+
+    @Test
+    void search_ShouldExpandEveryTermSharingThePrefix() {
+        // Arrange: 100 palabras distintas que empiezan por "modulo"
+        for (long id = 1; id <= 100; id++) {
+            index.index(course(id, "Modulo" + id, "Practica"));
+        }
+
+        // Act
+        List<Long> results = index.search("modulo", 200);
+
+        // Assert
+        assertEquals(100, results.size());
+    }
+
+    @Test
+    void search_WithMoreMatchesThanLimit_ShouldKeepBestRankedInOrder() {
+        // Arrange
+        index.index(course(1L, "Redes", "Redes de computadoras y redes inalambricas"));
+        index.index(course(2L, "Seguridad", "Redes seguras"));
+        index.index(course(3L, "Redes avanzadas", "Enrutamiento"));
+        index.index(course(4L, "Sistemas", "Incluye redes"));
+
+        // Act
+        List<Long> results = index.search("redes", 2);
+
+        // Assert: 1 tiene el termino en titulo y descripcion, 3 solo en el titulo
+        assertEquals(List.of(1L, 3L), results);
+    }
+
+    @Test
+    void index_ShouldReplaceUpdatedCourseAndDropInactiveOrRemovedOnes() {
+        // Arrange
+        index.index(course(1L, "Fisica I", "Mecanica"));
+        index.index(course(2L, "Quimica", "General"));
+
+        // Act
+        index.index(course(1L, "Fisica II", "Electromagnetismo"));
+        CourseResponseDTO inactive = course(2L, "Quimica", "General");
+        inactive.setActive(false);
+        index.index(inactive);
+
+        // Assert
+        assertTrue(index.search("mecanica", 10).isEmpty());
+        assertEquals(1, index.search("electro", 10).size());
+        assertTrue(index.search("quimica", 10).isEmpty());
+        index.remove(1L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void rebuild_ShouldLoadCatalogInKeysetBatches() {
+        // Arrange
+        CourseResponseDTO first = course(1L, "Algebra", "Lineal");
+        CourseResponseDTO second = course(2L, "Calculo", "Diferencial");
+        when(courseRepository.findCourseDTOsFirstPage(any(Limit.class))).thenReturn(List.of(first, second));
+        when(courseRepository.findCourseDTOsAfter(eq("Calculo"), eq(2L), any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(2, index.size());
+    }
+
+    //medicion de latencia: fuera de la suite normal, se corre con ./gradlew benchmark
+    @Test
+    @Tag("benchmark")
+    void search_OnLargeCatalog_ShouldAnswerInUnderOneMillisecond() {
+        // Arrange: 100k cursos sinteticos con vocabulario en español
+        String[] vocabulary = {"programación", "introducción", "matemáticas", "física", "química", "historia",
+                "economía", "diseño", "gestión", "análisis", "datos", "redes", "seguridad", "biología",
+                "estadística", "álgebra", "cálculo", "ingeniería", "software", "música", "arte", "inglés",
+                "contabilidad", "marketing", "finanzas", "derecho", "psicología", "filosofía", "literatura",
+                "geografía", "robótica", "electrónica", "administración", "nutrición", "fotografía"};
+        Random random = new Random(42);
+        for (long id = 1; id <= 100_000; id++) {
+            String title = words(vocabulary, random, 3) + " " + id;
+            String description = words(vocabulary, random, 12);
+            index.index(course(id, title, description));
+        }
+        String[] queries = {"programacion", "analisis datos", "fisica quim", "estad", "gestion finanzas",
+                "segur redes", "calculo", "musica arte", "ingenieria software", "psico"};
+
+        for (int i = 0; i < 200; i++) {
+            index.search(queries[i % queries.length], 20);//calentamiento del JIT
+        }
+
+        // Act
+        long[] latencies = new long[1_000];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            List<Long> results = index.search(queries[i % queries.length], 20);
+            latencies[i] = System.nanoTime() - start;
+            assertFalse(results.isEmpty());
+        }
+
+        // Assert
+        Arrays.sort(latencies);
+        long medianNanos = latencies[latencies.length / 2];
+        assertTrue(medianNanos < 1_000_000, String.format("Mediana de %d ns por consulta", medianNanos));
+    }
+
+    private static String words(String[] vocabulary, Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return text.toString();
+    }
+
+    private static CourseResponseDTO course(Long id, String title, String description) {
+        return CourseResponseDTO.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .active(true)
+                .nameTeacher("Docente")
+                .build();
+    }
+}
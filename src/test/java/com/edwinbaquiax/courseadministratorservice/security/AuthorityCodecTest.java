@@ -0,0 +1,98 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AuthorityCodecTest {
+
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void encode_WithKnownRoles_ShouldRoundTrip() {
+        // Arrange
+        List<GrantedAuthority> roles = List.of(
+                new SimpleGrantedAuthority("ROLE_STUDENT"),
+                new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+        // Act
+        int mask = AuthorityCodec.encode(roles);
+        List<GrantedAuthority> decoded = AuthorityCodec.decode(mask);
+
+        // Assert
+        assertTrue(mask >= 0);
+        assertEquals(2, decoded.size());
+        assertTrue(decoded.containsAll(roles));
+        assertSame(AuthorityCodec.authority("ROLE_ADMIN"), decoded.get(1));
+    }
+
+    @Test
+    void encode_WithUnknownRole_ShouldFallbackToLegacy() throws Exception {
+        // Arrange
+        List<GrantedAuthority> roles = List.of(new SimpleGrantedAuthority("ROLE_AUDITOR"));
+
+        // Act
+        int mask = AuthorityCodec.encode(roles);
+        List<GrantedAuthority> decoded = AuthorityCodec.decodeLegacy(AuthorityCodec.encodeLegacy(roles));
+
+        // Assert
+        assertEquals(-1, mask);
+        assertEquals(roles, decoded);
+    }
+
+    @Test
+    void decodeLegacy_WithOldTokenClaim_ShouldReturnSharedInstances() throws Exception {
+        // Act
+        List<GrantedAuthority> decoded = AuthorityCodec.decodeLegacy("[{\"authority\":\"ROLE_TEACHER\"}]");
+
+        // Assert
+        assertSame(AuthorityCodec.authority("ROLE_TEACHER"), decoded.getFirst());
+    }
+
+    /**
+     * Microbenchmark: bytes asignados por decodificacion en el formato anterior y en el compacto.
+     */
+    @Test
+    void decode_AllocationPerRequest_ShouldBeNegligibleForCompactFormat() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        List<GrantedAuthority> roles = List.of(
+                new SimpleGrantedAuthority("ROLE_STUDENT"),
+                new SimpleGrantedAuthority("ROLE_TEACHER"));
+        String legacyClaim = AuthorityCodec.encodeLegacy(roles);
+        int mask = AuthorityCodec.encode(roles);
+        long threadId = Thread.currentThread().threadId();
+
+        //calentamiento para el JIT
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += AuthorityCodec.decodeLegacy(legacyClaim).size();
+            sink += AuthorityCodec.decode(mask).size();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += AuthorityCodec.decodeLegacy(legacyClaim).size();
+        }
+        double legacyBytesPerOp = (double) (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += AuthorityCodec.decode(mask).size();
+        }
+        double compactBytesPerOp = (double) (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+
+        assertNotEquals(0, sink);
+        assertTrue(compactBytesPerOp < 1.0, "el formato compacto no debe asignar memoria");
+        assertTrue(legacyBytesPerOp > compactBytesPerOp);
+    }
+}
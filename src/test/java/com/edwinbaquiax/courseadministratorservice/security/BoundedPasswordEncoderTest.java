@@ -0,0 +1,124 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateToBcrypt() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 5_000);
+
+        // Act
+        String hash = encoder.encode("secreto");
+
+        // Assert
+        assertTrue(encoder.matches("secreto", hash));
+        assertFalse(encoder.matches("otro", hash));
+    }
+
+    @Test
+    void encode_ShouldFailFastWhenQueueIsFull() throws Exception {
+        // Arrange: un hilo ocupado y la unica plaza de la cola tomada
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, 10_000);
+        CompletableFuture.runAsync(() -> encoder.encode("a"));
+        CompletableFuture.runAsync(() -> encoder.encode("b"));
+        waitUntilQueued(1);
+
+        // Act & Assert
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+    }
+
+    @Test
+    void matches_ShouldFailWhenHashTakesLongerThanMaxWait() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 4, 50);
+
+        // Act & Assert
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("a", "hash"));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldDetectHashesBelowConfiguredStrength() {
+        // Arrange
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secreto");
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, 5_000);
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void upgradeEncoding_WhenWorkIsQueued_ShouldPostponeTheUpgrade() throws Exception {
+        // Arrange: un hilo ocupado y otro hash esperando en la cola
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secreto");
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 2, 10_000);
+        CompletableFuture.runAsync(() -> encoder.encode("a"));
+        CompletableFuture.runAsync(() -> encoder.encode("b"));
+        waitUntilQueued(1);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        // Act
+        int low = BcryptCalibration.calibrate(1);
+        int high = BcryptCalibration.calibrate(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(BcryptCalibration.MIN_STRENGTH, low);
+        assertEquals(BcryptCalibration.MAX_STRENGTH, high);
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return true;
+            }
+        };
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitUntilQueued(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (encoder.queuedTasks() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.PasswordHashingBusyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HashUpgradeAuthenticationProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private UserDetailsPasswordService passwordService;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final UserDetails user = User.withUsername("ana").password("hash-viejo").roles("STUDENT").build();
+
+    @Test
+    void authenticate_WhenHashingPoolIsBusy_ShouldLoginWithoutUpgradingTheHash() {
+        // Arrange
+        HashUpgradeAuthenticationProvider provider =
+                new HashUpgradeAuthenticationProvider(userDetailsService, passwordEncoder, passwordService);
+        when(userDetailsService.loadUserByUsername("ana")).thenReturn(user);
+        when(passwordEncoder.matches("secreto", "hash-viejo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash-viejo")).thenReturn(true);
+        //lenient: el proveedor tambien hashea una clave fija contra ataques de tiempo
+        lenient().when(passwordEncoder.encode("secreto")).thenThrow(new PasswordHashingBusyException("ocupado"));
+
+        // Act
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("ana", "secreto"));
+
+        // Assert
+        assertTrue(result.isAuthenticated());
+        assertEquals(user, result.getPrincipal());
+        assertEquals(user.getAuthorities(), result.getAuthorities());
+        verify(passwordService, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    void authenticate_WhenHashIsOutdated_ShouldUpgradeIt() {
+        // Arrange
+        HashUpgradeAuthenticationProvider provider =
+                new HashUpgradeAuthenticationProvider(userDetailsService, passwordEncoder, passwordService);
+        when(userDetailsService.loadUserByUsername("ana")).thenReturn(user);
+        when(passwordEncoder.matches("secreto", "hash-viejo")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hash-viejo")).thenReturn(true);
+        lenient().when(passwordEncoder.encode("secreto")).thenReturn("hash-nuevo");
+        when(passwordService.updatePassword(user, "hash-nuevo")).thenReturn(user);
+
+        // Act
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("ana", "secreto"));
+
+        // Assert
+        assertTrue(result.isAuthenticated());
+        verify(passwordService).updatePassword(user, "hash-nuevo");
+    }
+}
@@ -0,0 +1,84 @@
+package com.edwinbaquiax.courseadministratorservice.security;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.admin.CacheStatsDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.user.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenCacheTest {
+
+    private JwtTokenCache tokenCache;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new JwtTokenCache(2);
+        authentication = new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(1L, "testuser"),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+    }
+
+    @Test
+    void get_WithCachedToken_ShouldReturnSameAuthentication() {
+        // Arrange
+        tokenCache.put("token-a", authentication, new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        UsernamePasswordAuthenticationToken result = tokenCache.get("token-a");
+
+        // Assert
+        assertSame(authentication, result);
+        assertEquals(1, tokenCache.stats().getHits());
+    }
+
+    @Test
+    void get_WithUnknownToken_ShouldCountMiss() {
+        // Act
+        UsernamePasswordAuthenticationToken result = tokenCache.get("token-a");
+
+        // Assert
+        assertNull(result);
+        assertEquals(1, tokenCache.stats().getMisses());
+    }
+
+    @Test
+    void get_WithExpiredToken_ShouldEvictEntry() throws InterruptedException {
+        // Arrange
+        tokenCache.put("token-a", authentication, new Date(System.currentTimeMillis() + 20));
+        Thread.sleep(40);
+
+        // Act
+        UsernamePasswordAuthenticationToken result = tokenCache.get("token-a");
+
+        // Assert
+        assertNull(result);
+        CacheStatsDTO stats = tokenCache.stats();
+        assertEquals(0, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+    }
+
+    @Test
+    void put_WhenFull_ShouldStayBounded() {
+        // Arrange
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+        // Act
+        tokenCache.put("token-a", authentication, expiration);
+        tokenCache.put("token-b", authentication, expiration);
+        tokenCache.put("token-c", authentication, expiration);
+
+        // Assert
+        CacheStatsDTO stats = tokenCache.stats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        assertSame(authentication, tokenCache.get("token-c"));
+    }
+}
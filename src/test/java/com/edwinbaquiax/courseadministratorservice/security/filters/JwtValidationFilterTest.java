@@ -0,0 +1,83 @@
+package com.edwinbaquiax.courseadministratorservice.security.filters;
+
+import com.edwinbaquiax.courseadministratorservice.security.AuthorityCodec;
+import com.edwinbaquiax.courseadministratorservice.security.JwtTokenCache;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtValidationFilterTest {
+
+    private final SecretKey secretKey = Jwts.SIG.HS256.key().build();
+    private JwtValidationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtValidationFilter(mock(AuthenticationManager.class), secretKey, new JwtTokenCache(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private String token(Object roles) {
+        return Jwts.builder()
+                .subject("testuser")
+                .claim("userId", 1L)
+                .claim(AuthorityCodec.ROLES_CLAIM, roles)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    @Test
+    void doFilter_WithValidRolesMask_ShouldAuthenticate() throws Exception {
+        // Act
+        MockHttpServletResponse response = filter(token(1));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_WithUnknownRolesMask_ShouldRespondUnauthorized() throws Exception {
+        // Act
+        MockHttpServletResponse response = filter(token(Integer.MAX_VALUE));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_WithoutRoles_ShouldRespondUnauthorized() throws Exception {
+        // Act
+        MockHttpServletResponse response = filter(token(null));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+    }
+}
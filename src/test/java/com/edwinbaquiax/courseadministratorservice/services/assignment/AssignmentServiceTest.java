@@ -1,34 +1,55 @@
 package com.edwinbaquiax.courseadministratorservice.services.assignment;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
 import com.edwinbaquiax.courseadministratorservice.exceptions.*;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.AssignmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkAssignmentResultDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.BulkGradeReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeItemDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.assignment.GradeResultDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.GradeStatus;
 import com.edwinbaquiax.courseadministratorservice.models.enums.TaskStatus;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.AssignmentProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.mongo.IAssignmentRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.CursorCodec;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -50,6 +71,18 @@ class AssignmentServiceTest {
     @Mock
     private CurrentUser currentUser;
 
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Mock
+    private ApproximateCounts approximateCounts;
+
+    @Mock
+    private IModuleRepository moduleRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private AssignmentService assignmentService;
 
@@ -92,7 +125,7 @@ class AssignmentServiceTest {
                 .thenReturn(false);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(enrollmentRepository.isAsignableToTaskStudent(eq(userId), any(), eq(2L)))
+        when(assignabilityCache.isAssignable(eq(userId), any(), eq(2L)))
                 .thenReturn(true);
         when(assignmentRepository.save(any(Assignment.class))).thenReturn(assignment);
 
@@ -116,17 +149,83 @@ class AssignmentServiceTest {
                 assignmentService.createAssignment(assignmentRequestDTO));
     }
 
+    @Test
+    void createAssignment_WhenConcurrentInsertWins_ShouldThrowException() {
+        // Arrange
+        when(assignmentRepository.existsAssignmentByUserIdAndTaskId(userId, taskId))
+                .thenReturn(false);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(assignabilityCache.isAssignable(eq(userId), any(), eq(2L)))
+                .thenReturn(true);
+        when(assignmentRepository.save(any(Assignment.class)))
+                .thenThrow(new DuplicateKeyException("user_id_1_task_id_1"));
+
+        // Act & Assert
+        assertThrows(AssignmentAlreadyExistException.class, () ->
+                assignmentService.createAssignment(assignmentRequestDTO));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void assignToEnrolledStudents_ShouldInsertMissingStudentsInOneBulkWrite() {
+        // Arrange
+        task.setModuleId(5L);
+        IAssignmentRepository.AssignedStudent existing = mock(IAssignmentRepository.AssignedStudent.class);
+        when(existing.getUserId()).thenReturn(2L);
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        BulkWriteResult writeResult = mock(BulkWriteResult.class);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(enrollmentRepository.findActiveStudentIdsByModuleAndTeacher(5L, 2L))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(assignmentRepository.findByTaskIdAndUserIdIn(taskId, List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(existing));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Assignment.class)).thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(writeResult);
+        when(writeResult.getInsertedCount()).thenReturn(2);
+
+        // Act
+        BulkAssignmentResultDTO result = assignmentService.assignToEnrolledStudents(taskId);
+
+        // Assert
+        assertEquals(3, result.getEnrolled());
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getAlreadyAssigned());
+        ArgumentCaptor<List<Assignment>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOps, times(1)).insert(inserted.capture());
+        assertEquals(List.of(1L, 3L), inserted.getValue().stream().map(Assignment::getUserId).toList());
+        verify(bulkOps, times(1)).execute();
+        verifyNoInteractions(userRepository, assignabilityCache);
+    }
+
+    @Test
+    void assignToEnrolledStudents_WhenCourseIsNotFromTeacher_ShouldThrowException() {
+        // Arrange
+        task.setModuleId(5L);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(enrollmentRepository.findActiveStudentIdsByModuleAndTeacher(5L, 2L)).thenReturn(List.of());
+        when(moduleRepository.findByIdAndCourse_Teacher_Id(5L, 2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () ->
+                assignmentService.assignToEnrolledStudents(taskId));
+        verifyNoInteractions(mongoTemplate);
+    }
+
     @Test
     void updateAssignment_WithValidRequest_ShouldReturnUpdatedAssignment() {
         // Arrange
         assignmentRequestDTO.setScore(85.0);
 
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(enrollmentRepository.isAsignableToTaskStudent(
+        when(assignabilityCache.isAssignable(
                 eq(userId), any(), eq(2L)))
                 .thenReturn(true);
-        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(assignmentRepository.save(any(Assignment.class))).thenReturn(assignment);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(assignment);
 
         // Act
         AssignmentResponseDTO result = assignmentService.updateAssignment(assignmentId, assignmentRequestDTO);
@@ -134,7 +233,31 @@ class AssignmentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(assignmentId, result.getId());
-        verify(assignmentRepository, times(1)).save(any(Assignment.class));
+        verify(assignmentRepository, never()).findById(any());
+        verify(assignmentRepository, never()).save(any(Assignment.class));
+    }
+
+    @Test
+    void updateAssignment_WithStaleVersion_ShouldThrowConflict() {
+        // Arrange
+        assignmentRequestDTO.setScore(85.0);
+        assignmentRequestDTO.setVersion(3L);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(assignabilityCache.isAssignable(eq(userId), any(), eq(2L))).thenReturn(true);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(null);
+        when(assignmentRepository.existsById(assignmentId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(AssignmentConflictException.class, () ->
+                assignmentService.updateAssignment(assignmentId, assignmentRequestDTO));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class));
+        assertEquals(3L, query.getValue().getQueryObject().get("version"));
+        assertEquals(userId, query.getValue().getQueryObject().get("userId"));
     }
 
     @Test
@@ -143,7 +266,7 @@ class AssignmentServiceTest {
         assignmentRequestDTO.setScore(120.0);
 
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        lenient().when(enrollmentRepository.isAsignableToTaskStudent(eq(userId), any(), eq(2L)))
+        lenient().when(assignabilityCache.isAssignable(eq(userId), any(), eq(2L)))
                 .thenReturn(true);
 
         lenient().when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
@@ -195,13 +318,99 @@ class AssignmentServiceTest {
         assertEquals(assignmentId, result.getContent().getFirst().getId());
     }
 
+    @Test
+    void gradeAssignments_ShouldValidateInMemoryAndWriteInOneBulk() {
+        // Arrange
+        IAssignmentRepository.AssignmentTask first = mock(IAssignmentRepository.AssignmentTask.class);
+        when(first.getId()).thenReturn("a1");
+        when(first.getTaskId()).thenReturn(taskId);
+        IAssignmentRepository.AssignmentTask second = mock(IAssignmentRepository.AssignmentTask.class);
+        when(second.getId()).thenReturn("a2");
+        when(second.getTaskId()).thenReturn(taskId);
+        ITaskRepository.TaskValue taskValue = mock(ITaskRepository.TaskValue.class);
+        when(taskValue.getId()).thenReturn(taskId);
+        when(taskValue.getValue()).thenReturn(100.0);
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        BulkWriteResult writeResult = mock(BulkWriteResult.class);
+
+        when(assignmentRepository.findTaskIdsByIdIn(any())).thenReturn(List.of(first, second));
+        when(taskRepository.findValuesByIdIn(Set.of(taskId))).thenReturn(List.of(taskValue));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Assignment.class)).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(writeResult);
+        when(writeResult.getMatchedCount()).thenReturn(1);
+
+        List<GradeItemDTO> grades = List.of(
+                new GradeItemDTO("a1", 80.0),
+                new GradeItemDTO("a2", 150.0),
+                new GradeItemDTO("missing", 50.0),
+                new GradeItemDTO("a1", 90.0));
+
+        // Act
+        BulkGradeReportDTO report = assignmentService.gradeAssignments(grades);
+
+        // Assert
+        assertEquals(4, report.getTotal());
+        assertEquals(1, report.getGraded());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(GradeStatus.GRADED, GradeStatus.INVALID_SCORE, GradeStatus.NOT_FOUND, GradeStatus.DUPLICATE),
+                report.getResults().stream().map(GradeResultDTO::getStatus).toList());
+        verify(taskRepository, times(1)).findValuesByIdIn(any());
+        ArgumentCaptor<Query> filter = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOps, times(1)).updateOne(filter.capture(), any(Update.class));
+        //mismo filtro condicional que la calificacion individual
+        assertTrue(filter.getValue().getQueryObject().containsKey("status"));
+        assertTrue(filter.getValue().getQueryObject().containsKey("$or"));
+        verify(bulkOps, times(1)).execute();
+        verify(assignmentRepository, never()).save(any(Assignment.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Assignment.class));
+    }
+
+    @Test
+    void gradeAssignments_WhenAssignmentClosedMeanwhile_ShouldReportConflict() {
+        // Arrange
+        IAssignmentRepository.AssignmentTask first = mock(IAssignmentRepository.AssignmentTask.class);
+        when(first.getId()).thenReturn("a1");
+        when(first.getTaskId()).thenReturn(taskId);
+        IAssignmentRepository.AssignmentTask second = mock(IAssignmentRepository.AssignmentTask.class);
+        when(second.getId()).thenReturn("a2");
+        when(second.getTaskId()).thenReturn(taskId);
+        ITaskRepository.TaskValue taskValue = mock(ITaskRepository.TaskValue.class);
+        when(taskValue.getId()).thenReturn(taskId);
+        when(taskValue.getValue()).thenReturn(100.0);
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        BulkWriteResult writeResult = mock(BulkWriteResult.class);
+        Assignment written = new Assignment();
+        written.setId("a1");
+
+        when(assignmentRepository.findTaskIdsByIdIn(any())).thenReturn(List.of(first, second));
+        when(taskRepository.findValuesByIdIn(Set.of(taskId))).thenReturn(List.of(taskValue));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Assignment.class)).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(writeResult);
+        //a2 se califico en otra peticion entre la validacion y la escritura
+        when(writeResult.getMatchedCount()).thenReturn(1);
+        when(mongoTemplate.find(any(Query.class), eq(Assignment.class))).thenReturn(List.of(written));
+
+        // Act
+        BulkGradeReportDTO report = assignmentService.gradeAssignments(List.of(
+                new GradeItemDTO("a1", 80.0),
+                new GradeItemDTO("a2", 70.0)));
+
+        // Assert
+        assertEquals(1, report.getGraded());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(GradeStatus.GRADED, GradeStatus.CONFLICT),
+                report.getResults().stream().map(GradeResultDTO::getStatus).toList());
+    }
+
     @Test
     void submitAssignment_WithValidParameters_ShouldUpdateAssignment() {
         // Arrange
         Double score = 95.5;
-        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(assignmentRepository.save(any(Assignment.class))).thenReturn(assignment);
+        assignment.setStatus(TaskStatus.COMPLETED.name());
+        assignment.setScore(score);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(assignment);
 
         // Act
         AssignmentResponseDTO result = assignmentService.submitAssignment(assignmentId, score);
@@ -209,8 +418,104 @@ class AssignmentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(assignmentId, result.getId());
-        assertEquals(TaskStatus.COMPLETED.name(), assignment.getStatus());
-        assertEquals(score, assignment.getScore());
-        assertNotNull(assignment.getSubmittedAt());
+        assertEquals(TaskStatus.COMPLETED.name(), result.getStatus());
+        assertEquals(score, result.getScore());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).findAndModify(query.capture(), update.capture(),
+                any(FindAndModifyOptions.class), eq(Assignment.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(new Document("$gte", score), filter.get("maxScore"));
+        assertTrue(filter.containsKey("status"));
+        assertEquals(TaskStatus.COMPLETED.name(), update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        verifyNoInteractions(assignmentRepository, taskRepository);
+    }
+
+    @Test
+    void submitAssignment_WhenAlreadyGraded_ShouldThrowConflict() {
+        // Arrange
+        assignment.setStatus(TaskStatus.COMPLETED.name());
+        assignment.setMaxScore(100.0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(null);
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+
+        // Act & Assert
+        assertThrows(AssignmentConflictException.class, () ->
+                assignmentService.submitAssignment(assignmentId, 90.0));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void submitAssignment_WithScoreOverMaxScore_ShouldThrowException() {
+        // Arrange
+        assignment.setMaxScore(100.0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(null);
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+
+        // Act & Assert
+        assertThrows(AssignmentInvalidScoreException.class, () ->
+                assignmentService.submitAssignment(assignmentId, 120.0));
+    }
+
+    @Test
+    void submitAssignment_WithoutMaxScore_ShouldValidateAgainstTaskAndFillIt() {
+        // Arrange: asignacion creada antes de max_score
+        Assignment graded = new Assignment();
+        graded.setId(assignmentId);
+        graded.setStatus(TaskStatus.COMPLETED.name());
+        graded.setScore(90.0);
+        graded.setMaxScore(100.0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(null)
+                .thenReturn(graded);
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+
+        // Act
+        AssignmentResponseDTO result = assignmentService.submitAssignment(assignmentId, 90.0);
+
+        // Assert
+        assertEquals(90.0, result.getScore());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(query.capture(), update.capture(),
+                any(FindAndModifyOptions.class), eq(Assignment.class));
+        //el segundo intento solo aplica si sigue sin max_score y lo completa con el valor de la tarea
+        assertTrue(query.getAllValues().get(1).getQueryObject().containsKey("maxScore"));
+        assertNull(query.getAllValues().get(1).getQueryObject().get("maxScore"));
+        assertEquals(100.0, update.getAllValues().get(1).getUpdateObject().get("$set", Document.class).get("maxScore"));
+    }
+
+    @Test
+    void submitAssignment_WithoutMaxScore_WhenScoreOverTaskValue_ShouldThrowException() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class)))
+                .thenReturn(null);
+        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(AssignmentInvalidScoreException.class, () ->
+                assignmentService.submitAssignment(assignmentId, 120.0));
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Assignment.class));
+    }
+
+    @Test
+    void findAssignmentsByTaskCursor_WithNonObjectIdCursor_ShouldThrowException() {
+        // Arrange
+        String cursor = CursorCodec.encode("not-an-object-id", null);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () ->
+                assignmentService.findAssignmentsByTaskCursor(taskId, cursor, 20));
+        verifyNoInteractions(assignmentRepository);
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,56 @@
 package com.edwinbaquiax.courseadministratorservice.services.course;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleAlreadyExistException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleBulkResultDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.CourseProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import com.edwinbaquiax.courseadministratorservice.search.CourseSearchIndex;
+import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import com.edwinbaquiax.courseadministratorservice.services.enrollment.SeatAllocator;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +66,36 @@ class CourseServiceTest {
     @Mock
     private IModuleRepository moduleRepository;
 
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Spy
+    private CourseCatalogCache catalogCache = new CourseCatalogCache(300, 1000);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CourseSearchIndex searchIndex;
+
+    @Mock
+    private CleanupQueue cleanupQueue;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private SeatAllocator seatAllocator;
+
+    @Mock
+    private IWaitlistRepository waitlistRepository;
+
+    @Mock
+    private ApproximateCounts approximateCounts;
+
+    @Mock
+    private CurrentUser currentUser;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -94,8 +146,8 @@ class CourseServiceTest {
     @Test
     void findAllCourseByPages_ShouldReturnPageOfCourses() {
         // Arrange
-        Page<Course> coursePage = new PageImpl<>(Collections.singletonList(course));
-        when(courseRepository.findAll(any(PageRequest.class))).thenReturn(coursePage);
+        Page<CourseResponseDTO> coursePage = new PageImpl<>(Collections.singletonList(CourseProfile.courseEntityToCourseResponseDTO(course)));
+        when(courseRepository.findAllCourseDTOs(any(PageRequest.class))).thenReturn(coursePage);
 
         // Act
         Page<CourseResponseDTO> result = courseService.findAllCourseByPages(0, 20);
@@ -109,9 +161,9 @@ class CourseServiceTest {
     @Test
     void findCoursesByStudent_WithValidStudent_ShouldReturnPage() {
         // Arrange
-        Page<Course> coursePage = new PageImpl<>(Collections.singletonList(course));
-        when(userRepository.findById(teacherId)).thenReturn(Optional.of(teacher));
-        when(courseRepository.findCoursesByStudent(eq(teacherId), any(PageRequest.class)))
+        Page<CourseResponseDTO> coursePage = new PageImpl<>(Collections.singletonList(CourseProfile.courseEntityToCourseResponseDTO(course)));
+        when(userRepository.existsById(teacherId)).thenReturn(true);
+        when(courseRepository.findCourseDTOsByStudent(eq(teacherId), any(PageRequest.class)))
                 .thenReturn(coursePage);
 
         // Act
@@ -126,7 +178,7 @@ class CourseServiceTest {
     @Test
     void findCoursesByStudent_WithNonExistentStudent_ShouldThrowException() {
         // Arrange
-        when(userRepository.findById(teacherId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(teacherId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(UserNotFoundException.class, () ->
@@ -249,9 +301,9 @@ class CourseServiceTest {
     @Test
     void findCoursesByTeacher_WithValidTeacher_ShouldReturnPage() {
         // Arrange
-        Page<Course> coursePage = new PageImpl<>(Collections.singletonList(course));
-        when(userRepository.findById(teacherId)).thenReturn(Optional.of(teacher));
-        when(courseRepository.findCoursesByTeacher_Id(eq(teacherId), any(PageRequest.class)))
+        Page<CourseResponseDTO> coursePage = new PageImpl<>(Collections.singletonList(CourseProfile.courseEntityToCourseResponseDTO(course)));
+        when(userRepository.existsById(teacherId)).thenReturn(true);
+        when(courseRepository.findCourseDTOsByTeacher(eq(teacherId), any(PageRequest.class)))
                 .thenReturn(coursePage);
 
         // Act
@@ -262,4 +314,283 @@ class CourseServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(courseId, result.getContent().get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportCatalog_ShouldWriteOneJsonLinePerCourse() throws Exception {
+        // Arrange
+        when(courseRepository.streamAllWithTeacher()).thenReturn(Stream.of(course));
+        when(counters.enrolledStudents(courseId)).thenReturn(3L);
+        when(counters.moduleCount(courseId)).thenReturn(2L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        courseService.exportCatalog(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Test Course\""));
+        assertTrue(lines[0].contains("\"enrolledStudents\":3"));
+        assertTrue(lines[0].contains("\"moduleCount\":2"));
+        verify(entityManager, times(1)).detach(course);
+    }
+
+    @Test
+    void exportCatalog_WithCourseWithoutTeacher_ShouldExportItWithoutTeacherName() throws Exception {
+        // Arrange
+        course.setTeacher(null);
+        when(courseRepository.streamAllWithTeacher()).thenReturn(Stream.of(course));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        courseService.exportCatalog(out);
+
+        // Assert
+        String line = out.toString(StandardCharsets.UTF_8).strip();
+        assertTrue(line.contains("\"title\":\"Test Course\""));
+        assertTrue(line.contains("\"nameTeacher\":null"));
+    }
+
+    @Test
+    void exportCatalog_WithLargeCatalog_ShouldKeepHeapBounded() throws Exception {
+        // Arrange: 300k cursos generados a demanda (~120 MB si se retuvieran todos)
+        int totalCourses = 300_000;
+        long ceilingBytes = 64L * 1024 * 1024;
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        long[] peak = {0};
+
+        Stream<Course> catalog = IntStream.range(0, totalCourses).mapToObj(i -> {
+            if (i % 50_000 == 0) {
+                System.gc();
+                peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory() - baseline);
+            }
+            User owner = new User();
+            owner.setName("Docente " + i);
+            owner.setLastname("Apellido " + i);
+            return Course.builder()
+                    .id((long) i)
+                    .title("Curso " + i)
+                    .description("Descripcion del curso numero " + i + " con algo de texto adicional")
+                    .active(true)
+                    .teacher(owner)
+                    .build();
+        });
+        when(courseRepository.streamAllWithTeacher()).thenReturn(catalog);
+        //contadores reales y un EntityManager sin registro: un mock normal guardaria cada curso con su invocacion
+        ReflectionTestUtils.setField(courseService, "counters", new PlatformCounters());
+        ReflectionTestUtils.setField(courseService, "entityManager", mock(EntityManager.class, withSettings().stubOnly()));
+        CountingOutputStream out = new CountingOutputStream();
+
+        // Act
+        courseService.exportCatalog(out);
+
+        // Assert
+        assertEquals(totalCourses, out.lines);
+        assertTrue(peak[0] < ceilingBytes,
+                String.format("Heap crecio %d bytes durante la exportacion", peak[0]));
+    }
+
+    //descarta los bytes y solo cuenta lineas
+    private static class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+    }
+
+    @Test
+    void findById_ShouldServeRepeatedReadsFromCacheUntilCourseIsUpdated() {
+        // Arrange
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(courseRepository.save(any(Course.class))).thenReturn(course);
+
+        // Act
+        courseService.findById(courseId);
+        courseService.findById(courseId);
+        courseService.updateCourse(courseId, teacherId, courseRequestDTO);
+        courseService.findById(courseId);
+
+        // Assert: una carga inicial, la de updateCourse y una recarga tras invalidar
+        verify(courseRepository, times(3)).findById(courseId);
+        verify(catalogCache, times(1)).invalidateCourse(courseId);
+    }
+
+    @Test
+    void searchCourses_ShouldReadCurrentCoursesAndSkipRemovedOnes() {
+        // Arrange
+        Long removedId = 99L;
+        course.setActive(true);
+        when(searchIndex.search(eq("java"), anyInt())).thenReturn(List.of(courseId, removedId));
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(courseRepository.findById(removedId)).thenReturn(Optional.empty());
+
+        // Act
+        List<CourseResponseDTO> results = courseService.searchCourses("java", 10);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(course.getTitle(), results.get(0).getTitle());
+    }
+
+    @Test
+    void updateCourse_ShouldReindexCourseForSearch() {
+        // Arrange
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(courseRepository.save(any(Course.class))).thenReturn(course);
+
+        // Act
+        courseService.updateCourse(courseId, teacherId, courseRequestDTO);
+
+        // Assert
+        verify(searchIndex, times(1)).index(argThat(dto -> dto.getId().equals(courseId)));
+    }
+
+    @Test
+    void attachModules_WhenEveryModuleIsFree_ShouldUseSingleUpdate() {
+        // Arrange
+        List<Long> ids = List.of(10L, 11L, 12L);
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(teacherId, true)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(course);
+        when(moduleRepository.attachToCourse(eq(course), anyCollection())).thenReturn(3);
+
+        // Act
+        ModuleBulkResultDTO result = courseService.attachModules(courseId, teacherId, ids);
+
+        // Assert
+        assertEquals(ids, result.getApplied());
+        assertTrue(result.getConflicts().isEmpty());
+        verify(moduleRepository, never()).findCourseIdsByIdIn(anyCollection());
+        verify(moduleRepository, never()).findById(any());
+        verify(courseRepository, never()).findById(any());
+        ids.forEach(id -> verify(assignabilityCache).invalidateModule(id));
+    }
+
+    @Test
+    void attachModules_ShouldReportPerModuleConflicts() {
+        // Arrange
+        List<Long> ids = List.of(10L, 11L, 12L, 13L);
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(teacherId, true)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(course);
+        when(moduleRepository.attachToCourse(eq(course), anyCollection())).thenReturn(1);
+        when(moduleRepository.findCourseIdsByIdIn(anyCollection())).thenReturn(List.of(
+                moduleCourse(10L, courseId), moduleCourse(11L, 99L), moduleCourse(13L, courseId)));
+
+        // Act
+        ModuleBulkResultDTO result = courseService.attachModules(courseId, teacherId, ids);
+
+        // Assert
+        assertEquals(List.of(10L, 13L), result.getApplied());
+        assertEquals(2, result.getConflicts().size());
+        assertEquals(11L, result.getConflicts().get(0).getModuleId());
+        assertEquals(12L, result.getConflicts().get(1).getModuleId());
+    }
+
+    @Test
+    void detachModules_ShouldInvalidateDetachedModules() {
+        // Arrange
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(teacherId, true)));
+        when(moduleRepository.detachFromCourse(eq(courseId), anyCollection())).thenReturn(1);
+
+        // Act
+        ModuleBulkResultDTO result = courseService.detachModules(courseId, teacherId, List.of(moduleId));
+
+        // Assert
+        assertEquals(List.of(moduleId), result.getApplied());
+        verify(assignabilityCache).invalidateModule(moduleId);
+        verify(catalogCache).invalidateModulesOfCourse(courseId);
+    }
+
+    @Test
+    void detachModules_WithDifferentTeacher_ShouldThrowException() {
+        // Arrange
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(99L, true)));
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () ->
+                courseService.detachModules(courseId, teacherId, List.of(moduleId)));
+        verify(moduleRepository, never()).detachFromCourse(any(), anyCollection());
+    }
+
+    @Test
+    void attachModules_AsAdmin_ShouldModifyAnotherTeachersCourse() {
+        // Arrange
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(99L, true)));
+        when(currentUser.isAdmin()).thenReturn(true);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(course);
+        when(moduleRepository.attachToCourse(eq(course), anyCollection())).thenReturn(1);
+
+        // Act
+        ModuleBulkResultDTO result = courseService.attachModules(courseId, teacherId, List.of(moduleId));
+
+        // Assert
+        assertEquals(List.of(moduleId), result.getApplied());
+    }
+
+    @Test
+    void attachModules_WithInactiveCourse_ShouldThrowException() {
+        // Arrange
+        when(courseRepository.findOwnerById(courseId)).thenReturn(Optional.of(courseOwner(teacherId, false)));
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () ->
+                courseService.attachModules(courseId, teacherId, List.of(moduleId)));
+        verify(moduleRepository, never()).attachToCourse(any(), anyCollection());
+    }
+
+    @Test
+    void deleteCourse_ShouldDeactivateCourseAndQueueCleanup() {
+        // Arrange
+        course.setActive(true);
+        when(courseRepository.findByIdAndTeacher_Id(courseId, teacherId)).thenReturn(Optional.of(course));
+
+        // Act
+        CourseResponseDTO result = courseService.deleteCourse(teacherId, courseId);
+
+        // Assert
+        assertFalse(result.isActive());
+        verify(courseRepository, never()).delete(any(Course.class));
+        verify(cleanupQueue, times(1)).enqueue(CleanupTarget.COURSE, courseId);
+        verify(searchIndex, times(1)).remove(courseId);
+        verify(waitlistRepository, times(1)).deleteByCourseId(courseId);
+        verify(seatAllocator, times(1)).forget(courseId);
+    }
+
+    private static ICourseRepository.CourseOwner courseOwner(Long teacherId, boolean active) {
+        return new ICourseRepository.CourseOwner() {
+            @Override
+            public Long getTeacherId() {
+                return teacherId;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+        };
+    }
+
+    private static IModuleRepository.ModuleCourse moduleCourse(Long id, Long courseId) {
+        return new IModuleRepository.ModuleCourse() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCourseId() {
+                return courseId;
+            }
+        };
+    }
+}
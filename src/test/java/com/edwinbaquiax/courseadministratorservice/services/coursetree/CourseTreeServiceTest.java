@@ -0,0 +1,124 @@
+package com.edwinbaquiax.courseadministratorservice.services.coursetree;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.course.CourseTreeDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
+import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.services.course.ICourseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseTreeServiceTest {
+
+    @Mock
+    private ICourseService courseService;
+
+    @Mock
+    private IModuleRepository moduleRepository;
+
+    @Mock
+    private ITaskRepository taskRepository;
+
+    @InjectMocks
+    private CourseTreeService courseTreeService;
+
+    private ExecutorService executor;
+    private final Long courseId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        ReflectionTestUtils.setField(courseTreeService, "queryExecutor", executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void getCourseTree_ShouldLoadTasksOfAllModulesInOneQuery() {
+        // Arrange
+        when(courseService.findById(courseId)).thenReturn(CourseResponseDTO.builder().id(courseId).title("Java").build());
+        when(moduleRepository.findActiveModuleDTOsByCourse(courseId)).thenReturn(List.of(module(10L), module(20L), module(30L)));
+        when(taskRepository.findAllByModuleIdInAndActiveTrue(anyCollection(), any(Sort.class))).thenReturn(List.of(
+                task("a", 10L), task("b", 10L), task("c", 30L)));
+
+        // Act
+        CourseTreeDTO tree = courseTreeService.getCourseTree(courseId);
+
+        // Assert
+        assertEquals(courseId, tree.getCourse().getId());
+        assertEquals(3, tree.getModules().size());
+        assertEquals(2, tree.getModules().get(0).getTasks().size());
+        assertTrue(tree.getModules().get(1).getTasks().isEmpty());
+        assertEquals("c", tree.getModules().get(2).getTasks().get(0).getId());
+        verify(taskRepository, times(1)).findAllByModuleIdInAndActiveTrue(eq(List.of(10L, 20L, 30L)), any(Sort.class));
+    }
+
+    @Test
+    void getCourseTree_ShouldQueryCourseAndModulesConcurrently() {
+        // Arrange: cada consulta espera a que la otra haya empezado
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(courseService.findById(courseId)).thenAnswer(inv -> {
+            awaitOther(bothStarted);
+            return CourseResponseDTO.builder().id(courseId).build();
+        });
+        when(moduleRepository.findActiveModuleDTOsByCourse(courseId)).thenAnswer(inv -> {
+            awaitOther(bothStarted);
+            return List.of();
+        });
+
+        // Act
+        CourseTreeDTO tree = courseTreeService.getCourseTree(courseId);
+
+        // Assert
+        assertTrue(tree.getModules().isEmpty());
+        verify(taskRepository, never()).findAllByModuleIdInAndActiveTrue(anyCollection(), any(Sort.class));
+    }
+
+    @Test
+    void getCourseTree_WithNonExistentCourse_ShouldThrowException() {
+        // Arrange
+        when(courseService.findById(courseId)).thenThrow(new CourseNotFoundException());
+        lenient().when(moduleRepository.findActiveModuleDTOsByCourse(courseId)).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> courseTreeService.getCourseTree(courseId));
+    }
+
+    private static void awaitOther(CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Las consultas no se ejecutaron en paralelo");
+    }
+
+    private static ModuleResponseDTO module(Long id) {
+        return ModuleResponseDTO.builder().id(id).moduleName("Modulo " + id).active(true).build();
+    }
+
+    private static Task task(String id, Long moduleId) {
+        return Task.builder().id(id).title("Tarea " + id).moduleId(moduleId).active(true).build();
+    }
+}
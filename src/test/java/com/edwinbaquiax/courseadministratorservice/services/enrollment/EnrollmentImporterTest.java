@@ -0,0 +1,154 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportRowDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.enums.EnrollmentImportStatus;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentImporterTest {
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    @Mock
+    private IEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private SeatAllocator seatAllocator;
+
+    @Mock
+    private Waitlist waitlist;
+
+    @Mock
+    private EnrollmentWriter enrollmentWriter;
+
+    @InjectMocks
+    private EnrollmentImporter importer;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importChunk_ShouldClassifyRowsWithSetQueriesAndInsertInOneBatch() {
+        // Arrange
+        List<EnrollmentImporter.Row> rows = List.of(
+                new EnrollmentImporter.Row(1, 1L, 10L),
+                new EnrollmentImporter.Row(2, 2L, 10L),
+                new EnrollmentImporter.Row(3, 1L, 10L),
+                new EnrollmentImporter.Row(4, 3L, 10L),
+                new EnrollmentImporter.Row(5, 1L, 99L),
+                new EnrollmentImporter.Row(6, 2L, 20L));
+        when(userRepository.findEnabledIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(courseRepository.findActiveIds(anyCollection())).thenReturn(List.of(10L, 20L));
+        IEnrollmentRepository.UserCourse existing = mock(IEnrollmentRepository.UserCourse.class);
+        when(existing.getUserId()).thenReturn(2L);
+        when(existing.getCourseId()).thenReturn(10L);
+        when(enrollmentRepository.findActivePairs(anyCollection(), anyCollection())).thenReturn(List.of(existing));
+        when(seatAllocator.tryReserve(anyLong())).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        // Act
+        List<EnrollmentImportRowDTO> result = importer.importChunk(rows);
+
+        // Assert
+        assertEquals(List.of(
+                EnrollmentImportStatus.CREATED,
+                EnrollmentImportStatus.DUPLICATE,
+                EnrollmentImportStatus.DUPLICATE,
+                EnrollmentImportStatus.USER_NOT_FOUND,
+                EnrollmentImportStatus.COURSE_NOT_FOUND,
+                EnrollmentImportStatus.CREATED), result.stream().map(EnrollmentImportRowDTO::getStatus).toList());
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(EnrollmentImporter.INSERT_SQL), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        verify(counters).enrollmentsAdded(10L, 1);
+        verify(counters).enrollmentsAdded(20L, 1);
+        verify(assignabilityCache).invalidateCourse(10L);
+        verify(assignabilityCache).invalidateCourse(20L);
+        verify(enrollmentRepository, never()).save(any());
+    }
+
+    @Test
+    void importChunk_WhenConcurrentEnrollmentWins_ShouldReportDuplicateAndReleaseSeat() {
+        // Arrange: la segunda fila choca con una inscripcion confirmada despues de la consulta
+        when(userRepository.findEnabledIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(courseRepository.findActiveIds(anyCollection())).thenReturn(List.of(10L));
+        when(seatAllocator.tryReserve(10L)).thenReturn(true);
+        when(enrollmentWriter.supportsOnConflict()).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(eq(EnrollmentImporter.INSERT_IGNORING_DUPLICATES_SQL), anyList()))
+                .thenReturn(new int[]{1, 0});
+
+        // Act
+        List<EnrollmentImportRowDTO> result = importer.importChunk(List.of(
+                new EnrollmentImporter.Row(1, 1L, 10L),
+                new EnrollmentImporter.Row(2, 2L, 10L)));
+
+        // Assert
+        assertEquals(List.of(EnrollmentImportStatus.CREATED, EnrollmentImportStatus.DUPLICATE),
+                result.stream().map(EnrollmentImportRowDTO::getStatus).toList());
+        verify(counters).enrollmentsAdded(10L, 1);
+        verify(seatAllocator, times(1)).releaseAfterCommit(10L);
+    }
+
+    @Test
+    void importChunk_WithNoValidRows_ShouldSkipInsert() {
+        // Arrange
+        when(userRepository.findEnabledIds(anyCollection())).thenReturn(List.of());
+        when(courseRepository.findActiveIds(anyCollection())).thenReturn(List.of(10L));
+
+        // Act
+        List<EnrollmentImportRowDTO> result = importer.importChunk(List.of(new EnrollmentImporter.Row(1, 7L, 10L)));
+
+        // Assert
+        assertEquals(EnrollmentImportStatus.USER_NOT_FOUND, result.get(0).getStatus());
+        verify(enrollmentRepository, never()).findActivePairs(anyCollection(), anyCollection());
+        verifyNoInteractions(jdbcTemplate, counters);
+    }
+
+    @Test
+    void importChunk_WhenCourseIsFull_ShouldWaitlistRowInsteadOfInserting() {
+        // Arrange
+        when(userRepository.findEnabledIds(anyCollection())).thenReturn(List.of(1L));
+        when(courseRepository.findActiveIds(anyCollection())).thenReturn(List.of(10L));
+        when(seatAllocator.tryReserve(10L)).thenReturn(false);
+        when(waitlist.join(1L, 10L)).thenReturn(EnrollmentResponseDTO.builder()
+                .userId(1L).courseId(10L).waitlisted(true).waitlistPosition(4L).build());
+
+        // Act
+        List<EnrollmentImportRowDTO> result = importer.importChunk(List.of(new EnrollmentImporter.Row(1, 1L, 10L)));
+
+        // Assert
+        assertEquals(EnrollmentImportStatus.WAITLISTED, result.get(0).getStatus());
+        assertTrue(result.get(0).getMessage().contains("4"));
+        verifyNoInteractions(jdbcTemplate, counters);
+    }
+}
@@ -1,33 +1,51 @@
 package com.edwinbaquiax.courseadministratorservice.services.enrollment;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.EnrollmentExistException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.EnrollmentNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.SlicePageDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportReportDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentImportRowDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Enrollment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.EnrollmentImportStatus;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.EnrollmentProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -43,6 +61,27 @@ class EnrollmentServiceTest {
     @Mock
     private ICourseRepository courseRepository;
 
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private EnrollmentImporter importer;
+
+    @Mock
+    private EnrollmentWriter enrollmentWriter;
+
+    @Mock
+    private SeatAllocator seatAllocator;
+
+    @Mock
+    private Waitlist waitlist;
+
+    @Mock
+    private ApproximateCounts approximateCounts;
+
     @InjectMocks
     private EnrollmentService enrollmentService;
 
@@ -79,11 +118,14 @@ class EnrollmentServiceTest {
     @Test
     void enrollStudent_WithValidRequest_ShouldReturnEnrollment() {
         // Arrange
-        when(enrollmentRepository.findByUser_IdAndCourse_IdAndActiveTrueAndCourse_ActiveTrue(userId, courseId))
-                .thenReturn(Optional.empty());
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(enrollment);
+        EnrollmentResponseDTO created = EnrollmentResponseDTO.builder()
+                .id(enrollmentId)
+                .userId(userId)
+                .courseId(courseId)
+                .active(true)
+                .build();
+        when(seatAllocator.tryReserve(courseId)).thenReturn(true);
+        when(enrollmentWriter.insertIfAbsent(userId, courseId)).thenReturn(created);
 
         // Act
         EnrollmentResponseDTO result = enrollmentService.enrollStudent(enrollmentRequestDTO);
@@ -91,26 +133,31 @@ class EnrollmentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(enrollmentId, result.getId());
-        verify(enrollmentRepository, times(1)).save(any(Enrollment.class));
+        verify(counters, times(1)).enrollmentAdded(courseId);
+        verifyNoInteractions(userRepository, courseRepository);
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
     }
 
     @Test
     void enrollStudent_WithExistingEnrollment_ShouldThrowException() {
         // Arrange
-        when(enrollmentRepository.findByUser_IdAndCourse_IdAndActiveTrueAndCourse_ActiveTrue(userId, courseId))
-                .thenReturn(Optional.of(enrollment));
+        when(seatAllocator.tryReserve(courseId)).thenReturn(true);
+        when(enrollmentWriter.insertIfAbsent(userId, courseId)).thenReturn(null);
+        when(userRepository.existsByIdAndEnabledTrue(userId)).thenReturn(true);
+        when(courseRepository.existsByIdAndActiveTrue(courseId)).thenReturn(true);
 
         // Act & Assert
         assertThrows(EnrollmentExistException.class, () ->
                 enrollmentService.enrollStudent(enrollmentRequestDTO));
+        verifyNoInteractions(counters);
     }
 
     @Test
     void enrollStudent_WithNonExistentUser_ShouldThrowException() {
         // Arrange
-        when(enrollmentRepository.findByUser_IdAndCourse_IdAndActiveTrueAndCourse_ActiveTrue(userId, courseId))
-                .thenReturn(Optional.empty());
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(seatAllocator.tryReserve(courseId)).thenReturn(true);
+        when(enrollmentWriter.insertIfAbsent(userId, courseId)).thenReturn(null);
+        when(userRepository.existsByIdAndEnabledTrue(userId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(UserNotFoundException.class, () ->
@@ -119,11 +166,11 @@ class EnrollmentServiceTest {
 
     @Test
     void enrollStudent_WithNonExistentCourse_ShouldThrowException() {
-        // Arrange
-        when(enrollmentRepository.findByUser_IdAndCourse_IdAndActiveTrueAndCourse_ActiveTrue(userId, courseId))
-                .thenReturn(Optional.empty());
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(courseRepository.findById(courseId)).thenReturn(Optional.empty());
+        // Arrange: tambien un curso eliminado, que sigue inactivo hasta terminar su limpieza
+        when(seatAllocator.tryReserve(courseId)).thenReturn(true);
+        when(enrollmentWriter.insertIfAbsent(userId, courseId)).thenReturn(null);
+        when(userRepository.existsByIdAndEnabledTrue(userId)).thenReturn(true);
+        when(courseRepository.existsByIdAndActiveTrue(courseId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(CourseNotFoundException.class, () ->
@@ -142,6 +189,43 @@ class EnrollmentServiceTest {
         // Assert
         assertFalse(enrollment.isActive());
         verify(enrollmentRepository, times(1)).save(enrollment);
+        verify(counters, times(1)).enrollmentRemoved(courseId);
+        verify(seatAllocator, times(1)).releaseAfterCommit(courseId);
+    }
+
+    @Test
+    void enrollStudent_WhenCourseIsFull_ShouldJoinWaitlist() {
+        // Arrange
+        EnrollmentResponseDTO waiting = EnrollmentResponseDTO.builder()
+                .userId(userId)
+                .courseId(courseId)
+                .waitlisted(true)
+                .waitlistPosition(3L)
+                .build();
+        when(seatAllocator.tryReserve(courseId)).thenReturn(false);
+        when(waitlist.join(userId, courseId)).thenReturn(waiting);
+
+        // Act
+        EnrollmentResponseDTO result = enrollmentService.enrollStudent(enrollmentRequestDTO);
+
+        // Assert
+        assertTrue(result.isWaitlisted());
+        assertEquals(3L, result.getWaitlistPosition());
+        verifyNoInteractions(enrollmentWriter, counters);
+    }
+
+    @Test
+    void cancelEnrollment_WithWaitlist_ShouldHandSeatToNextInLine() {
+        // Arrange
+        when(enrollmentRepository.findById(enrollmentId)).thenReturn(Optional.of(enrollment));
+        when(waitlist.promoteNext(courseId)).thenReturn(EnrollmentResponseDTO.builder().id(2L).build());
+
+        // Act
+        enrollmentService.cancelEnrollment(enrollmentId);
+
+        // Assert
+        assertFalse(enrollment.isActive());
+        verify(seatAllocator, never()).releaseAfterCommit(any());
     }
 
     @Test
@@ -154,6 +238,77 @@ class EnrollmentServiceTest {
                 enrollmentService.cancelEnrollment(enrollmentId));
     }
 
+    @Test
+    void enrollStudent_WithRealSeatAllocator_ShouldFillCourseThenWaitlist() {
+        // Arrange: cupo de 1 y ninguna inscripcion previa
+        useRealSeatAllocator(courseId, 1, 0);
+        EnrollmentRequestDTO second = new EnrollmentRequestDTO();
+        second.setUserId(2L);
+        second.setCourseId(courseId);
+        when(enrollmentWriter.insertIfAbsent(userId, courseId)).thenReturn(EnrollmentResponseDTO.builder()
+                .id(enrollmentId).userId(userId).courseId(courseId).active(true).build());
+        when(waitlist.join(2L, courseId)).thenReturn(EnrollmentResponseDTO.builder()
+                .userId(2L).courseId(courseId).waitlisted(true).waitlistPosition(1L).build());
+
+        // Act
+        EnrollmentResponseDTO first = enrollmentService.enrollStudent(enrollmentRequestDTO);
+        EnrollmentResponseDTO waiting = enrollmentService.enrollStudent(second);
+
+        // Assert
+        assertTrue(first.isActive());
+        assertTrue(waiting.isWaitlisted());
+        verify(enrollmentWriter, never()).insertIfAbsent(2L, courseId);
+    }
+
+    @Test
+    void updateEnrollment_ToFullCourse_ShouldWaitlistAndKeepEnrollment() {
+        // Arrange
+        Long fullCourseId = 2L;
+        useRealSeatAllocator(fullCourseId, 1, 1);
+        Course fullCourse = new Course();
+        fullCourse.setId(fullCourseId);
+        EnrollmentRequestDTO request = new EnrollmentRequestDTO();
+        request.setUserId(userId);
+        request.setCourseId(fullCourseId);
+        when(enrollmentRepository.findById(enrollmentId)).thenReturn(Optional.of(enrollment));
+        when(courseRepository.findById(fullCourseId)).thenReturn(Optional.of(fullCourse));
+        when(waitlist.join(userId, fullCourseId)).thenReturn(EnrollmentResponseDTO.builder()
+                .userId(userId).courseId(fullCourseId).waitlisted(true).build());
+
+        // Act
+        EnrollmentResponseDTO result = enrollmentService.updateEnrollment(enrollmentId, request);
+
+        // Assert
+        assertTrue(result.isWaitlisted());
+        assertEquals(courseId, enrollment.getCourse().getId());
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
+        verifyNoInteractions(counters);
+    }
+
+    @Test
+    void updateEnrollment_ToCourseWithSeat_ShouldMoveAndFreePreviousSeat() {
+        // Arrange
+        Long targetCourseId = 2L;
+        useRealSeatAllocator(targetCourseId, 5, 1);
+        Course target = new Course();
+        target.setId(targetCourseId);
+        EnrollmentRequestDTO request = new EnrollmentRequestDTO();
+        request.setUserId(userId);
+        request.setCourseId(targetCourseId);
+        when(enrollmentRepository.findById(enrollmentId)).thenReturn(Optional.of(enrollment));
+        when(courseRepository.findById(targetCourseId)).thenReturn(Optional.of(target));
+        when(enrollmentRepository.save(enrollment)).thenReturn(enrollment);
+        when(waitlist.promoteNext(courseId)).thenReturn(EnrollmentResponseDTO.builder().id(3L).build());
+
+        // Act
+        EnrollmentResponseDTO result = enrollmentService.updateEnrollment(enrollmentId, request);
+
+        // Assert: el lugar que deja en el curso anterior pasa a la lista de espera
+        assertEquals(targetCourseId, result.getCourseId());
+        verify(counters, times(1)).enrollmentMoved(courseId, targetCourseId);
+        verify(waitlist, times(1)).promoteNext(courseId);
+    }
+
     @Test
     void getEnrollmentsByStudent_WithValidParameters_ShouldReturnPage() {
         // Arrange
@@ -170,6 +325,23 @@ class EnrollmentServiceTest {
         assertEquals(enrollmentId, result.getContent().get(0).getId());
     }
 
+    @Test
+    void getEnrollmentsByCourseSlice_ShouldSkipCountQuery() {
+        // Arrange
+        when(enrollmentRepository.findSliceByCourse_Id(eq(courseId), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(enrollment), PageRequest.of(0, 1), true));
+
+        // Act
+        SlicePageDTO<EnrollmentResponseDTO> result = enrollmentService.getEnrollmentsByCourseSlice(courseId, 0, 1, false);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getApproxTotal());
+        verify(enrollmentRepository, never()).findAllByCourse_Id(any(), any());
+        verify(enrollmentRepository, never()).countByCourse_Id(any());
+    }
+
     @Test
     void getEnrollmentsByCourse_WithValidParameters_ShouldReturnPage() {
         // Arrange
@@ -185,4 +357,124 @@ class EnrollmentServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(enrollmentId, result.getContent().get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllEnrollmentsCursor_ShouldSeekFromCursorAndReturnNextToken() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 8, 0);
+        enrollment.setCreatedAt(createdAt);
+        Enrollment next = new Enrollment();
+        next.setId(2L);
+        next.setUser(user);
+        next.setCourse(course);
+        next.setCreatedAt(createdAt.plusMinutes(1));
+        Enrollment extra = new Enrollment();
+        extra.setId(3L);
+        extra.setUser(user);
+        extra.setCourse(course);
+        extra.setCreatedAt(createdAt.plusMinutes(2));
+        String cursor = CursorCodec.encode(enrollmentId, createdAt);
+        when(enrollmentRepository.findPageAfter(eq(createdAt), eq(enrollmentId), eq(Limit.of(2))))
+                .thenReturn(List.of(next, extra));
+
+        // Act
+        CursorPageDTO<EnrollmentResponseDTO> result = enrollmentService.getAllEnrollmentsCursor(cursor, 1);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertTrue(result.isHasNext());
+        CursorCodec.Cursor nextCursor = CursorCodec.decode(result.getNextCursor());
+        assertEquals(2L, nextCursor.idAsLong());
+        assertEquals(next.getCreatedAt(), nextCursor.keyAsDateTime());
+        verify(enrollmentRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    void importEnrollments_ShouldParseCsvInChunksAndReportInvalidRows() {
+        // Arrange
+        ReflectionTestUtils.setField(enrollmentService, "importChunkSize", 2);
+        ReflectionTestUtils.setField(enrollmentService, "importMaxErrors", 100);
+        String csv = "userId,courseId\n1,10\n2,10\nabc,10\n\n3,10\n";
+        when(importer.importChunk(anyList())).thenAnswer(invocation -> {
+            List<EnrollmentImporter.Row> rows = invocation.getArgument(0);
+            return rows.stream()
+                    .map(r -> EnrollmentImportRowDTO.builder()
+                            .line(r.line()).userId(r.userId()).courseId(r.courseId())
+                            .status(EnrollmentImportStatus.CREATED)
+                            .build())
+                    .toList();
+        });
+
+        // Act
+        EnrollmentImportReportDTO report = enrollmentService.importEnrollments(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"));
+
+        // Assert
+        assertEquals(4, report.getTotal());
+        assertEquals(3, report.getCreated());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(4), report.getErrors().stream().map(EnrollmentImportRowDTO::getLine).toList());
+        assertEquals(EnrollmentImportStatus.INVALID, report.getErrors().get(0).getStatus());
+        assertFalse(report.isErrorsTruncated());
+        verify(importer, times(2)).importChunk(anyList());
+    }
+
+    @Test
+    void importEnrollments_ShouldKeepOnlyTheFirstErrorsByLine() {
+        // Arrange: la linea invalida se lee antes de que el lote reporte las lineas 1 y 2
+        ReflectionTestUtils.setField(enrollmentService, "importChunkSize", 3);
+        ReflectionTestUtils.setField(enrollmentService, "importMaxErrors", 2);
+        String csv = "1,10\n2,10\nabc\n3,10\n4,10\n";
+        when(importer.importChunk(anyList())).thenAnswer(invocation -> {
+            List<EnrollmentImporter.Row> rows = invocation.getArgument(0);
+            return rows.stream()
+                    .map(r -> EnrollmentImportRowDTO.builder()
+                            .line(r.line()).userId(r.userId()).courseId(r.courseId())
+                            .status(r.line() == 4 ? EnrollmentImportStatus.CREATED : EnrollmentImportStatus.DUPLICATE)
+                            .build())
+                    .toList();
+        });
+
+        // Act
+        EnrollmentImportReportDTO report = enrollmentService.importEnrollments(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"));
+
+        // Assert
+        assertEquals(5, report.getTotal());
+        assertEquals(1, report.getCreated());
+        assertEquals(3, report.getDuplicates());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(1, 2), report.getErrors().stream().map(EnrollmentImportRowDTO::getLine).toList());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    @Test
+    void importEnrollments_ShouldParseNdjson() {
+        // Arrange
+        ReflectionTestUtils.setField(enrollmentService, "importMaxErrors", 100);
+        String ndjson = "{\"userId\":1,\"courseId\":10}\n{\"userId\":1}\n";
+        when(importer.importChunk(anyList())).thenReturn(List.of(EnrollmentImportRowDTO.builder()
+                .line(1).userId(1L).courseId(10L).status(EnrollmentImportStatus.DUPLICATE).build()));
+
+        // Act
+        EnrollmentImportReportDTO report = enrollmentService.importEnrollments(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("application/x-ndjson"));
+
+        // Assert
+        assertEquals(2, report.getTotal());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(1, report.getRejected());
+        verify(importer).importChunk(List.of(new EnrollmentImporter.Row(1, 1L, 10L)));
+    }
+
+    //el servicio con un SeatAllocator real para el curso indicado
+    private void useRealSeatAllocator(Long id, int capacity, long taken) {
+        SeatAllocator allocator = new SeatAllocator();
+        ReflectionTestUtils.setField(allocator, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(allocator, "enrollmentRepository", enrollmentRepository);
+        ReflectionTestUtils.setField(enrollmentService, "seatAllocator", allocator);
+        when(courseRepository.findCapacityById(id)).thenReturn(Optional.of(() -> capacity));
+        when(enrollmentRepository.countByCourse_IdAndActiveTrue(id)).thenReturn(taken);
+    }
+}
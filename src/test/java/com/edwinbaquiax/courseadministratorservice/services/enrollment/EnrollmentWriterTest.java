@@ -0,0 +1,100 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "uri.postgresql=jdbc:h2:mem",
+        "name.postgresql.db=test",
+        "user.postgresql=sa",
+        "password.postgresql=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(EnrollmentWriter.class)
+class EnrollmentWriterTest {
+
+    @Autowired
+    private EnrollmentWriter enrollmentWriter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = entityManager.persist(user("teacher"));
+        student = entityManager.persist(user("student"));
+        course = entityManager.persist(Course.builder()
+                .title("Curso")
+                .description("Descripcion")
+                .teacher(teacher)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void insertIfAbsent_ShouldInsertOnceAndIgnoreDoubleSubmit() {
+        // Act
+        EnrollmentResponseDTO first = enrollmentWriter.insertIfAbsent(student.getId(), course.getId());
+        EnrollmentResponseDTO second = enrollmentWriter.insertIfAbsent(student.getId(), course.getId());
+
+        // Assert
+        assertNotNull(first);
+        assertEquals("student", first.getUsernameStudent());
+        assertEquals("Curso", first.getTitle());
+        assertTrue(first.isActive());
+        assertNull(second);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollments WHERE user_id = ? AND course_id = ?",
+                Integer.class, student.getId(), course.getId()));
+    }
+
+    @Test
+    void insertIfAbsent_WithMissingUser_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(enrollmentWriter.insertIfAbsent(-1L, course.getId()));
+    }
+
+    @Test
+    void insertIfAbsent_WithInactiveCourse_ShouldReturnNull() {
+        // Arrange
+        jdbcTemplate.update("UPDATE courses SET active = false WHERE id = ?", course.getId());
+
+        // Act & Assert
+        assertNull(enrollmentWriter.insertIfAbsent(student.getId(), course.getId()));
+    }
+
+    @Test
+    void insertIfAbsent_WithDisabledUser_ShouldReturnNull() {
+        // Arrange
+        jdbcTemplate.update("UPDATE users SET enabled = false WHERE id = ?", student.getId());
+
+        // Act & Assert
+        assertNull(enrollmentWriter.insertIfAbsent(student.getId(), course.getId()));
+    }
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .name("Nombre")
+                .lastname(username)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAllocatorTest {
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    @Mock
+    private IEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private IWaitlistRepository waitlistRepository;
+
+    @Mock
+    private Waitlist waitlist;
+
+    @InjectMocks
+    private SeatAllocator seatAllocator;
+
+    private final Long courseId = 1L;
+
+    @Test
+    void tryReserve_WithTenThousandConcurrentEnrollers_ShouldNeverOverbook() throws Exception {
+        // Arrange
+        int capacity = 250;
+        int enrollers = 10_000;
+        when(courseRepository.findCapacityById(courseId)).thenReturn(Optional.of(() -> capacity));
+        when(enrollmentRepository.countByCourse_IdAndActiveTrue(courseId)).thenReturn(10L);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(enrollers);
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < enrollers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (seatAllocator.tryReserve(courseId)) granted.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Assert
+        assertEquals(capacity - 10, granted.get());
+        assertFalse(seatAllocator.tryReserve(courseId));
+        //el cupo se carga una sola vez aunque lleguen todos a la vez
+        verify(courseRepository, times(1)).findCapacityById(courseId);
+    }
+
+    @Test
+    void tryReserve_WithoutCapacity_ShouldAlwaysGrantSeat() {
+        // Arrange
+        when(courseRepository.findCapacityById(courseId)).thenReturn(Optional.of(() -> null));
+
+        // Act & Assert
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(seatAllocator.tryReserve(courseId));
+        }
+        verifyNoInteractions(enrollmentRepository);
+    }
+
+    @Test
+    void reconcile_ShouldRealignWithDatabaseAndPromoteWaitlist() {
+        // Arrange
+        when(courseRepository.findCapacityById(courseId)).thenReturn(Optional.of(() -> 2));
+        when(enrollmentRepository.countByCourse_IdAndActiveTrue(courseId)).thenReturn(2L, 1L);
+        assertFalse(seatAllocator.tryReserve(courseId));
+        when(waitlistRepository.findCourseIds()).thenReturn(List.of(courseId));
+        when(waitlist.promoteNext(courseId)).thenReturn(EnrollmentResponseDTO.builder().id(5L).build());
+
+        // Act
+        seatAllocator.reconcile();
+
+        // Assert
+        verify(waitlist, times(1)).promoteNext(courseId);
+        assertFalse(seatAllocator.tryReserve(courseId));
+    }
+
+    @Test
+    void capacityChanged_ShouldKeepSeatsTakenByPendingReservations() {
+        // Arrange: cupo 2, una inscripcion confirmada y una reserva que aun no confirma
+        when(courseRepository.findCapacityById(courseId)).thenReturn(Optional.of(() -> 2), Optional.of(() -> 3));
+        when(enrollmentRepository.countByCourse_IdAndActiveTrue(courseId)).thenReturn(1L);
+        assertTrue(seatAllocator.tryReserve(courseId));
+
+        // Act
+        seatAllocator.capacityChanged(courseId);
+
+        // Assert: con cupo 3 queda un solo lugar, la reserva pendiente sigue contando
+        assertTrue(seatAllocator.tryReserve(courseId));
+        assertFalse(seatAllocator.tryReserve(courseId));
+    }
+}
@@ -0,0 +1,126 @@
+package com.edwinbaquiax.courseadministratorservice.services.enrollment;
+
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
+import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.enrollment.EnrollmentResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.WaitlistEntry;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IEnrollmentRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IWaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistTest {
+
+    @Mock
+    private IWaitlistRepository waitlistRepository;
+
+    @Mock
+    private IEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentWriter enrollmentWriter;
+
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private Waitlist waitlist;
+
+    private final Long userId = 1L;
+    private final Long courseId = 10L;
+    private User user;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(userId);
+        user.setUsername("student");
+        user.setEnabled(true);
+        course = new Course();
+        course.setId(courseId);
+        course.setTitle("Curso lleno");
+        course.setActive(true);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+    }
+
+    @Test
+    void join_WhenNotWaiting_ShouldAddEntryAtTheEnd() {
+        // Arrange
+        when(waitlistRepository.findByUser_IdAndCourse_Id(userId, courseId)).thenReturn(Optional.empty());
+        when(waitlistRepository.saveAndFlush(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(7L);
+            return entry;
+        });
+        when(waitlistRepository.countByCourse_IdAndIdLessThanEqual(courseId, 7L)).thenReturn(3L);
+
+        // Act
+        EnrollmentResponseDTO result = waitlist.join(userId, courseId);
+
+        // Assert
+        assertTrue(result.isWaitlisted());
+        assertEquals(3L, result.getWaitlistPosition());
+    }
+
+    @Test
+    void join_WhenConcurrentJoinWinsUniqueConstraint_ShouldReturnExistingEntry() {
+        // Arrange: la otra peticion inserto entre la busqueda y la insercion
+        WaitlistEntry existing = WaitlistEntry.builder().id(5L).user(user).course(course).build();
+        when(waitlistRepository.findByUser_IdAndCourse_Id(userId, courseId))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(waitlistRepository.saveAndFlush(any(WaitlistEntry.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_waitlist_user_course"));
+        when(waitlistRepository.countByCourse_IdAndIdLessThanEqual(courseId, 5L)).thenReturn(2L);
+
+        // Act
+        EnrollmentResponseDTO result = waitlist.join(userId, courseId);
+
+        // Assert
+        assertTrue(result.isWaitlisted());
+        assertEquals(2L, result.getWaitlistPosition());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void join_WhenCourseWasDeleted_ShouldThrowException() {
+        // Arrange: el curso sigue en la tabla, inactivo, hasta que termina su limpieza
+        course.setActive(false);
+        when(waitlistRepository.findByUser_IdAndCourse_Id(userId, courseId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> waitlist.join(userId, courseId));
+        verify(waitlistRepository, never()).saveAndFlush(any(WaitlistEntry.class));
+    }
+}
@@ -1,19 +1,26 @@
 package com.edwinbaquiax.courseadministratorservice.services.module;
 
+import com.edwinbaquiax.courseadministratorservice.cache.AssignabilityCache;
+import com.edwinbaquiax.courseadministratorservice.cache.CourseCatalogCache;
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.CourseNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.module.ModuleResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Course;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.ModuleProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.ICourseRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
+import com.edwinbaquiax.courseadministratorservice.services.pagination.ApproximateCounts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -36,6 +43,21 @@ class ModuleServiceTest {
     @Mock
     private ICourseRepository courseRepository;
 
+    @Mock
+    private AssignabilityCache assignabilityCache;
+
+    @Spy
+    private CourseCatalogCache catalogCache = new CourseCatalogCache(300, 1000);
+
+    @Mock
+    private CleanupQueue cleanupQueue;
+
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private ApproximateCounts approximateCounts;
+
     @InjectMocks
     private ModuleService moduleService;
 
@@ -139,6 +161,7 @@ class ModuleServiceTest {
         // Assert
         assertFalse(module.isActive());
         verify(moduleRepository, times(1)).save(module);
+        verify(cleanupQueue, times(1)).enqueue(CleanupTarget.MODULE, moduleId);
     }
 
     @Test
@@ -0,0 +1,127 @@
+package com.edwinbaquiax.courseadministratorservice.services.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApproximateCountsTest {
+
+    //guarda los recalculos para ejecutarlos cuando el test lo decide
+    private final List<Runnable> background = new ArrayList<>();
+
+    private void runBackground() {
+        List<Runnable> tasks = List.copyOf(background);
+        background.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void total_ShouldCountOnceAndServeCachedValueWhileFresh() {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(100, 60_000, 600_000, background::add);
+        AtomicLong rows = new AtomicLong(10);
+        AtomicInteger queries = new AtomicInteger();
+
+        // Act
+        Long first = counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+        rows.set(15);
+        Long cached = counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+
+        // Assert
+        assertEquals(10L, first);
+        assertEquals(10L, cached);
+        assertEquals(1, queries.get());
+        assertTrue(background.isEmpty());
+    }
+
+    @Test
+    void total_WhenStale_ShouldServeOldValueWhileASingleRefreshRuns() throws InterruptedException {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(100, 1, 600_000, background::add);
+        AtomicLong rows = new AtomicLong(10);
+        AtomicInteger queries = new AtomicInteger();
+        counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+        rows.set(15);
+        Thread.sleep(5);
+
+        // Act
+        Long whileRefreshing = counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+        Long stillRefreshing = counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+        int scheduled = background.size();
+        runBackground();
+        Long refreshed = counts.total(true, "enrollments", () -> { queries.incrementAndGet(); return rows.get(); });
+
+        // Assert
+        assertEquals(10L, whileRefreshing);
+        assertEquals(10L, stillRefreshing);
+        assertEquals(1, scheduled);
+        assertEquals(15L, refreshed);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void total_WhenRefreshFails_ShouldKeepServingPreviousValue() throws InterruptedException {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(100, 1, 600_000, background::add);
+        AtomicInteger calls = new AtomicInteger();
+        counts.total(true, "courses", () -> {
+            if (calls.incrementAndGet() > 1) throw new IllegalStateException("sin conexion");
+            return 3;
+        });
+        Thread.sleep(5);
+
+        // Act
+        counts.total(true, "courses", () -> 0);
+        runBackground();
+
+        // Assert
+        assertEquals(3L, counts.total(true, "courses", () -> 0));
+    }
+
+    @Test
+    void total_WhenFull_ShouldMakeRoomInsteadOfCountingEveryRead() {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(2, 60_000, 600_000, background::add);
+        AtomicInteger queries = new AtomicInteger();
+        counts.total(true, "a", () -> 1);
+        counts.total(true, "b", () -> 2);
+
+        // Act
+        counts.total(true, "c", () -> { queries.incrementAndGet(); return 3; });
+        Long cached = counts.total(true, "c", () -> { queries.incrementAndGet(); return 3; });
+
+        // Assert
+        assertEquals(3L, cached);
+        assertEquals(1, queries.get());
+        assertEquals(2, counts.size());
+    }
+
+    @Test
+    void total_WhenNotRequested_ShouldNotCount() {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(100, 60_000, 600_000, background::add);
+
+        // Act & Assert
+        assertNull(counts.total(false, "courses", () -> { throw new AssertionError("no debe contar"); }));
+        assertEquals(0, counts.size());
+    }
+
+    @Test
+    void evictIdle_ShouldDropTotalsNobodyReads() throws InterruptedException {
+        // Arrange
+        ApproximateCounts counts = new ApproximateCounts(100, 60_000, 1, background::add);
+        counts.total(true, "courses", () -> 3);
+        Thread.sleep(5);
+
+        // Act
+        counts.evictIdle();
+
+        // Assert
+        assertEquals(0, counts.size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.edwinbaquiax.courseadministratorservice.services.pagination;
+
+import com.edwinbaquiax.courseadministratorservice.exceptions.InvalidCursorException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.CursorPageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void decode_ShouldRoundTripKeysContainingSeparator() {
+        // Arrange
+        String token = CursorCodec.encode(42L, "Java | Spring");
+
+        // Act
+        CursorCodec.Cursor cursor = CursorCodec.decode(token);
+
+        // Assert
+        assertEquals(42L, cursor.idAsLong());
+        assertEquals("Java | Spring", cursor.key());
+    }
+
+    @Test
+    void decode_WithoutCursor_ShouldReturnNullForFirstPage() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(""));
+    }
+
+    @Test
+    void decode_WithTamperedToken_ShouldThrowException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("%%%"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("aG9sYQ"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(CursorCodec.encode("x", "k")).idAsLong());
+    }
+
+    @Test
+    void toPage_ShouldDropExtraRowAndPointCursorAtLastVisible() {
+        // Act
+        CursorPageDTO<Integer> page = CursorCodec.toPage(List.of(1, 2, 3), 2, Function.identity(),
+                i -> CursorCodec.encode(i, null));
+
+        // Assert
+        assertEquals(List.of(1, 2), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(2L, CursorCodec.decode(page.getNextCursor()).idAsLong());
+    }
+
+    @Test
+    void toPage_OnLastPage_ShouldNotReturnCursor() {
+        // Act
+        CursorPageDTO<Integer> page = CursorCodec.toPage(List.of(1), 2, Function.identity(),
+                i -> CursorCodec.encode(i, null));
+
+        // Assert
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void clampSize_ShouldBoundPageSize() {
+        assertEquals(CursorCodec.DEFAULT_SIZE, CursorCodec.clampSize(0));
+        assertEquals(CursorCodec.MAX_SIZE, CursorCodec.clampSize(10_000));
+        assertEquals(5, CursorCodec.clampSize(5));
+    }
+}
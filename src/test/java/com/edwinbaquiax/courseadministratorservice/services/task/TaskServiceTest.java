@@ -1,15 +1,21 @@
 package com.edwinbaquiax.courseadministratorservice.services.task;
 
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.ModuleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.TaskNotFoundException;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.StudentTaskDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskRequestDTO;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskResponseDTO;
+import com.edwinbaquiax.courseadministratorservice.models.dtos.task.TaskSummaryDTO;
+import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Assignment;
 import com.edwinbaquiax.courseadministratorservice.models.entities.mongo.Task;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Module;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.TaskProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.mongo.ITaskRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IModuleRepository;
 import com.edwinbaquiax.courseadministratorservice.security.CurrentUser;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +25,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Collections;
 import java.util.List;
@@ -41,6 +55,12 @@ class TaskServiceTest {
     @Mock
     private CurrentUser currentUser;
 
+    @Mock
+    private PlatformCounters counters;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -118,6 +138,23 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).save(any(Task.class));
     }
 
+    @Test
+    void updateTask_WhenValueChanges_ShouldRefreshAssignmentMaxScore() {
+        // Arrange
+        task.setValue(50.0);
+        taskRequestDTO.setValue(80.0);
+        when(moduleRepository.findByIdAndCourse_Teacher_Id(moduleId, teacherId))
+                .thenReturn(Optional.of(module));
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        // Act
+        taskService.updateTask(taskId, taskRequestDTO);
+
+        // Assert
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Assignment.class));
+    }
+
     @Test
     void updateTask_WithNonExistentTask_ShouldThrowException() {
         // Arrange
@@ -191,12 +228,14 @@ class TaskServiceTest {
     @Test
     void findTasksByModule_WithValidParameters_ShouldReturnPage() {
         // Arrange
-        Page<Task> taskPage = new PageImpl<>(Collections.singletonList(task));
+        ITaskRepository.TaskSummary summary = mock(ITaskRepository.TaskSummary.class);
+        when(summary.getId()).thenReturn(taskId);
+        Page<ITaskRepository.TaskSummary> taskPage = new PageImpl<>(Collections.singletonList(summary));
         when(taskRepository.findAllByModuleIdAndActiveTrue(eq(moduleId), any(PageRequest.class)))
                 .thenReturn(taskPage);
 
         // Act
-        Page<TaskResponseDTO> result = taskService.findTasksByModule(moduleId, 0, 20);
+        Page<TaskSummaryDTO> result = taskService.findTasksByModule(moduleId, 0, 20);
 
         // Assert
         assertNotNull(result);
@@ -204,5 +243,55 @@ class TaskServiceTest {
         assertEquals(taskId, result.getContent().get(0).getId());
     }
 
+    @Test
+    void findTasksByStudent_ShouldUseSingleAggregation() {
+        // Arrange
+        ObjectId taskObjectId = new ObjectId();
+        Document row = new Document("_id", "assignment-1")
+                .append("user_id", 1L)
+                .append("task_id", taskObjectId.toHexString())
+                .append("status", "SUBMITTED")
+                .append("score", 90.0)
+                .append("task", new Document("_id", taskObjectId)
+                        .append("title", "Test Task")
+                        .append("module_id", moduleId)
+                        .append("active", true));
+        Document facet = new Document("page", List.of(row))
+                .append("total", List.of(new Document("value", 21)));
+
+        MappingMongoConverter converter =
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("assignments"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facet), new Document()));
+
+        // Act
+        Page<StudentTaskDTO> result = taskService.findTasksByStudent(1L, 1, 20);
+
+        // Assert
+        assertEquals(21, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        StudentTaskDTO studentTask = result.getContent().get(0);
+        assertEquals("assignment-1", studentTask.getAssignmentId());
+        assertEquals(90.0, studentTask.getScore());
+        assertEquals(taskObjectId.toHexString(), studentTask.getTask().getId());
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq("assignments"), eq(Document.class));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void studentTasksAggregation_ShouldFilterSortAndPageInOnePipeline() {
+        // Act
+        List<Document> pipeline = TaskService.studentTasksAggregation(1L, PageRequest.of(2, 10))
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
 
-}
\ No newline at end of file
+        // Assert
+        assertEquals(List.of("$match", "$sort", "$facet"),
+                pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+        Document facet = pipeline.get(2).get("$facet", Document.class);
+        List<?> pageStages = facet.get("page", List.class);
+        assertEquals(new Document("$skip", 20L), pageStages.get(0));
+        assertEquals(new Document("$limit", 10), pageStages.get(1));
+    }
+}
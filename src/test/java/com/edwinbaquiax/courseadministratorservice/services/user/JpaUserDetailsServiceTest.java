@@ -0,0 +1,72 @@
+package com.edwinbaquiax.courseadministratorservice.services.user;
+
+import com.edwinbaquiax.courseadministratorservice.models.dtos.user.LoginUserDetails;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Role;
+import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaUserDetailsServiceTest {
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @InjectMocks
+    private JpaUserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_STUDENT");
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setPassword("password");
+        user.setEnabled(true);
+        user.setRoles(new HashSet<>(Collections.singletonList(role)));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReturnDetailsWithIdFromSingleQuery() {
+        // Arrange
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails result = userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        LoginUserDetails details = assertInstanceOf(LoginUserDetails.class, result);
+        assertEquals(7L, details.getId());
+        assertEquals("ROLE_STUDENT", details.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository).findWithRolesByUsername("testuser");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loadUserByUsername_ShouldThrowWhenUserNotFound() {
+        // Arrange
+        when(userRepository.findWithRolesByUsername("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing"));
+    }
+}
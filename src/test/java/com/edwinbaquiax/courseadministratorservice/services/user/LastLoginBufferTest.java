@@ -0,0 +1,75 @@
+package com.edwinbaquiax.courseadministratorservice.services.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LastLoginBuffer buffer;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOnlyLatestInstantPerUserInOneBatch() {
+        // Arrange
+        LocalDateTime earlier = LocalDateTime.of(2024, 3, 1, 8, 0);
+        LocalDateTime later = earlier.plusMinutes(5);
+        buffer.record(1L, later);
+        buffer.record(1L, earlier);
+        buffer.record(2L, earlier);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(LastLoginBuffer.UPDATE_SQL), captor.capture());
+        List<Object[]> batch = captor.getValue();
+        assertEquals(2, batch.size());
+        Object[] user1 = batch.stream().filter(args -> args[1].equals(1L)).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(later), user1[0]);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void flush_ShouldKeepPendingValuesWhenWriteFails() {
+        // Arrange
+        buffer.record(1L, LocalDateTime.now());
+        when(jdbcTemplate.batchUpdate(eq(LastLoginBuffer.UPDATE_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(1, buffer.pendingCount());
+    }
+
+    @Test
+    void flush_ShouldNotTouchDatabaseWhenEmpty() {
+        // Act
+        buffer.flush();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -1,11 +1,14 @@
 package com.edwinbaquiax.courseadministratorservice.services.user;
 
+import com.edwinbaquiax.courseadministratorservice.cleanup.CleanupQueue;
+import com.edwinbaquiax.courseadministratorservice.counters.PlatformCounters;
 import com.edwinbaquiax.courseadministratorservice.exceptions.RoleNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UserNotFoundException;
 import com.edwinbaquiax.courseadministratorservice.exceptions.UsernameIsExistsException;
 import com.edwinbaquiax.courseadministratorservice.models.dtos.user.UserResponseDTO;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.Role;
 import com.edwinbaquiax.courseadministratorservice.models.entities.sql.User;
+import com.edwinbaquiax.courseadministratorservice.models.enums.CleanupTarget;
 import com.edwinbaquiax.courseadministratorservice.models.mappers.UserProfile;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IRoleRepository;
 import com.edwinbaquiax.courseadministratorservice.repositories.sql.IUserRepository;
@@ -36,6 +39,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CleanupQueue cleanupQueue;
+
+    @Mock
+    private PlatformCounters counters;
+
     @InjectMocks
     private UserService userService;
 
@@ -217,4 +226,19 @@ class UserServiceTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void delete_ShouldDisableUserAndQueueCleanup() {
+        // Arrange
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        userService.delete(userId);
+
+        // Assert
+        assertFalse(user.isEnabled());
+        verify(userRepository, times(1)).save(user);
+        verify(userRepository, never()).delete(any(User.class));
+        verify(cleanupQueue, times(1)).enqueue(CleanupTarget.USER, userId);
+    }
+}